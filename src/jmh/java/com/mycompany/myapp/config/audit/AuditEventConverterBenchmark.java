@@ -0,0 +1,42 @@
+package com.mycompany.myapp.config.audit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link AuditEventConverter#convertDataToStrings(Map)}, on the data of an authentication event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditEventConverterBenchmark {
+
+    private AuditEventConverter auditEventConverter;
+
+    private Map<String, Object> data;
+
+    @Setup
+    public void setup() {
+        auditEventConverter = new AuditEventConverter();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.168.0.1");
+        request.getSession(true);
+        data = new HashMap<>();
+        data.put("details", new WebAuthenticationDetails(request));
+        data.put("type", "org.springframework.security.authentication.BadCredentialsException");
+        data.put("message", "Bad credentials");
+    }
+
+    @Benchmark
+    public Map<String, String> convertDataToStrings() {
+        return auditEventConverter.convertDataToStrings(data);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link TokenProvider#getAuthentication(String)}, with the authentication cache enabled and disabled,
+ * the latter measuring the full signature verification and parsing of the token.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    @Param({"10000", "0"})
+    private int cacheMaxSize;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwtCache().setMaxSize(cacheMaxSize);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties);
+        tokenProvider.init();
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken("benchmark", "benchmark", Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+import com.mycompany.myapp.service.dto.CategoryCriteria;
+import com.mycompany.myapp.service.dto.ProductCriteria;
+
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LocalDateFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@code createSpecification} of the {@link ProductQueryService} and {@link CategoryQueryService},
+ * with no filter and with a typical combination of filters.
+ * <p>
+ * Only the building of the {@link Specification}s is measured, the services are not wired to a database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuerySpecificationBenchmark {
+
+    private ProductQueryService productQueryService;
+
+    private CategoryQueryService categoryQueryService;
+
+    private ProductCriteria productCriteria;
+
+    private CategoryCriteria categoryCriteria;
+
+    @Setup
+    public void setup() {
+        productQueryService = new ProductQueryService(null, null, null, null, null, new ApplicationProperties());
+        categoryQueryService = new CategoryQueryService(null, null, null);
+
+        productCriteria = new ProductCriteria();
+        StringFilter title = new StringFilter();
+        title.setContains("phone");
+        productCriteria.setTitle(title);
+        IntegerFilter rating = new IntegerFilter();
+        rating.setGreaterThanOrEqual(3);
+        productCriteria.setRating(rating);
+        LocalDateFilter dateAdded = new LocalDateFilter();
+        dateAdded.setGreaterThan(LocalDate.of(2020, 1, 1));
+        productCriteria.setDateAdded(dateAdded);
+        LongFilter categoryId = new LongFilter();
+        categoryId.setIn(Arrays.asList(1L, 2L, 3L));
+        productCriteria.setCategoryId(categoryId);
+
+        categoryCriteria = new CategoryCriteria();
+        CategoryCriteria.CategoryStatusFilter status = new CategoryCriteria.CategoryStatusFilter();
+        status.setEquals(CategoryStatus.AVAILABLE);
+        categoryCriteria.setStatus(status);
+        LongFilter parentId = new LongFilter();
+        parentId.setEquals(1L);
+        categoryCriteria.setParentId(parentId);
+        LongFilter productId = new LongFilter();
+        productId.setIn(Arrays.asList(1L, 2L, 3L));
+        categoryCriteria.setProductId(productId);
+    }
+
+    @Benchmark
+    public Specification<Product> productWithoutFilter() {
+        return productQueryService.createSpecification(new ProductCriteria());
+    }
+
+    @Benchmark
+    public Specification<Product> productWithFilters() {
+        return productQueryService.createSpecification(productCriteria);
+    }
+
+    @Benchmark
+    public Specification<Category> categoryWithoutFilter() {
+        return categoryQueryService.createSpecification(new CategoryCriteria());
+    }
+
+    @Benchmark
+    public Specification<Category> categoryWithFilters() {
+        return categoryQueryService.createSpecification(categoryCriteria);
+    }
+}
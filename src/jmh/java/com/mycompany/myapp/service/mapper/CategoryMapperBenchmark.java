@@ -0,0 +1,77 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+import com.mycompany.myapp.service.dto.CategoryDTO;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link CategoryMapper}, on pages of categories, which map their products too.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CategoryMapperBenchmark {
+
+    private static final int SIZE = 20;
+
+    @Param({"0", "10", "100"})
+    private int productsPerCategory;
+
+    private AnnotationConfigApplicationContext context;
+
+    private CategoryMapper categoryMapper;
+
+    private List<Category> categories;
+
+    private List<CategoryDTO> categoryDTOs;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(CategoryMapper.class.getPackage().getName());
+        categoryMapper = context.getBean(CategoryMapper.class);
+        Category parent = new Category();
+        parent.setId(0L);
+        categories = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setDescription("Category " + i);
+            category.setSortOrder(i);
+            category.setDateAdded(LocalDate.of(2020, 1, 1).plusDays(i));
+            category.setDateModified(LocalDate.of(2020, 6, 1).plusDays(i));
+            category.setStatus(CategoryStatus.AVAILABLE);
+            category.setParent(parent);
+            for (int j = 0; j < productsPerCategory; j++) {
+                category.addProduct(ProductMapperBenchmark.product((long) i * productsPerCategory + j));
+            }
+            categories.add(category);
+        }
+        categoryDTOs = categoryMapper.toDto(categories);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> toDto() {
+        return categoryMapper.toDto(categories);
+    }
+
+    @Benchmark
+    public List<Category> toEntity() {
+        return categoryMapper.toEntity(categoryDTOs);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.WishList;
+import com.mycompany.myapp.service.dto.ProductDTO;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link ProductMapper}, on pages of products.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    @Param({"1", "20", "500"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+
+    private ProductMapper productMapper;
+
+    private List<Product> products;
+
+    private List<ProductDTO> productDTOs;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigApplicationContext(ProductMapper.class.getPackage().getName());
+        productMapper = context.getBean(ProductMapper.class);
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(product(i));
+        }
+        productDTOs = productMapper.toDto(products);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> toDto() {
+        return productMapper.toDto(products);
+    }
+
+    @Benchmark
+    public List<Product> toEntity() {
+        return productMapper.toEntity(productDTOs);
+    }
+
+    static Product product(long id) {
+        WishList wishList = new WishList();
+        wishList.setId(id % 100);
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle("Product " + id);
+        product.setKeywords("benchmark,product," + id);
+        product.setDescription("Description of the product " + id);
+        product.setRating((int) (id % 5) + 1);
+        product.setDateAdded(LocalDate.of(2020, 1, 1).plusDays(id % 365));
+        product.setDateModified(LocalDate.of(2020, 6, 1).plusDays(id % 365));
+        product.setWishList(wishList);
+        return product;
+    }
+}
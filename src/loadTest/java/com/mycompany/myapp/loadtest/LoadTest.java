@@ -0,0 +1,240 @@
+package com.mycompany.myapp.loadtest;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.jwt.JWTFilter;
+import com.mycompany.myapp.security.jwt.TokenProvider;
+import com.mycompany.myapp.service.CategoryProductIndex;
+import com.mycompany.myapp.service.CategoryTree;
+import com.mycompany.myapp.service.ProductSearchIndex;
+
+import org.HdrHistogram.Histogram;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the REST resources.
+ * <p>
+ * The application is started on an in-memory H2 database and filled with a generated {@link LoadTestDataset}. Concurrent clients
+ * then send a mix of read and write requests, authenticated with a token minted by the {@link TokenProvider}, for a
+ * warmup period and then for the measured period. The latency percentiles of every kind of request are written to the
+ * console and to the report file.
+ * <p>
+ * The load test is run with {@code ./gradlew loadTest}, see {@link LoadTestOptions} for its options.
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadTestOptions options;
+
+    private final LoadTestDataset dataset;
+
+    private final List<Scenario> reads = new ArrayList<>();
+
+    private final List<Scenario> writes = new ArrayList<>();
+
+    private LoadTest(LoadTestOptions options, LoadTestDataset dataset) {
+        this.options = options;
+        this.dataset = dataset;
+        add(Scenario.read("GET /api/products", 20, (rest, random) ->
+            rest.getForObject("/api/products?page={page}&size={size}", String.class, random.nextInt(50), PAGE_SIZE)));
+        add(Scenario.read("GET /api/products?categoryId.equals", 15, (rest, random) ->
+            rest.getForObject("/api/products?categoryId.equals={id}&size={size}", String.class, category(random), PAGE_SIZE)));
+        add(Scenario.read("GET /api/products/_facets", 5, (rest, random) ->
+            rest.getForObject("/api/products/_facets?categoryId.equals={id}", String.class, category(random))));
+        add(Scenario.read("GET /api/products?categoryExpression", 5, (rest, random) ->
+            rest.getForObject("/api/products?categoryExpression={expression}&size={size}", String.class,
+                category(random) + " and (" + category(random) + " or " + category(random) + ") and not " + category(random),
+                PAGE_SIZE)));
+        add(Scenario.read("GET /api/products/{id}", 25, (rest, random) ->
+            rest.getForObject("/api/products/{id}", String.class, product(random))));
+        add(Scenario.read("GET /api/products/_search", 10, (rest, random) ->
+            rest.getForObject("/api/products/_search?q={q}&size={size}", String.class, "keyword" + random.nextInt(100), PAGE_SIZE)));
+        add(Scenario.read("GET /api/categories", 5, (rest, random) ->
+            rest.getForObject("/api/categories?page={page}&size={size}", String.class, random.nextInt(10), PAGE_SIZE)));
+        add(Scenario.read("GET /api/categories/{id}", 15, (rest, random) ->
+            rest.getForObject("/api/categories/{id}", String.class, category(random))));
+        add(Scenario.read("GET /api/categories/{id}/ancestors", 5, (rest, random) ->
+            rest.getForObject("/api/categories/{id}/ancestors", String.class, category(random))));
+        add(Scenario.read("GET /api/categories/{id}/products", 5, (rest, random) ->
+            rest.getForObject("/api/categories/{id}/products?size={size}", String.class, category(random), PAGE_SIZE)));
+        add(Scenario.read("GET /api/categories/summaries", 5, (rest, random) ->
+            rest.getForObject("/api/categories/summaries?page={page}&size={size}", String.class, random.nextInt(10), PAGE_SIZE)));
+        add(Scenario.write("POST /api/products", 2, (rest, random) ->
+            rest.postForObject("/api/products", productBody(null, random), String.class)));
+        add(Scenario.write("PUT /api/products", 3, (rest, random) ->
+            rest.put("/api/products", productBody(product(random), random))));
+        add(Scenario.write("PUT /api/categories/{id}/products/{productId}", 1, (rest, random) ->
+            rest.put("/api/categories/{id}/products/{productId}", null, category(random), product(random))));
+        add(Scenario.write("DELETE /api/categories/{id}/products/{productId}", 1, (rest, random) ->
+            rest.delete("/api/categories/{id}/products/{productId}", category(random), product(random))));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions();
+        SpringApplication application = new SpringApplication(SampleonlineshopApp.class);
+        application.setAdditionalProfiles("loadtest");
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            log.info("Generating the dataset: {}", options);
+            LoadTestDataset dataset = LoadTestDataset.generate(options, context.getBean(DataSource.class));
+            context.getBean(ProductSearchIndex.class).rebuild();
+            context.getBean(CategoryTree.class).rebuild();
+            context.getBean(CategoryProductIndex.class).rebuild();
+
+            String token = context.getBean(TokenProvider.class).createToken(new UsernamePasswordAuthenticationToken("loadtest", "",
+                Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))),
+                false);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            new LoadTest(options, dataset).run(baseUrl, token);
+        }
+    }
+
+    private void run(String baseUrl, String token) throws InterruptedException, IOException {
+        try (CloseableHttpClient httpClient = HttpClients.custom()
+                .setMaxConnTotal(options.concurrency)
+                .setMaxConnPerRoute(options.concurrency)
+                .build()) {
+            RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+            restTemplate.getInterceptors().add((request, body, execution) -> {
+                request.getHeaders().set(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+                return execution.execute(request, body);
+            });
+
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmup);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(options.duration);
+            ExecutorService clients = Executors.newFixedThreadPool(options.concurrency);
+            for (int i = 0; i < options.concurrency; i++) {
+                Random random = new Random(options.seed + i);
+                clients.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        next(random).run(restTemplate, random);
+                    }
+                });
+            }
+            log.info("Warming up for {}s with {} clients", options.warmup, options.concurrency);
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            for (Scenario scenario : scenarios()) {
+                scenario.latencies();
+                scenario.errors();
+            }
+            log.info("Measuring for {}s", options.duration);
+            clients.shutdown();
+            clients.awaitTermination(options.duration + 60L, TimeUnit.SECONDS);
+            report(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - measureFrom) / 1000.0);
+        }
+    }
+
+    private Scenario next(Random random) {
+        List<Scenario> group = random.nextDouble() < options.writeRatio ? writes : reads;
+        int total = group.stream().mapToInt(scenario -> scenario.weight).sum();
+        int pick = random.nextInt(total);
+        for (Scenario scenario : group) {
+            pick -= scenario.weight;
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("No scenario picked");
+    }
+
+    private void report(double seconds) throws IOException {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Load test, %s%n%n", options));
+        report.append(String.format("%-38s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Scenario scenario : scenarios()) {
+            Histogram latencies = scenario.latencies();
+            long errors = scenario.errors();
+            report.append(line(scenario.name, latencies, errors, seconds));
+            if (total == null) {
+                total = latencies.copy();
+            } else {
+                total.add(latencies);
+            }
+            totalErrors += errors;
+            if (errors > 0) {
+                log.warn("{} failed {} times, first with: {}", scenario.name, errors, scenario.firstError().toString());
+            }
+        }
+        report.append(line("Total", total, totalErrors, seconds));
+        log.info("Load test results\n{}", report);
+
+        Path file = Paths.get(options.report);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+        log.info("Load test results written to {}", file.toAbsolutePath());
+    }
+
+    private static String line(String name, Histogram latencies, long errors, double seconds) {
+        return String.format("%-38s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.getTotalCount(), errors,
+            latencies.getTotalCount() / seconds, millis(latencies, 50), millis(latencies, 90), millis(latencies, 99),
+            millis(latencies, 99.9), latencies.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private void add(Scenario scenario) {
+        (scenario.write ? writes : reads).add(scenario);
+    }
+
+    private List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>(reads);
+        scenarios.addAll(writes);
+        return scenarios;
+    }
+
+    private long product(Random random) {
+        return dataset.product(random);
+    }
+
+    private long category(Random random) {
+        return dataset.category(random);
+    }
+
+    private static Map<String, Object> productBody(Long id, Random random) {
+        Map<String, Object> product = new HashMap<>();
+        product.put("id", id);
+        product.put("title", "Load test product " + random.nextInt(1000000));
+        product.put("keywords", "keyword" + random.nextInt(100));
+        product.put("rating", 1 + random.nextInt(5));
+        product.put("dateAdded", LocalDate.now().toString());
+        return product;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mycompany.myapp.loadtest;
+
+import com.mycompany.myapp.config.liquibase.PerfDataset;
+import com.mycompany.myapp.config.liquibase.PerfDataset.IdRange;
+import com.mycompany.myapp.config.liquibase.PerfDatasetGenerator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * The dataset the load test runs on, generated by the {@link PerfDatasetGenerator}, and the choice of the entities
+ * the requests are about, most of them on a few popular entities.
+ */
+final class LoadTestDataset {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final PerfDataset dataset;
+
+    private LoadTestDataset(PerfDataset dataset) {
+        this.dataset = dataset;
+    }
+
+    static LoadTestDataset generate(LoadTestOptions options, DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return new LoadTestDataset(new PerfDatasetGenerator(options.seed, BATCH_SIZE)
+                .generate(connection, options.categories, options.categoryDepth, options.products, options.customers));
+        }
+    }
+
+    long product(Random random) {
+        return pick(random, dataset.getProducts());
+    }
+
+    long category(Random random) {
+        return pick(random, dataset.getCategories());
+    }
+
+    private static long pick(Random random, IdRange ids) {
+        double uniform = random.nextDouble();
+        return ids.get((int) (ids.getCount() * uniform * uniform * uniform));
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.loadtest;
+
+/**
+ * Options of the load test, read from the {@code loadtest.*} system properties.
+ */
+final class LoadTestOptions {
+
+    /**
+     * Number of concurrent clients.
+     */
+    final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+
+    /**
+     * Seconds of requests before the measurement starts, for the JIT and the caches to warm up.
+     */
+    final int warmup = Integer.getInteger("loadtest.warmup", 15);
+
+    /**
+     * Seconds of measured requests.
+     */
+    final int duration = Integer.getInteger("loadtest.duration", 60);
+
+    /**
+     * Share of the requests which create or update entities, from 0 to 1.
+     */
+    final double writeRatio = Double.parseDouble(System.getProperty("loadtest.writeRatio", "0.1"));
+
+    /**
+     * Seed of the generated dataset and of the requests.
+     */
+    final long seed = Long.getLong("loadtest.seed", 42);
+
+    /**
+     * Number of generated categories.
+     */
+    final int categories = Integer.getInteger("loadtest.categories", 500);
+
+    /**
+     * Number of levels of the generated category tree.
+     */
+    final int categoryDepth = Integer.getInteger("loadtest.categoryDepth", 6);
+
+    /**
+     * Number of generated products.
+     */
+    final int products = Integer.getInteger("loadtest.products", 100000);
+
+    /**
+     * Number of generated customers, with their addresses and wish lists.
+     */
+    final int customers = Integer.getInteger("loadtest.customers", 20000);
+
+    /**
+     * File the summary is written to, in addition to the console.
+     */
+    final String report = System.getProperty("loadtest.report", "build/reports/load-test/summary.txt");
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", warmup=" + warmup + "s, duration=" + duration + "s, writeRatio=" + writeRatio +
+            ", seed=" + seed + ", categories=" + categories + ", categoryDepth=" + categoryDepth + ", products=" + products +
+            ", customers=" + customers;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mycompany.myapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A kind of request sent by the load test, with the latencies of its successful requests, in microseconds, and the
+ * count of its failed ones.
+ */
+final class Scenario {
+
+    /**
+     * The request, sent with the clients' {@link RestTemplate}, which fails on error status codes.
+     */
+    @FunctionalInterface
+    interface Request {
+        void send(RestTemplate restTemplate, Random random);
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final String name;
+
+    final int weight;
+
+    final boolean write;
+
+    private final Request request;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    private volatile Throwable firstError;
+
+    private Scenario(String name, int weight, boolean write, Request request) {
+        this.name = name;
+        this.weight = weight;
+        this.write = write;
+        this.request = request;
+    }
+
+    static Scenario read(String name, int weight, Request request) {
+        return new Scenario(name, weight, false, request);
+    }
+
+    static Scenario write(String name, int weight, Request request) {
+        return new Scenario(name, weight, true, request);
+    }
+
+    void run(RestTemplate restTemplate, Random random) {
+        long start = System.nanoTime();
+        try {
+            request.send(restTemplate, random);
+            recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS));
+        } catch (RuntimeException e) {
+            errors.increment();
+            if (firstError == null) {
+                firstError = e;
+            }
+        }
+    }
+
+    /**
+     * @return the latencies recorded since the previous call, which starts a new interval.
+     */
+    Histogram latencies() {
+        return recorder.getIntervalHistogram();
+    }
+
+    /**
+     * @return the errors counted since the previous call, which starts a new interval.
+     */
+    long errors() {
+        return errors.sumThenReset();
+    }
+
+    Throwable firstError() {
+        return firstError;
+    }
+}
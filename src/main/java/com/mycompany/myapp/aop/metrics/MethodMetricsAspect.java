@@ -0,0 +1,185 @@
+package com.mycompany.myapp.aop.metrics;
+
+import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspect timing the execution of service and repository Spring components, and of Web REST endpoints.
+ *
+ * Every method gets a {@code method.timed} timer, tagged with its class, its name and the exception it threw, if any.
+ * It is switched with the level of the logger of the class, so per package through {@code /management/loggers}:
+ * <ul>
+ *     <li>at {@code INFO} or finer, the method is timed;</li>
+ *     <li>at {@code DEBUG} or finer, the arguments of a sample of the calls are also logged;</li>
+ *     <li>at {@code WARN} or coarser, the method runs untouched.</li>
+ * </ul>
+ * The timer and logger of a method are looked up once, so a timed call does not allocate.
+ * Whatever the level, the exceptions thrown by the methods are logged at {@code ERROR}, with their stack trace with
+ * the "dev" profile.
+ */
+@Aspect
+public class MethodMetricsAspect {
+    public static final String METRIC_NAME = "method.timed";
+
+    private final MeterRegistry registry;
+
+    private final double argumentSampleRate;
+
+    private final boolean development;
+
+    private final Map<Class<?>, Map<Method, TimedMethod>> timedMethods = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry registry, double argumentSampleRate, Environment env) {
+        this.registry = registry;
+        this.argumentSampleRate = argumentSampleRate;
+        this.development = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+    }
+
+    /**
+     * Pointcut that matches all services of the application's main packages.
+     */
+    @Pointcut("within(@org.springframework.stereotype.Service *)" + " && within(com.mycompany.myapp.service..*)")
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring Data repositories, whose methods are mostly inherited from Spring Data interfaces.
+     */
+    @Pointcut("target(org.springframework.data.repository.Repository)")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Web REST endpoints.
+     */
+    @Pointcut("within(@org.springframework.web.bind.annotation.RestController *)" + " && within(com.mycompany.myapp.web.rest..*)")
+    public void webRestPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a method, and logs a sample of its arguments.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("servicePointcut() || repositoryPointcut() || webRestPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        TimedMethod method = timedMethod(joinPoint);
+        if (!method.log.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
+        if (method.log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < argumentSampleRate) {
+            method.log.debug("Enter: {}() with argument[s] = {}", method.name, Arrays.toString(joinPoint.getArgs()));
+        }
+        long start = registry.config().clock().monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            method.timer.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            method
+                .timer(e.getClass().getSimpleName())
+                .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Advice that logs methods throwing exceptions.
+     *
+     * @param joinPoint join point for advice.
+     * @param e exception.
+     */
+    @AfterThrowing(pointcut = "servicePointcut() || repositoryPointcut() || webRestPointcut()", throwing = "e")
+    public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        TimedMethod method = timedMethod(joinPoint);
+        if (development) {
+            method.log.error(
+                "Exception in {}() with cause = \'{}\' and exception = \'{}\'",
+                method.name,
+                e.getCause() != null ? e.getCause() : "NULL",
+                e.getMessage(),
+                e
+            );
+        } else {
+            method.log.error("Exception in {}() with cause = {}", method.name, e.getCause() != null ? e.getCause() : "NULL");
+        }
+    }
+
+    /**
+     * The same method may be called on several beans, like {@code findAll} on every repository,
+     * so methods are looked up by class of the target first.
+     */
+    private TimedMethod timedMethod(JoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        return timedMethods
+            .computeIfAbsent(target.getClass(), targetClass -> new ConcurrentHashMap<>())
+            .computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), method -> new TimedMethod(userType(target), method));
+    }
+
+    /**
+     * @return the repository interface of a Spring Data repository, or the class of another bean.
+     */
+    private static Class<?> userType(Object target) {
+        if (Proxy.isProxyClass(target.getClass()) && target instanceof Advised) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+            if (interfaces.length > 0) {
+                return interfaces[0];
+            }
+        }
+        return ClassUtils.getUserClass(target);
+    }
+
+    private final class TimedMethod {
+        private final String className;
+
+        private final String name;
+
+        private final Logger log;
+
+        private final Timer timer;
+
+        private TimedMethod(Class<?> type, Method method) {
+            this.className = type.getSimpleName();
+            this.name = method.getName();
+            this.log = LoggerFactory.getLogger(type);
+            this.timer = timer("none");
+        }
+
+        private Timer timer(String exception) {
+            return Timer
+                .builder(METRIC_NAME)
+                .description("Execution time of the service, repository and REST endpoint methods")
+                .tag("class", className)
+                .tag("method", name)
+                .tag("exception", exception)
+                .register(registry);
+        }
+    }
+}
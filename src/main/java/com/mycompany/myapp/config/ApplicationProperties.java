@@ -2,6 +2,11 @@ package com.mycompany.myapp.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to Sampleonlineshop.
  * <p>
@@ -9,4 +14,410 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link io.github.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final CountCache countCache = new CountCache();
+
+    private final Export export = new Export();
+
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    public Export getExport() {
+        return export;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    private final NearCache nearCache = new NearCache();
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    private final LocalCache localCache = new LocalCache();
+
+    public LocalCache getLocalCache() {
+        return localCache;
+    }
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    private final MethodMetrics methodMetrics = new MethodMetrics();
+
+    public MethodMetrics getMethodMetrics() {
+        return methodMetrics;
+    }
+
+    private final AuditEvents auditEvents = new AuditEvents();
+
+    public AuditEvents getAuditEvents() {
+        return auditEvents;
+    }
+
+    private final HibernateStatistics hibernateStatistics = new HibernateStatistics();
+
+    public HibernateStatistics getHibernateStatistics() {
+        return hibernateStatistics;
+    }
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public static class CountCache {
+
+        private long refreshAfterSeconds = 60;
+
+        private int maxEntries = 1000;
+
+        public long getRefreshAfterSeconds() {
+            return refreshAfterSeconds;
+        }
+
+        public void setRefreshAfterSeconds(long refreshAfterSeconds) {
+            this.refreshAfterSeconds = refreshAfterSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Export {
+
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class BulkImport {
+
+        private int chunkSize = 500;
+
+        private int validationParallelism = 4;
+
+        private int maxReportedErrors = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getValidationParallelism() {
+            return validationParallelism;
+        }
+
+        public void setValidationParallelism(int validationParallelism) {
+            this.validationParallelism = validationParallelism;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+    }
+
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        private int maxSize = 10000;
+
+        private int timeToLiveSeconds = 60;
+
+        private final Map<String, Integer> regionMaxSizes = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Map<String, Integer> getRegionMaxSizes() {
+            return regionMaxSizes;
+        }
+    }
+
+    public static class LocalCache {
+
+        private int maxSize = 1000;
+
+        private long timeToLiveSeconds = 60;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    public static class JwtCache {
+
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class MethodMetrics {
+
+        private double argumentSampleRate = 0.01;
+
+        public double getArgumentSampleRate() {
+            return argumentSampleRate;
+        }
+
+        public void setArgumentSampleRate(double argumentSampleRate) {
+            this.argumentSampleRate = argumentSampleRate;
+        }
+    }
+
+    public static class AuditEvents {
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 200;
+
+        private String purgeCron = "0 0 3 * * ?";
+
+        private int purgeChunkSize = 1000;
+
+        private long purgeThrottleMillis = 100;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getPurgeCron() {
+            return purgeCron;
+        }
+
+        public void setPurgeCron(String purgeCron) {
+            this.purgeCron = purgeCron;
+        }
+
+        public int getPurgeChunkSize() {
+            return purgeChunkSize;
+        }
+
+        public void setPurgeChunkSize(int purgeChunkSize) {
+            this.purgeChunkSize = purgeChunkSize;
+        }
+
+        public long getPurgeThrottleMillis() {
+            return purgeThrottleMillis;
+        }
+
+        public void setPurgeThrottleMillis(long purgeThrottleMillis) {
+            this.purgeThrottleMillis = purgeThrottleMillis;
+        }
+    }
+
+    public static class HibernateStatistics {
+
+        private boolean enabled = false;
+
+        private long slowQueryThresholdMillis = 500;
+
+        private int maxQueries = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSlowQueryThresholdMillis() {
+            return slowQueryThresholdMillis;
+        }
+
+        public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+            this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        }
+
+        public int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public void setMaxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+        }
+    }
+
+    public static class ReadReplicas {
+
+        private boolean enabled = false;
+
+        private final List<Replica> replicas = new ArrayList<>();
+
+        private long maxLagSeconds = 10;
+
+        private long checkIntervalMillis = 5000;
+
+        private String lagQuery = "SHOW SLAVE STATUS";
+
+        private String lagColumn = "Seconds_Behind_Master";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public long getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        public void setMaxLagSeconds(long maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public long getCheckIntervalMillis() {
+            return checkIntervalMillis;
+        }
+
+        public void setCheckIntervalMillis(long checkIntervalMillis) {
+            this.checkIntervalMillis = checkIntervalMillis;
+        }
+
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+
+        public String getLagColumn() {
+            return lagColumn;
+        }
+
+        public void setLagColumn(String lagColumn) {
+            this.lagColumn = lagColumn;
+        }
+
+        public static class Replica {
+
+            private String name;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+}
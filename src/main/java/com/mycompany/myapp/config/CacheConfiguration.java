@@ -1,11 +1,15 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.config.cache.TwoTierCacheManager;
+
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.config.cache.PrefixedKeyGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,13 +44,15 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
-        log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties) {
+        log.debug("Starting TwoTierCacheManager");
+        return new TwoTierCacheManager(hazelcastInstance, meterRegistry, applicationProperties.getLocalCache().getMaxSize(),
+            TimeUnit.SECONDS.toMillis(applicationProperties.getLocalCache().getTimeToLiveSeconds()));
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("sampleonlineshop");
         if (hazelCastInstance != null) {
@@ -70,7 +76,12 @@ public class CacheConfiguration {
 
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("com.mycompany.myapp.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        MapConfig domainMapConfig = initializeDomainMapConfig(jHipsterProperties, applicationProperties.getNearCache());
+        config.getMapConfigs().put("com.mycompany.myapp.domain.*", domainMapConfig);
+        if (domainMapConfig.getNearCacheConfig() != null) {
+            applicationProperties.getNearCache().getRegionMaxSizes().forEach((region, maxSize) ->
+                config.getMapConfigs().put(region, initializeRegionMapConfig(domainMapConfig, region, maxSize)));
+        }
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -112,12 +123,52 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties.NearCache nearCache) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        if (nearCache.isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(nearCache));
+        }
         return mapConfig;
     }
 
+    private NearCacheConfig initializeNearCacheConfig(ApplicationProperties.NearCache nearCache) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+
+        /*
+        Entries are kept deserialized: the second-level cache entries of Hibernate
+        are immutable, so they can be shared by all the sessions reading them.
+        */
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+
+        /*
+        Every update or eviction of an entry, on any member, removes the local
+        copies of the other members. The invalidations are sent asynchronously,
+        so the near caches are only eventually consistent: until an invalidation
+        arrives, another member may still serve the previous entry. The
+        time-to-live bounds how long, should an invalidation be lost.
+        */
+        nearCacheConfig.setInvalidateOnChange(true);
+
+        /*
+        A member also keeps copies of the entries it owns, otherwise a single
+        member, as in development, would never hit its near cache.
+        */
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(nearCache.getMaxSize(), EvictionConfig.MaxSizePolicy.ENTRY_COUNT,
+            EvictionPolicy.LRU));
+        return nearCacheConfig;
+    }
+
+    private MapConfig initializeRegionMapConfig(MapConfig domainMapConfig, String region, int nearCacheMaxSize) {
+        MapConfig mapConfig = new MapConfig(domainMapConfig).setName(region);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(domainMapConfig.getNearCacheConfig());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(nearCacheMaxSize, EvictionConfig.MaxSizePolicy.ENTRY_COUNT,
+            EvictionPolicy.LRU));
+        return mapConfig.setNearCacheConfig(nearCacheConfig);
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
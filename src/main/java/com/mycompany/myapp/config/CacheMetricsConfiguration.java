@@ -0,0 +1,82 @@
+package com.mycompany.myapp.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the statistics of the Hazelcast maps backing the Hibernate second-level cache regions,
+ * near cache hits and misses included, as {@code cache.*} meters tagged with the region name and {@code tier=distributed}.
+ * When the Hibernate statistics are collected, see {@link HibernateStatisticsConfiguration}, the hits, misses and puts
+ * of every region as seen by Hibernate are also published as {@code hibernate.second.level.cache.region.*} meters.
+ * <p>
+ * Regions are known once the entity manager factories are built, so they are bound here, the same way Spring Boot
+ * binds the Hibernate statistics, rather than from a {@link io.micrometer.core.instrument.binder.MeterBinder} bean.
+ */
+@Configuration
+public class CacheMetricsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CacheMetricsConfiguration.class);
+
+    private final MeterRegistry registry;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public CacheMetricsConfiguration(MeterRegistry registry, HazelcastInstance hazelcastInstance) {
+        this.registry = registry;
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @Autowired
+    public void bindSecondLevelCacheRegionsToRegistry(Map<String, EntityManagerFactory> entityManagerFactories) {
+        entityManagerFactories.values().forEach(this::bindSecondLevelCacheRegions);
+    }
+
+    private void bindSecondLevelCacheRegions(EntityManagerFactory entityManagerFactory) {
+        // Without second-level cache, Hibernate reports no region at all
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Set<String> regions = sessionFactory.getCache().getCacheRegionNames();
+        if (regions == null) {
+            return;
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : regions) {
+            log.debug("Binding metrics of the second-level cache region {}", region);
+            HazelcastCacheMetrics.monitor(registry, hazelcastInstance.getMap(region), "tier", "distributed");
+            if (statistics.isStatisticsEnabled()) {
+                bindRegionStatistics(statistics, region, "hibernate.second.level.cache.region.requests",
+                    CacheRegionStatistics::getHitCount, "result", "hit");
+                bindRegionStatistics(statistics, region, "hibernate.second.level.cache.region.requests",
+                    CacheRegionStatistics::getMissCount, "result", "miss");
+                bindRegionStatistics(statistics, region, "hibernate.second.level.cache.region.puts",
+                    CacheRegionStatistics::getPutCount);
+            }
+        }
+    }
+
+    private void bindRegionStatistics(Statistics statistics, String region, String name,
+            ToLongFunction<CacheRegionStatistics> count, String... tags) {
+        FunctionCounter.builder(name, statistics, s -> {
+            // Null for the regions which hold neither entities nor collections
+            CacheRegionStatistics regionStatistics = s.getDomainDataRegionStatistics(region);
+            return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+        })
+            .description("Second-level cache activity seen by Hibernate, per region")
+            .tag("region", region)
+            .tags(tags)
+            .register(registry);
+    }
+}
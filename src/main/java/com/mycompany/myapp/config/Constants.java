@@ -5,6 +5,7 @@ package com.mycompany.myapp.config;
  */
 public final class Constants {
     public static final String SYSTEM_ACCOUNT = "system";
+    public static final String ANONYMOUS_USER = "anonymoususer";
 
     private Constants() {}
 }
@@ -1,18 +1,99 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.config.datasource.ReadOnlyCacheModeTransactionManager;
+import com.mycompany.myapp.config.datasource.ReadReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
 import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Configuration
 @EnableJpaRepositories("com.mycompany.myapp.repository")
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 public class DatabaseConfiguration {
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
+
+    /**
+     * Routes the read-only transactions to the read replicas when {@code application.read-replicas.enabled} is set,
+     * see {@link ReadReplicaRoutingDataSource}, which then only read the second-level cache, see
+     * {@link ReadOnlyCacheModeTransactionManager}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+    static class ReadReplicaConfiguration {
+
+        private final Logger log = LoggerFactory.getLogger(ReadReplicaConfiguration.class);
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+            return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+            ApplicationProperties.ReadReplicas properties = applicationProperties.getReadReplicas();
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            for (ApplicationProperties.ReadReplicas.Replica replica : properties.getReplicas()) {
+                log.debug("Configuring the read replica {} at {}", replica.getName(), replica.getUrl());
+                replicas.put(replica.getName(), replicaDataSource(primaryDataSource, replica, meterRegistry));
+            }
+            return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, properties, meterRegistry);
+        }
+
+        private HikariDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                ApplicationProperties.ReadReplicas.Replica replica, MeterRegistry meterRegistry) {
+            if (replica.getName() == null || replica.getUrl() == null) {
+                throw new IllegalArgumentException("Every read replica must have a name and a url");
+            }
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(replica.getName());
+            config.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                config.setUsername(replica.getUsername());
+                config.setPassword(replica.getPassword());
+            }
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            // A replica which is down must not prevent the application from starting, it is only skipped
+            config.setInitializationFailTimeout(-1);
+            return new HikariDataSource(config);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+            // Connections are taken on the first statement, once the transaction is known to be read-only or not
+            return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+            ReadOnlyCacheModeTransactionManager transactionManager = new ReadOnlyCacheModeTransactionManager();
+            transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+            return transactionManager;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.config.hibernate.MeteredStatisticsFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns the Hibernate statistics on when {@code application.hibernate-statistics.enabled} is set.
+ * <p>
+ * Spring Boot then publishes them as {@code hibernate.*} meters (entity loads, flushes, collection fetches...),
+ * {@link CacheMetricsConfiguration} adds the second-level cache requests per region, and
+ * {@link com.mycompany.myapp.config.hibernate.MeteredStatistics} times every query.
+ */
+@Configuration
+public class HibernateStatisticsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(HibernateStatisticsConfiguration.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer(MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties) {
+        ApplicationProperties.HibernateStatistics properties = applicationProperties.getHibernateStatistics();
+        return hibernateProperties -> {
+            if (properties.isEnabled()) {
+                log.info("Collecting the Hibernate statistics, queries slower than {} ms are logged",
+                    properties.getSlowQueryThresholdMillis());
+                hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+                hibernateProperties.put(StatisticsInitiator.STATS_BUILDER, new MeteredStatisticsFactory(meterRegistry, properties));
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.aop.metrics.MethodMetricsAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.*;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class MethodMetricsAspectConfiguration {
+
+    @Bean
+    public MethodMetricsAspect methodMetricsAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties,
+            Environment env) {
+        return new MethodMetricsAspect(meterRegistry, applicationProperties.getMethodMetrics().getArgumentSampleRate(), env);
+    }
+}
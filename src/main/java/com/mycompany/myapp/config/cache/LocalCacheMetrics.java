@@ -0,0 +1,48 @@
+package com.mycompany.myapp.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Collect the statistics of the local tier of a {@link TwoTierCache}.
+ */
+class LocalCacheMetrics extends CacheMeterBinder {
+
+    private final TwoTierCache.LocalStatistics statistics;
+
+    LocalCacheMetrics(TwoTierCache cache, String cacheName, Iterable<Tag> tags) {
+        super(cache, cacheName, tags);
+        this.statistics = cache.getLocalStatistics();
+    }
+
+    @Override
+    protected Long size() {
+        return statistics.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        // The local tier has no other statistics
+    }
+}
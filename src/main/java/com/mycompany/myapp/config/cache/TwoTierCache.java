@@ -0,0 +1,273 @@
+package com.mycompany.myapp.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Cache} made of a bounded local tier, held on the heap of this node, in front of a distributed tier.
+ * <p>
+ * Reads are served by the local tier when possible, and fill it from the distributed tier otherwise. Writes go
+ * through both tiers, then are announced to the other nodes, which drop their local copy of the changed entries.
+ * The least recently used local entries are evicted above the maximum size, and, when a time to live is set, local
+ * entries are dropped once older, bounding how long a node can serve an entry changed elsewhere if an announcement
+ * is lost.
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache distributed;
+
+    private final Local local;
+
+    private final BiConsumer<String, Object> invalidation;
+
+    /**
+     * @param distributed the distributed tier.
+     * @param maxSize the maximum number of entries of the local tier.
+     * @param timeToLiveMillis the time to live of the local entries, or 0 to keep them until evicted or invalidated.
+     * @param invalidation announces the change of a key, or of all keys with a {@code null} key, to the other nodes.
+     */
+    public TwoTierCache(Cache distributed, int maxSize, long timeToLiveMillis, BiConsumer<String, Object> invalidation) {
+        this.distributed = distributed;
+        this.local = new Local(maxSize, timeToLiveMillis);
+        this.invalidation = invalidation;
+    }
+
+    @Override
+    public String getName() {
+        return distributed.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return distributed.getNativeCache();
+    }
+
+    /**
+     * @return the distributed tier.
+     */
+    public Cache getDistributedCache() {
+        return distributed;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value == null) {
+            value = distributed.get(key);
+            if (value != null) {
+                local.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = local.get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = distributed.get(key, valueLoader);
+        local.put(key, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        distributed.put(key, value);
+        local.put(key, new SimpleValueWrapper(value));
+        invalidation.accept(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = distributed.putIfAbsent(key, value);
+        if (existing != null) {
+            local.put(key, existing);
+        } else {
+            local.put(key, new SimpleValueWrapper(value));
+            invalidation.accept(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        distributed.evict(key);
+        local.remove(key);
+        invalidation.accept(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        distributed.clear();
+        local.clear();
+        invalidation.accept(getName(), null);
+    }
+
+    /**
+     * Drop the local copy of an entry changed on another node.
+     *
+     * @param key the key of the entry, or {@code null} to drop all local entries.
+     */
+    void invalidateLocal(Object key) {
+        if (key == null) {
+            local.clear();
+        } else {
+            local.remove(key);
+        }
+    }
+
+    /**
+     * @return the statistics of the local tier.
+     */
+    LocalStatistics getLocalStatistics() {
+        return local;
+    }
+
+    /**
+     * Statistics of the local tier, since its creation.
+     */
+    interface LocalStatistics {
+
+        long size();
+
+        long hitCount();
+
+        long missCount();
+
+        long evictionCount();
+
+        long putCount();
+    }
+
+    /**
+     * The local tier, a least recently used map of the entries.
+     */
+    private static final class Local implements LocalStatistics {
+
+        private final long timeToLiveMillis;
+
+        private final Map<Object, Entry> entries;
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        private final LongAdder evictions = new LongAdder();
+
+        private final LongAdder puts = new LongAdder();
+
+        private Local(int maxSize, long timeToLiveMillis) {
+            this.timeToLiveMillis = timeToLiveMillis;
+            this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private ValueWrapper get(Object key) {
+            Entry entry;
+            synchronized (entries) {
+                entry = entries.get(key);
+                if (entry != null && entry.isExpired()) {
+                    entries.remove(key);
+                    entry = null;
+                }
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+
+        private void put(Object key, ValueWrapper value) {
+            Entry entry = new Entry(value, timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : Long.MAX_VALUE);
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+            puts.increment();
+        }
+
+        private void remove(Object key) {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+        }
+
+        private void clear() {
+            synchronized (entries) {
+                entries.clear();
+            }
+        }
+
+        @Override
+        public long size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        @Override
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        @Override
+        public long missCount() {
+            return misses.sum();
+        }
+
+        @Override
+        public long evictionCount() {
+            return evictions.sum();
+        }
+
+        @Override
+        public long putCount() {
+            return puts.sum();
+        }
+    }
+
+    private static final class Entry {
+
+        private final ValueWrapper value;
+
+        private final long expiresAt;
+
+        private Entry(ValueWrapper value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return expiresAt < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mycompany.myapp.config.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link CacheManager} of {@link TwoTierCache}s, with a local tier on every node in front of the Hazelcast maps.
+ * <p>
+ * Changes are announced on a Hazelcast topic, so every node drops its local copy of the entries changed elsewhere.
+ * The statistics of both tiers are published as {@code cache.*} meters, tagged with {@code tier=local} or
+ * {@code tier=distributed}.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_TOPIC = "sampleonlineshop.cache.invalidation";
+
+    private final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final HazelcastCacheManager distributed;
+
+    private final MeterRegistry registry;
+
+    private final int localMaxSize;
+
+    private final long localTimeToLiveMillis;
+
+    private final ITopic<Invalidation> invalidations;
+
+    public TwoTierCacheManager(HazelcastInstance hazelcastInstance, MeterRegistry registry, int localMaxSize,
+            long localTimeToLiveMillis) {
+        this.distributed = new HazelcastCacheManager(hazelcastInstance);
+        this.registry = registry;
+        this.localMaxSize = localMaxSize;
+        this.localTimeToLiveMillis = localTimeToLiveMillis;
+        this.invalidations = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.invalidations.addMessageListener(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private TwoTierCache createCache(String name) {
+        log.debug("Creating two-tier cache {}", name);
+        Cache distributedCache = distributed.getCache(name);
+        TwoTierCache cache = new TwoTierCache(distributedCache, localMaxSize, localTimeToLiveMillis, this::publishInvalidation);
+        new LocalCacheMetrics(cache, name, Tags.of("tier", "local")).bindTo(registry);
+        HazelcastCacheMetrics.monitor(registry, (IMap<Object, Object>) distributedCache.getNativeCache(), "tier", "distributed");
+        return cache;
+    }
+
+    private void publishInvalidation(String name, Object key) {
+        invalidations.publish(new Invalidation(name, key));
+    }
+
+    private void onInvalidation(Message<Invalidation> message) {
+        // The publishing node already updated its local tier
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        TwoTierCache cache = caches.get(message.getMessageObject().cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(message.getMessageObject().key);
+        }
+    }
+
+    /**
+     * Announcement of the change of an entry, or of all the entries of a cache when the key is {@code null}.
+     */
+    static final class Invalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String cacheName;
+
+        private final Object key;
+
+        Invalidation(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Spring cache specific code.
+ */
+package com.mycompany.myapp.config.cache;
@@ -0,0 +1,39 @@
+package com.mycompany.myapp.config.datasource;
+
+import org.hibernate.CacheMode;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.CacheStoreMode;
+
+/**
+ * {@link JpaTransactionManager} whose read-only transactions only read the second-level cache, never writing to it.
+ * <p>
+ * Read-only transactions may be given a connection to a read replica by the {@link ReadReplicaRoutingDataSource}. A
+ * replica within {@code application.read-replicas.max-lag-seconds} may still miss the latest writes, and the entities
+ * and collections it returns must not be put in the second-level cache, shared by the whole cluster: right after a
+ * write or an eviction, they would replace the current state there until evicted again. These sessions are thus given
+ * the {@link CacheStoreMode#BYPASS} store mode, which Hibernate applies as {@link CacheMode#GET}, also to the
+ * {@code find} calls; the entities they load are only as stale as the replica, for the time of the request.
+ * <p>
+ * The cache mode is only set on the sessions opened by a read-only transaction, which are closed with it; a read-only
+ * transaction joining a session opened before keeps its cache mode.
+ */
+public class ReadOnlyCacheModeTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String STORE_MODE = "javax.persistence.cache.storeMode";
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        boolean newSession = !TransactionSynchronizationManager.hasResource(obtainEntityManagerFactory());
+        super.doBegin(transaction, definition);
+        if (newSession && definition.isReadOnly()) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.mycompany.myapp.config.datasource;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} sending the read-only transactions to the read replicas, round-robin, and everything else to the
+ * primary.
+ * <p>
+ * Replicas are checked every {@code application.read-replicas.check-interval-millis}: those which fail the check, or
+ * lag more than {@code application.read-replicas.max-lag-seconds} behind the primary, are skipped until a later check
+ * succeeds, and a replica failing to give a connection is skipped right away. Read-only transactions go to the primary
+ * when no replica is usable.
+ * <p>
+ * The transaction must be known to be read-only when the connection is taken, so this must be used behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. Connections are counted in
+ * {@code datasource.connections.routed}, tagged with the pool and the kind of transaction, and the lag
+ * and state of every replica are published as {@code datasource.replica.lag} and {@code datasource.replica.usable}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ApplicationProperties.ReadReplicas properties;
+
+    private final Counter readWriteConnections;
+
+    private final Counter readOnlyPrimaryConnections;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            ApplicationProperties.ReadReplicas properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.properties = properties;
+        this.readWriteConnections = routedConnections(meterRegistry, PRIMARY, false);
+        this.readOnlyPrimaryConnections = routedConnections(meterRegistry, PRIMARY, true);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routedConnections(meterRegistry, name, true));
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                .description("Replication lag of the replica at its last check, NaN when unknown")
+                .baseUnit("seconds")
+                .tag("pool", name)
+                .register(meterRegistry);
+            Gauge.builder("datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                .description("Whether the replica is given read-only transactions")
+                .tag("pool", name)
+                .register(meterRegistry);
+            this.replicas.add(replica);
+        });
+    }
+
+    private static Counter routedConnections(MeterRegistry meterRegistry, String pool, boolean readOnly) {
+        return Counter.builder("datasource.connections.routed")
+            .description("Connections taken from a pool by the read replica routing")
+            .tag("pool", pool)
+            .tag("transaction", readOnly ? "read-only" : "read-write")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWriteConnections.increment();
+            return primary.getConnection();
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.usable) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.connections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("Replica {} skipped, it failed to give a connection: {}", replica.name, e.toString());
+                    replica.usable = false;
+                }
+            }
+        }
+        readOnlyPrimaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are taken with the credentials of the pools");
+    }
+
+    /**
+     * Check the lag of every replica, and skip those which lag too much or fail to answer.
+     */
+    @Scheduled(fixedDelayString = "${application.read-replicas.check-interval-millis:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Long lag = null;
+            try {
+                lag = lagSeconds(replica);
+            } catch (SQLException e) {
+                log.debug("Replica {} failed its check: {}", replica.name, e.toString());
+            }
+            boolean usable = lag != null && lag <= properties.getMaxLagSeconds();
+            if (usable != replica.usable) {
+                if (usable) {
+                    log.info("Replica {} is used, with a lag of {} s", replica.name, lag);
+                } else {
+                    log.warn("Replica {} is skipped, with a lag of {} s", replica.name, lag != null ? lag : "unknown");
+                }
+            }
+            replica.lagSeconds = lag != null ? lag : Double.NaN;
+            replica.usable = usable;
+        }
+    }
+
+    private Long lagSeconds(Replica replica) throws SQLException {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            // No row when the database is not replicating, and a null lag when its replication is stopped
+            if (!resultSet.next()) {
+                return null;
+            }
+            Object lag = resultSet.getObject(properties.getLagColumn());
+            return lag != null ? ((Number) lag).longValue() : null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final Counter connections;
+
+        private volatile boolean usable;
+
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource, Counter connections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+    }
+}
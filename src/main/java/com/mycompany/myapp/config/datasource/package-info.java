@@ -0,0 +1,4 @@
+/**
+ * DataSource specific code.
+ */
+package com.mycompany.myapp.config.datasource;
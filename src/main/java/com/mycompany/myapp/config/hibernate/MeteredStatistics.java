@@ -0,0 +1,115 @@
+package com.mycompany.myapp.config.hibernate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate statistics which also time every query execution in {@code hibernate.query.execution}, tagged with the
+ * normalized query, and log the slow ones with the REST endpoint they were run for.
+ * <p>
+ * Literals and parameters are replaced by {@code ?} in the normalized query, so that every combination of criteria of a
+ * {@code *QueryService} gets its own timer, whatever the values searched for. Beyond {@code maxQueries} distinct
+ * queries, the others are timed together under {@code other}.
+ */
+public class MeteredStatistics extends StatisticsImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String OTHER_QUERIES = "other";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern PARAMETER = Pattern.compile(":\\w+|\\?\\d*");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final transient Logger log = LoggerFactory.getLogger(MeteredStatistics.class);
+
+    private final transient MeterRegistry meterRegistry;
+
+    private final long slowQueryThresholdMillis;
+
+    private final int maxQueries;
+
+    private final transient Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MeteredStatistics(SessionFactoryImplementor sessionFactory, MeterRegistry meterRegistry,
+            long slowQueryThresholdMillis, int maxQueries) {
+        super(sessionFactory);
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void queryExecuted(String query, int rows, long time) {
+        super.queryExecuted(query, rows, time);
+        String normalized = normalize(query);
+        timer(normalized).record(time, TimeUnit.MILLISECONDS);
+        if (time >= slowQueryThresholdMillis) {
+            log.warn("Slow query, {} ms for {} rows, from {}: {}", time, rows, endpoint(), normalized);
+        }
+    }
+
+    private Timer timer(String normalized) {
+        Timer timer = timers.get(normalized);
+        if (timer != null) {
+            return timer;
+        }
+        String tag = timers.size() < maxQueries ? normalized : OTHER_QUERIES;
+        return timers.computeIfAbsent(tag, query -> Timer.builder("hibernate.query.execution")
+            .description("Executions of a normalized JPQL or SQL query")
+            .tag("query", query)
+            .register(meterRegistry));
+    }
+
+    /**
+     * Normalize a JPQL or SQL query, so that it no longer depends on the values it is run with.
+     *
+     * @param query the query.
+     * @return the query on a single line, with its literals, parameters and lists of parameters replaced by {@code ?}.
+     */
+    static String normalize(String query) {
+        String normalized = STRING_LITERAL.matcher(query).replaceAll("?");
+        normalized = PARAMETER.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Describe the REST endpoint the current thread is serving.
+     *
+     * @return the method, path pattern and names of the request parameters, or {@code none} outside of a request.
+     */
+    static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return "none";
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String parameters = String.join("&", new TreeSet<>(request.getParameterMap().keySet()));
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI())
+            + (parameters.isEmpty() ? "" : "?" + parameters);
+    }
+}
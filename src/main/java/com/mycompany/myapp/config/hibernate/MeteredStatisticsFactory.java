@@ -0,0 +1,28 @@
+package com.mycompany.myapp.config.hibernate;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Build the {@link MeteredStatistics} of a session factory, given as {@code hibernate.stats.factory}.
+ */
+public class MeteredStatisticsFactory implements StatisticsFactory {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.HibernateStatistics properties;
+
+    public MeteredStatisticsFactory(MeterRegistry meterRegistry, ApplicationProperties.HibernateStatistics properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new MeteredStatistics(sessionFactory, meterRegistry, properties.getSlowQueryThresholdMillis(),
+            properties.getMaxQueries());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Hibernate specific code.
+ */
+package com.mycompany.myapp.config.hibernate;
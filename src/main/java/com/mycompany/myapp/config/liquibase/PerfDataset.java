@@ -0,0 +1,87 @@
+package com.mycompany.myapp.config.liquibase;
+
+/**
+ * The ids of the rows generated by a {@link PerfDatasetGenerator}: each entity has a range of consecutive ids.
+ */
+public final class PerfDataset {
+
+    /**
+     * A range of {@code count} consecutive ids, starting at {@code first}.
+     */
+    public static final class IdRange {
+
+        private final long first;
+
+        private final int count;
+
+        IdRange(long first, int count) {
+            this.first = first;
+            this.count = count;
+        }
+
+        public long getFirst() {
+            return first;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @param index the index of the row, from 0 to {@code count - 1}.
+         * @return the id of the row.
+         */
+        public long get(int index) {
+            return first + index;
+        }
+
+        @Override
+        public String toString() {
+            return count == 0 ? "none" : count + " (" + first + " to " + (first + count - 1) + ")";
+        }
+    }
+
+    private final IdRange categories;
+
+    private final IdRange products;
+
+    private final IdRange customers;
+
+    private final IdRange addresses;
+
+    private final IdRange wishLists;
+
+    PerfDataset(IdRange categories, IdRange products, IdRange customers, IdRange addresses, IdRange wishLists) {
+        this.categories = categories;
+        this.products = products;
+        this.customers = customers;
+        this.addresses = addresses;
+        this.wishLists = wishLists;
+    }
+
+    public IdRange getCategories() {
+        return categories;
+    }
+
+    public IdRange getProducts() {
+        return products;
+    }
+
+    public IdRange getCustomers() {
+        return customers;
+    }
+
+    public IdRange getAddresses() {
+        return addresses;
+    }
+
+    public IdRange getWishLists() {
+        return wishLists;
+    }
+
+    @Override
+    public String toString() {
+        return "categories=" + categories + ", products=" + products + ", customers=" + customers +
+            ", addresses=" + addresses + ", wishLists=" + wishLists;
+    }
+}
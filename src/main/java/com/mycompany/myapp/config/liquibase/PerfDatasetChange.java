@@ -0,0 +1,99 @@
+package com.mycompany.myapp.config.liquibase;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.SQLException;
+
+/**
+ * Liquibase change generating the dataset of the {@code perf} context with a {@link PerfDatasetGenerator}.
+ * <p>
+ * Its parameters are set by the {@code perf.*} changelog parameters, which can be overridden by system properties.
+ */
+public class PerfDatasetChange implements CustomTaskChange {
+
+    private String seed;
+
+    private String batchSize;
+
+    private String categories;
+
+    private String categoryDepth;
+
+    private String products;
+
+    private String customers;
+
+    private PerfDataset dataset;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        try {
+            dataset = new PerfDatasetGenerator(Long.parseLong(seed), Integer.parseInt(batchSize)).generate(
+                ((JdbcConnection) database.getConnection()).getUnderlyingConnection(),
+                Integer.parseInt(categories), Integer.parseInt(categoryDepth), Integer.parseInt(products), Integer.parseInt(customers));
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not generate the perf dataset", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Generated the perf dataset: " + dataset;
+    }
+
+    @Override
+    public void setUp() {
+        // Nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No resource used
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            errors.addError("The perf dataset can only be generated through a JDBC connection");
+        }
+        try {
+            Long.parseLong(seed);
+            for (String value : new String[] { batchSize, categories, categoryDepth, products, customers }) {
+                Integer.parseInt(value);
+            }
+        } catch (NumberFormatException e) {
+            errors.addError("Invalid perf dataset parameter: " + e.getMessage());
+        }
+        return errors;
+    }
+
+    public void setSeed(String seed) {
+        this.seed = seed;
+    }
+
+    public void setBatchSize(String batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setCategories(String categories) {
+        this.categories = categories;
+    }
+
+    public void setCategoryDepth(String categoryDepth) {
+        this.categoryDepth = categoryDepth;
+    }
+
+    public void setProducts(String products) {
+        this.products = products;
+    }
+
+    public void setCustomers(String customers) {
+        this.customers = customers;
+    }
+}
@@ -0,0 +1,361 @@
+package com.mycompany.myapp.config.liquibase;
+
+import com.mycompany.myapp.config.liquibase.PerfDataset.IdRange;
+import com.mycompany.myapp.domain.IdGenerators;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Generator of a large synthetic dataset, for performance work at production scale.
+ * <p>
+ * The rows are written with batched JDBC inserts, committed every {@code batchSize} rows, with ids reserved up front
+ * from the {@code id_generator} table so the application keeps allocating ids after them. The same seed always
+ * generates the same rows, and the data is skewed the way real data is:
+ * <ul>
+ * <li>the categories form a tree of {@code categoryDepth} levels, each level larger than its parent level, with a few
+ * categories having most of the children;</li>
+ * <li>products belong to 1 to 3 categories, most of them to a few popular ones, have mostly high ratings, are mostly
+ * recent, and a third of them are in a wish list;</li>
+ * <li>customers have 1 to 4 addresses, most of them 1, and 0 to 9 wish lists, most of them none or 1.</li>
+ * </ul>
+ */
+public class PerfDatasetGenerator {
+
+    private static final String[] ADJECTIVES = { "Small", "Ergonomic", "Rustic", "Intelligent", "Gorgeous", "Incredible",
+        "Fantastic", "Practical", "Sleek", "Awesome", "Generic", "Handcrafted", "Handmade", "Licensed", "Refined", "Unbranded",
+        "Tasty", "Wireless", "Organic", "Vintage" };
+
+    private static final String[] MATERIALS = { "Steel", "Wooden", "Concrete", "Plastic", "Cotton", "Granite", "Rubber",
+        "Metal", "Soft", "Fresh", "Frozen", "Leather", "Silk", "Bamboo", "Glass" };
+
+    private static final String[] NOUNS = { "Chair", "Car", "Computer", "Keyboard", "Mouse", "Bike", "Ball", "Gloves",
+        "Pants", "Shirt", "Table", "Shoes", "Hat", "Towels", "Soap", "Tuna", "Chicken", "Fish", "Cheese", "Bacon", "Pizza",
+        "Salad", "Sausages", "Chips", "Lamp", "Watch", "Phone", "Camera", "Backpack", "Mug" };
+
+    private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+        "Charles", "Karen", "Amir", "Yuki", "Chen", "Fatima", "Olga", "Lucas", "Ines", "Kofi", "Priya", "Mateo" };
+
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson",
+        "Martin", "Lee", "Nguyen", "Kim", "Dubois", "Rossi", "Muller", "Novak", "Silva", "Khan", "Tanaka", "Okafor" };
+
+    private static final String[] STREETS = { "Main Street", "High Street", "Park Avenue", "Oak Lane", "Church Road",
+        "Mill Lane", "Station Road", "Elm Street", "Victoria Road", "Green Lane", "Maple Drive", "Cedar Court" };
+
+    private static final String[] CITIES = { "London", "Paris", "Berlin", "Madrid", "Rome", "New York", "Chicago",
+        "Toronto", "Sydney", "Tokyo", "Lyon", "Munich", "Porto", "Dublin", "Austin", "Seattle", "Osaka", "Milan" };
+
+    private static final String[] COUNTRIES = { "US", "GB", "FR", "DE", "ES", "IT", "CA", "AU", "JP", "NL", "PT", "IE" };
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2010, 1, 1);
+
+    private static final int DAYS = 3650;
+
+    private static final String RESERVE_IDS =
+        "update " + IdGenerators.TABLE_NAME + " set next_val = next_val + ? where sequence_name = ?";
+
+    private static final String NEXT_ID =
+        "select next_val from " + IdGenerators.TABLE_NAME + " where sequence_name = ?";
+
+    private final Logger log = LoggerFactory.getLogger(PerfDatasetGenerator.class);
+
+    private final long seed;
+
+    private final int batchSize;
+
+    public PerfDatasetGenerator(long seed, int batchSize) {
+        this.seed = seed;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Generate the dataset.
+     *
+     * @param connection the connection to write with, which is committed after every batch.
+     * @param categories the number of categories.
+     * @param categoryDepth the number of levels of the category tree.
+     * @param products the number of products.
+     * @param customers the number of customers, which have addresses and wish lists.
+     * @return the ids of the generated rows.
+     * @throws SQLException if the rows cannot be written, the batches written so far stay committed.
+     */
+    public PerfDataset generate(Connection connection, int categories, int categoryDepth, int products, int customers)
+            throws SQLException {
+        if (categories < 0 || categoryDepth < 1 || products < 0 || customers < 0) {
+            throw new IllegalArgumentException("Invalid dataset size: " + categories + " categories on " + categoryDepth +
+                " levels, " + products + " products, " + customers + " customers");
+        }
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+        byte[] addressCounts = new byte[customers];
+        byte[] wishListCounts = new byte[customers];
+        int addresses = 0;
+        int wishLists = 0;
+        for (int i = 0; i < customers; i++) {
+            addressCounts[i] = (byte) (1 + skewed(random, 4));
+            wishListCounts[i] = (byte) skewed(random, 10);
+            addresses += addressCounts[i];
+            wishLists += wishListCounts[i];
+        }
+
+        PerfDataset dataset = new PerfDataset(
+            reserve(connection, "category", categories),
+            reserve(connection, "product", products),
+            reserve(connection, "customer", customers),
+            reserve(connection, "address", addresses),
+            reserve(connection, "wish_list", wishLists));
+        connection.commit();
+        log.info("Generating the dataset: {}", dataset);
+
+        generateCategories(connection, random, dataset.getCategories(), categoryDepth);
+        generateCustomers(connection, random, dataset, addressCounts, wishListCounts);
+        generateProducts(connection, random, dataset);
+        log.info("Generated the dataset in {} ms", System.currentTimeMillis() - start);
+        return dataset;
+    }
+
+    /**
+     * The categories are generated level by level, the size of a level growing with the square of its depth.
+     */
+    private void generateCategories(Connection connection, Random random, IdRange ids, int depth) throws SQLException {
+        int levels = Math.max(1, Math.min(depth, ids.getCount()));
+        long weights = 0;
+        for (int level = 1; level <= levels; level++) {
+            weights += (long) level * level;
+        }
+        try (Batch batch = new Batch(connection, "insert into category " +
+                "(id, description, sort_order, date_added, date_modified, status, parent_id) values (?, ?, ?, ?, ?, ?, ?)")) {
+            int levelStart = 0;
+            int parentLevelStart = 0;
+            for (int level = 1; level <= levels && levelStart < ids.getCount(); level++) {
+                int levelSize = level == levels ? ids.getCount() - levelStart :
+                    (int) Math.max(1, Math.min(ids.getCount() - levelStart, ids.getCount() * (long) level * level / weights));
+                for (int i = levelStart; i < levelStart + levelSize; i++) {
+                    LocalDate dateAdded = date(random);
+                    PreparedStatement statement = batch.statement;
+                    statement.setLong(1, ids.get(i));
+                    statement.setString(2, pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + i);
+                    statement.setInt(3, i - levelStart);
+                    statement.setDate(4, Date.valueOf(dateAdded));
+                    statement.setDate(5, Date.valueOf(dateAdded.plusDays(random.nextInt(365))));
+                    statement.setString(6, status(random).name());
+                    if (level == 1) {
+                        statement.setNull(7, Types.BIGINT);
+                    } else {
+                        statement.setLong(7, ids.get(parentLevelStart + skewed(random, levelStart - parentLevelStart)));
+                    }
+                    batch.add();
+                }
+                parentLevelStart = levelStart;
+                levelStart += levelSize;
+            }
+        }
+    }
+
+    private void generateCustomers(Connection connection, Random random, PerfDataset dataset, byte[] addressCounts,
+            byte[] wishListCounts) throws SQLException {
+        try (Batch customerBatch = new Batch(connection,
+                "insert into customer (id, first_name, last_name, email, telephone) values (?, ?, ?, ?, ?)");
+            Batch addressBatch = new Batch(connection, customerBatch,
+                "insert into address (id, address_1, address_2, city, postcode, country, customer_id) values (?, ?, ?, ?, ?, ?, ?)");
+            Batch wishListBatch = new Batch(connection, customerBatch,
+                "insert into wish_list (id, title, restricted, customer_id) values (?, ?, ?, ?)")) {
+            int address = 0;
+            int wishList = 0;
+            for (int i = 0; i < dataset.getCustomers().getCount(); i++) {
+                long customerId = dataset.getCustomers().get(i);
+                String firstName = FIRST_NAMES[skewed(random, FIRST_NAMES.length)];
+                String lastName = LAST_NAMES[skewed(random, LAST_NAMES.length)];
+                customerBatch.statement.setLong(1, customerId);
+                customerBatch.statement.setString(2, firstName);
+                customerBatch.statement.setString(3, lastName);
+                customerBatch.statement.setString(4, (firstName + "." + lastName + "." + customerId + "@example.com").toLowerCase());
+                customerBatch.statement.setString(5, String.format("+1 %03d %07d", random.nextInt(1000), random.nextInt(10000000)));
+                customerBatch.add();
+
+                for (int j = 0; j < addressCounts[i]; j++, address++) {
+                    addressBatch.statement.setLong(1, dataset.getAddresses().get(address));
+                    addressBatch.statement.setString(2, (1 + random.nextInt(300)) + " " + pick(random, STREETS));
+                    addressBatch.statement.setString(3, random.nextInt(4) == 0 ? "Apartment " + (1 + random.nextInt(50)) : null);
+                    addressBatch.statement.setString(4, CITIES[skewed(random, CITIES.length)]);
+                    addressBatch.statement.setString(5, String.format("%05d", random.nextInt(100000)));
+                    addressBatch.statement.setString(6, COUNTRIES[skewed(random, COUNTRIES.length)]);
+                    addressBatch.statement.setLong(7, customerId);
+                    addressBatch.add();
+                }
+
+                for (int j = 0; j < wishListCounts[i]; j++, wishList++) {
+                    wishListBatch.statement.setLong(1, dataset.getWishLists().get(wishList));
+                    wishListBatch.statement.setString(2, j == 0 ? "Wish list" : pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + "s");
+                    wishListBatch.statement.setBoolean(3, random.nextInt(5) == 0);
+                    wishListBatch.statement.setLong(4, customerId);
+                    wishListBatch.add();
+                }
+            }
+        }
+    }
+
+    private void generateProducts(Connection connection, Random random, PerfDataset dataset) throws SQLException {
+        IdRange categories = dataset.getCategories();
+        IdRange wishLists = dataset.getWishLists();
+        try (Batch productBatch = new Batch(connection, "insert into product " +
+                "(id, title, keywords, description, rating, date_added, date_modified, wish_list_id) values (?, ?, ?, ?, ?, ?, ?, ?)");
+            Batch categoryBatch = new Batch(connection, productBatch,
+                "insert into category_product (category_id, product_id) values (?, ?)")) {
+            long[] productCategories = new long[3];
+            for (int i = 0; i < dataset.getProducts().getCount(); i++) {
+                long productId = dataset.getProducts().get(i);
+                String adjective = pick(random, ADJECTIVES);
+                String material = pick(random, MATERIALS);
+                String noun = NOUNS[skewed(random, NOUNS.length)];
+                // Mostly recent, added over the last ten years
+                LocalDate dateAdded = FIRST_DATE.plusDays(DAYS - 1 - skewed(random, DAYS));
+                productBatch.statement.setLong(1, productId);
+                productBatch.statement.setString(2, adjective + " " + material + " " + noun);
+                productBatch.statement.setString(3, noun.toLowerCase() + " " + material.toLowerCase() + " keyword" + skewed(random, 1000));
+                productBatch.statement.setString(4, "The " + adjective.toLowerCase() + " " + noun.toLowerCase() + " made of " +
+                    material.toLowerCase() + ", reference " + productId);
+                productBatch.statement.setInt(5, 5 - skewed(random, 5));
+                productBatch.statement.setDate(6, Date.valueOf(dateAdded));
+                productBatch.statement.setDate(7, Date.valueOf(dateAdded.plusDays(random.nextInt(30))));
+                if (wishLists.getCount() > 0 && random.nextInt(3) == 0) {
+                    productBatch.statement.setLong(8, wishLists.get(scatter(skewed(random, wishLists.getCount()), wishLists.getCount())));
+                } else {
+                    productBatch.statement.setNull(8, Types.BIGINT);
+                }
+                productBatch.add();
+
+                int count = 0;
+                for (int j = categories.getCount() == 0 ? 0 : 1 + skewed(random, 3); j > 0; j--) {
+                    long categoryId = categories.get(scatter(skewed(random, categories.getCount()), categories.getCount()));
+                    if (!contains(productCategories, count, categoryId)) {
+                        productCategories[count++] = categoryId;
+                        categoryBatch.statement.setLong(1, categoryId);
+                        categoryBatch.statement.setLong(2, productId);
+                        categoryBatch.add();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserve ids in the {@code id_generator} table, which holds the first free id with the {@code pooled-lo} optimizer.
+     */
+    private static IdRange reserve(Connection connection, String sequence, int count) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(RESERVE_IDS);
+            PreparedStatement select = connection.prepareStatement(NEXT_ID)) {
+            update.setInt(1, count);
+            update.setString(2, sequence);
+            if (update.executeUpdate() != 1) {
+                throw new IllegalStateException("No " + sequence + " row in " + IdGenerators.TABLE_NAME);
+            }
+            select.setString(1, sequence);
+            try (ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                return new IdRange(resultSet.getLong(1) - count, count);
+            }
+        }
+    }
+
+    /**
+     * @return an index below {@code size}, the lowest ones being much more likely.
+     */
+    static int skewed(Random random, int size) {
+        double uniform = random.nextDouble();
+        return (int) (size * uniform * uniform * uniform);
+    }
+
+    /**
+     * @return the index at which to find the element of the given popularity rank, spread over the whole range.
+     */
+    static int scatter(int rank, int size) {
+        return (int) (((rank * 0x9E3779B97F4A7C15L) >>> 1) % size);
+    }
+
+    private static CategoryStatus status(Random random) {
+        int value = random.nextInt(20);
+        return value == 0 ? CategoryStatus.DISABLED : value < 3 ? CategoryStatus.RESTRICTED : CategoryStatus.AVAILABLE;
+    }
+
+    private static LocalDate date(Random random) {
+        return FIRST_DATE.plusDays(random.nextInt(DAYS));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A JDBC batch of inserts, executed and committed every {@code batchSize} rows, after the batch of the rows they
+     * reference if any.
+     */
+    private final class Batch implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final Batch parent;
+
+        private final PreparedStatement statement;
+
+        private int size;
+
+        private Batch(Connection connection, String sql) throws SQLException {
+            this(connection, null, sql);
+        }
+
+        private Batch(Connection connection, Batch parent, String sql) throws SQLException {
+            this.connection = connection;
+            this.parent = parent;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add() throws SQLException {
+            statement.addBatch();
+            if (++size == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (size > 0) {
+                if (parent != null) {
+                    parent.flush();
+                }
+                statement.executeBatch();
+                connection.commit();
+                size = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.mycompany.myapp.domain;
+
+/**
+ * Settings of the id generators of the domain entities.
+ * <p>
+ * Ids are allocated from the {@code id_generator} table, one row per entity, in blocks of {@link #INCREMENT_SIZE}:
+ * unlike identity columns, this lets Hibernate batch the inserts. With the {@code pooled-lo} optimizer the table
+ * holds the first id of the next block, so rows inserted outside of Hibernate only need to stay below it.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE_GENERATOR = "org.hibernate.id.enhanced.TableGenerator";
+
+    public static final String TABLE_NAME = "id_generator";
+
+    public static final String INCREMENT_SIZE = "50";
+
+    public static final String OPTIMIZER = "pooled-lo";
+
+    private IdGenerators() {
+    }
+}
@@ -6,6 +6,9 @@ import java.util.HashMap;
 import java.util.Map;
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 
 /**
  * Persist AuditEvent managed by the Spring Boot actuator.
@@ -17,8 +20,23 @@ import javax.validation.constraints.NotNull;
 public class PersistentAuditEvent implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Name of the row of the {@code id_generator} table the ids are allocated from.
+     */
+    public static final String ID_SEGMENT = "jhi_persistent_audit_event";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "persistentAuditEventIdGenerator")
+    @GenericGenerator(
+        name = "persistentAuditEventIdGenerator",
+        strategy = IdGenerators.TABLE_GENERATOR,
+        parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = IdGenerators.TABLE_NAME),
+            @Parameter(name = TableGenerator.SEGMENT_VALUE_PARAM, value = PersistentAuditEvent.ID_SEGMENT),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = IdGenerators.INCREMENT_SIZE),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = IdGenerators.OPTIMIZER)
+        }
+    )
     @Column(name = "event_id")
     private Long id;
 
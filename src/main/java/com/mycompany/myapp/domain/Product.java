@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -24,7 +27,13 @@ public class Product implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "productIdGenerator")
+    @GenericGenerator(name = "productIdGenerator", strategy = IdGenerators.TABLE_GENERATOR, parameters = {
+        @Parameter(name = TableGenerator.TABLE_PARAM, value = IdGenerators.TABLE_NAME),
+        @Parameter(name = TableGenerator.SEGMENT_VALUE_PARAM, value = "product"),
+        @Parameter(name = TableGenerator.INCREMENT_PARAM, value = IdGenerators.INCREMENT_SIZE),
+        @Parameter(name = TableGenerator.OPT_PARAM, value = IdGenerators.OPTIMIZER)
+    })
     private Long id;
 
     @NotNull
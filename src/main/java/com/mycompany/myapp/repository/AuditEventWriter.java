@@ -0,0 +1,217 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.IdGenerators;
+import com.mycompany.myapp.domain.PersistentAuditEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous writer of the {@link PersistentAuditEvent}s.
+ * <p>
+ * Events are put in a queue of {@code application.audit-events.queue-capacity} events, and written by a background
+ * thread in JDBC batches of up to {@code application.audit-events.batch-size} events, with their data, in a single
+ * transaction per batch. Ids are allocated for the whole batch at once from the {@code id_generator} table.
+ * When the queue is full, events are dropped rather than slowing down the requests.
+ * <p>
+ * The queue depth is published as {@code audit.events.queued}, the written and dropped events as
+ * {@code audit.events.written} and {@code audit.events.dropped}. The queue is flushed on shutdown.
+ */
+@Repository
+public class AuditEventWriter {
+
+    private static final String INSERT_EVENT =
+        "insert into jhi_persistent_audit_event (event_id, principal, event_date, event_type) values (?, ?, ?, ?)";
+
+    private static final String INSERT_EVENT_DATA =
+        "insert into jhi_persistent_audit_evt_data (event_id, name, value) values (?, ?, ?)";
+
+    private static final String ALLOCATE_IDS =
+        "update " + IdGenerators.TABLE_NAME + " set next_val = next_val + ? where sequence_name = ?";
+
+    private static final String NEXT_ID =
+        "select next_val from " + IdGenerators.TABLE_NAME + " where sequence_name = ?";
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final int batchSize;
+
+    /**
+     * Held while events are taken from the queue until they are written, so a {@link #flush()} returns once all the
+     * events queued before it are in the database. Fair, for the writer thread not to hold it back.
+     */
+    private final Lock writeLock = new ReentrantLock(true);
+
+    private final Counter written;
+
+    private final Counter droppedQueueFull;
+
+    private final Counter droppedWriteFailed;
+
+    private final Thread writer = new Thread(this::writeContinuously, "audit-event-writer");
+
+    private volatile boolean running = true;
+
+    public AuditEventWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(applicationProperties.getAuditEvents().getQueueCapacity());
+        this.batchSize = applicationProperties.getAuditEvents().getBatchSize();
+        Gauge.builder("audit.events.queued", queue, BlockingQueue::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written")
+            .description("Audit events written to the database")
+            .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("audit.events.dropped")
+            .description("Audit events lost")
+            .tag("reason", "queue-full")
+            .register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("audit.events.dropped")
+            .description("Audit events lost")
+            .tag("reason", "write-failed")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue an event to be written.
+     *
+     * @param event the event, without id.
+     * @return {@code false} if the queue is full, and the event is dropped.
+     */
+    public boolean enqueue(PersistentAuditEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        droppedQueueFull.increment();
+        log.debug("Audit event queue full, dropped {} event of {}", event.getAuditEventType(), event.getPrincipal());
+        return false;
+    }
+
+    /**
+     * Write all the queued events, on the calling thread.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        log.debug("Flushing {} queued audit events", queue.size());
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        flush();
+    }
+
+    private void writeContinuously() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                writeLock.lockInterruptibly();
+                try {
+                    PersistentAuditEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                } finally {
+                    batch.clear();
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<PersistentAuditEvent> batch) {
+        try {
+            transactionTemplate.execute(status -> {
+                long id = allocateIds(batch.size());
+                List<Object[]> data = new ArrayList<>();
+                for (PersistentAuditEvent event : batch) {
+                    event.setId(id++);
+                    for (Map.Entry<String, String> entry : event.getData().entrySet()) {
+                        data.add(new Object[] { event.getId(), entry.getKey(), entry.getValue() });
+                    }
+                }
+                Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+                jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batch.size(), (statement, event) -> {
+                    statement.setLong(1, event.getId());
+                    statement.setString(2, event.getPrincipal());
+                    statement.setTimestamp(3, event.getAuditEventDate() == null ? null : Timestamp.from(event.getAuditEventDate()), utc);
+                    statement.setString(4, event.getAuditEventType());
+                });
+                if (!data.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_EVENT_DATA, data);
+                }
+                return null;
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            droppedWriteFailed.increment(batch.size());
+            log.error("Could not write {} audit events", batch.size(), e);
+        }
+    }
+
+    /**
+     * @return the first of {@code count} consecutive ids, reserved in the current transaction.
+     */
+    private long allocateIds(int count) {
+        if (jdbcTemplate.update(ALLOCATE_IDS, count, PersistentAuditEvent.ID_SEGMENT) != 1) {
+            throw new IllegalStateException("No " + PersistentAuditEvent.ID_SEGMENT + " row in " + IdGenerators.TABLE_NAME);
+        }
+        return jdbcTemplate.queryForObject(NEXT_ID, Long.class, PersistentAuditEvent.ID_SEGMENT) - count;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +19,63 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
 
-    @Query(value = "select distinct category from Category category left join fetch category.products",
-        countQuery = "select count(distinct category) from Category category")
-    Page<Category> findAllWithEagerRelationships(Pageable pageable);
+    @Query(value = "select category.id from Category category",
+        countQuery = "select count(category) from Category category")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("select distinct category from Category category left join fetch category.products where category.id in :ids")
+    List<Category> findAllWithEagerRelationships(@Param("ids") Collection<Long> ids);
 
     @Query("select distinct category from Category category left join fetch category.products")
     List<Category> findAllWithEagerRelationships();
 
     @Query("select category from Category category left join fetch category.products where category.id =:id")
     Optional<Category> findOneWithEagerRelationships(@Param("id") Long id);
+
+    @Query("select category.id as id, parent.id as parentId, category.description as description, " +
+        "category.sortOrder as sortOrder, category.status as status from Category category left join category.parent parent")
+    List<TreeNode> findAllTreeNodes();
+
+    @Query("select category.id as categoryId, product.id as productId from Category category join category.products product")
+    List<Membership> findAllMemberships();
+
+    @Query("select category.id as categoryId, count(product) as productCount from Category category " +
+        "join category.products product where category.id in :ids group by category.id")
+    List<ProductCount> countProducts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of a {@link Category} onto its place in the category tree.
+     */
+    interface TreeNode {
+
+        Long getId();
+
+        Long getParentId();
+
+        String getDescription();
+
+        Integer getSortOrder();
+
+        CategoryStatus getStatus();
+    }
+
+    /**
+     * Projection of a row of the {@code category_product} join table.
+     */
+    interface Membership {
+
+        Long getCategoryId();
+
+        Long getProductId();
+    }
+
+    /**
+     * Number of products of a category.
+     */
+    interface ProductCount {
+
+        Long getCategoryId();
+
+        Long getProductCount();
+    }
 }
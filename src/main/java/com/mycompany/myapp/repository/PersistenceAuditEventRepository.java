@@ -0,0 +1,44 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.PersistentAuditEvent;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link PersistentAuditEvent} entity.
+ */
+@Repository
+public interface PersistenceAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long> {
+
+    List<PersistentAuditEvent> findByPrincipal(String principal);
+
+    List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(String principal, Instant after, String type);
+
+    @Query("select min(persistentAuditEvent.id) from PersistentAuditEvent persistentAuditEvent")
+    Optional<Long> findMinId();
+
+    @Query("select max(persistentAuditEvent.id) from PersistentAuditEvent persistentAuditEvent" +
+        " where persistentAuditEvent.auditEventDate < :before")
+    Optional<Long> findMaxIdByAuditEventDateBefore(@Param("before") Instant before);
+
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (" +
+        "select event_id from jhi_persistent_audit_event where event_id >= :fromId and event_id < :toId and event_date < :before)",
+        nativeQuery = true)
+    int deleteDataByIdBetweenAndAuditEventDateBefore(@Param("fromId") long fromId, @Param("toId") long toId,
+        @Param("before") Instant before);
+
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_event where event_id >= :fromId and event_id < :toId and event_date < :before",
+        nativeQuery = true)
+    int deleteByIdBetweenAndAuditEventDateBefore(@Param("fromId") long fromId, @Param("toId") long toId,
+        @Param("before") Instant before);
+}
@@ -0,0 +1,168 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.WishList;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Set-based changes of the products of a {@link Category} or of a {@link WishList}, without loading their products.
+ * <p>
+ * The statements are plain SQL run in the current transaction: a Hibernate bulk or native query would evict whole
+ * second-level cache regions, so the callers evict the cached collections and entities they changed instead.
+ * Product ids are sent in chunks of {@link #CHUNK_SIZE}, to keep the {@code in} lists within the database limits.
+ * <p>
+ * Adding products to a category is idempotent, also when the same products are added concurrently: the insert of a
+ * chunk skips the products already in the category, and when a concurrent transaction added one of them in between,
+ * the products of the chunk are inserted one by one, those already added being skipped.
+ */
+@Repository
+public class ProductMembershipRepository {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String FIND_PRODUCT_IDS =
+        "select id from product where id in (:productIds)";
+
+    private static final String ADD_TO_CATEGORY =
+        "insert into category_product (category_id, product_id) select :categoryId, p.id from product p " +
+        "where p.id in (:productIds) and not exists " +
+        "(select 1 from category_product cp where cp.category_id = :categoryId and cp.product_id = p.id)";
+
+    private static final String REMOVE_FROM_CATEGORY =
+        "delete from category_product where category_id = :categoryId and product_id in (:productIds)";
+
+    private static final String FIND_WISH_LIST_IDS =
+        "select distinct wish_list_id from product where id in (:productIds) and wish_list_id is not null";
+
+    private static final String ADD_TO_WISH_LIST =
+        "update product set wish_list_id = :wishListId " +
+        "where id in (:productIds) and (wish_list_id is null or wish_list_id <> :wishListId)";
+
+    private static final String REMOVE_FROM_WISH_LIST =
+        "update product set wish_list_id = null where wish_list_id = :wishListId and id in (:productIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductMembershipRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param productIds the ids of products.
+     * @return the ids, among them, of the existing products.
+     */
+    public Set<Long> findExistingProductIds(Collection<Long> productIds) {
+        Set<Long> existing = new TreeSet<>();
+        for (List<Long> chunk : chunks(productIds)) {
+            existing.addAll(jdbcTemplate.queryForList(FIND_PRODUCT_IDS,
+                new MapSqlParameterSource("productIds", chunk), Long.class));
+        }
+        return existing;
+    }
+
+    /**
+     * Add products to a category, leaving those already in it.
+     *
+     * @param categoryId the id of the category.
+     * @param productIds the ids of the products.
+     * @return the number of products added.
+     */
+    public int addToCategory(Long categoryId, Collection<Long> productIds) {
+        int added = 0;
+        for (List<Long> chunk : chunks(productIds)) {
+            try {
+                added += jdbcTemplate.update(ADD_TO_CATEGORY, new MapSqlParameterSource("categoryId", categoryId)
+                    .addValue("productIds", chunk));
+            } catch (DuplicateKeyException e) {
+                for (Long productId : chunk) {
+                    added += addToCategory(categoryId, productId);
+                }
+            }
+        }
+        return added;
+    }
+
+    private int addToCategory(Long categoryId, Long productId) {
+        try {
+            return jdbcTemplate.update(ADD_TO_CATEGORY, new MapSqlParameterSource("categoryId", categoryId)
+                .addValue("productIds", Collections.singletonList(productId)));
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Remove products from a category, ignoring those which are not in it.
+     *
+     * @param categoryId the id of the category.
+     * @param productIds the ids of the products.
+     * @return the number of products removed.
+     */
+    public int removeFromCategory(Long categoryId, Collection<Long> productIds) {
+        return update(REMOVE_FROM_CATEGORY, "categoryId", categoryId, productIds);
+    }
+
+    /**
+     * @param productIds the ids of products.
+     * @return the ids of the wish lists these products are currently in.
+     */
+    public Set<Long> findWishListIds(Collection<Long> productIds) {
+        Set<Long> wishListIds = new TreeSet<>();
+        for (List<Long> chunk : chunks(productIds)) {
+            wishListIds.addAll(jdbcTemplate.queryForList(FIND_WISH_LIST_IDS,
+                new MapSqlParameterSource("productIds", chunk), Long.class));
+        }
+        return wishListIds;
+    }
+
+    /**
+     * Move products to a wish list, a product being in at most one wish list.
+     *
+     * @param wishListId the id of the wish list.
+     * @param productIds the ids of the products.
+     * @return the number of products moved.
+     */
+    public int addToWishList(Long wishListId, Collection<Long> productIds) {
+        return update(ADD_TO_WISH_LIST, "wishListId", wishListId, productIds);
+    }
+
+    /**
+     * Remove products from a wish list, ignoring those which are not in it.
+     *
+     * @param wishListId the id of the wish list.
+     * @param productIds the ids of the products.
+     * @return the number of products removed.
+     */
+    public int removeFromWishList(Long wishListId, Collection<Long> productIds) {
+        return update(REMOVE_FROM_WISH_LIST, "wishListId", wishListId, productIds);
+    }
+
+    private int update(String sql, String ownerParameter, Long ownerId, Collection<Long> productIds) {
+        int updated = 0;
+        for (List<Long> chunk : chunks(productIds)) {
+            updated += jdbcTemplate.update(sql, new MapSqlParameterSource(ownerParameter, ownerId)
+                .addValue("productIds", chunk));
+        }
+        return updated;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(productIds));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
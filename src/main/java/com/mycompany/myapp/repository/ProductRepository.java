@@ -2,13 +2,38 @@ package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Product;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Spring Data  repository for the Product entity.
  */
 @SuppressWarnings("unused")
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    @Query("select product.id as id, product.title as title, product.keywords as keywords, " +
+        "product.description as description, product.rating as rating from Product product " +
+        "where product.id > :after order by product.id")
+    List<SearchableProduct> findSearchableAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Projection of a {@link Product} onto its searchable fields.
+     */
+    interface SearchableProduct {
+
+        Long getId();
+
+        String getTitle();
+
+        String getKeywords();
+
+        String getDescription();
+
+        Integer getRating();
+    }
 }
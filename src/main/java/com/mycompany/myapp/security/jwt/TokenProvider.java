@@ -1,12 +1,17 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -27,14 +32,24 @@ public class TokenProvider {
 
     private Key key;
 
+    private JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final int authenticationCacheMaxSize;
+
+    /**
+     * Principals and authorities of the verified tokens, by SHA-256 digest of the token, until the tokens expire.
+     */
+    private final ConcurrentMap<String, CachedAuthentication> authentications = new ConcurrentHashMap<>();
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.authenticationCacheMaxSize = applicationProperties.getJwtCache().getMaxSize();
     }
 
     @PostConstruct
@@ -52,6 +67,7 @@ public class TokenProvider {
             keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
         }
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
@@ -78,7 +94,43 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        String digest = digest(token);
+        CachedAuthentication cached = getCachedAuthentication(digest);
+        if (cached == null) {
+            cached = verify(token, digest);
+        }
+        // The token is mutable (details, erased credentials), so every request gets its own
+        return new UsernamePasswordAuthenticationToken(cached.principal, token, cached.authorities);
+    }
+
+    public boolean validateToken(String authToken) {
+        try {
+            String digest = digest(authToken);
+            if (getCachedAuthentication(digest) == null) {
+                verify(authToken, digest);
+            }
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return false;
+    }
+
+    private CachedAuthentication getCachedAuthentication(String digest) {
+        CachedAuthentication cached = authentications.get(digest);
+        if (cached != null && cached.isExpired(System.currentTimeMillis())) {
+            authentications.remove(digest, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Verify the signature and expiration of a token, and cache its principal and authorities.
+     */
+    private CachedAuthentication verify(String token, String digest) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
@@ -87,17 +139,59 @@ public class TokenProvider {
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        CachedAuthentication cached = new CachedAuthentication(
+            principal,
+            authorities,
+            claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime()
+        );
+        if (authenticationCacheMaxSize > 0) {
+            if (authentications.size() >= authenticationCacheMaxSize) {
+                evictAuthentications();
+            }
+            authentications.put(digest, cached);
+        }
+        return cached;
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Make room in the authentication cache: drop the expired tokens, or any token if none expired.
+     */
+    private void evictAuthentications() {
+        long now = System.currentTimeMillis();
+        authentications.values().removeIf(cached -> cached.isExpired(now));
+        Iterator<String> digests = authentications.keySet().iterator();
+        while (authentications.size() >= authenticationCacheMaxSize && digests.hasNext()) {
+            digests.next();
+            digests.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        if (!StringUtils.hasLength(token)) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.info("Invalid JWT token.");
-            log.trace("Invalid JWT token trace.", e);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+        private final User principal;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final long expiresAt;
+
+        private CachedAuthentication(User principal, Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
         }
-        return false;
     }
 }
@@ -8,28 +8,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import com.mycompany.myapp.domain.Address;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.repository.AddressRepository;
 import com.mycompany.myapp.service.dto.AddressCriteria;
 import com.mycompany.myapp.service.dto.AddressDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.AddressMapper;
 
 /**
  * Service for executing complex queries for {@link Address} entities in the database.
  * The main input is a {@link AddressCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link AddressDTO} or a {@link Page} of {@link AddressDTO} which fulfills the criteria.
+ * It returns a {@link List}, a {@link Page}, a {@link Slice} or a {@link KeysetSlice} of {@link AddressDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class AddressQueryService extends QueryService<Address> {
+public class AddressQueryService extends SliceQueryService<Address> {
+
+    /**
+     * Projection of a {@link Address} onto its {@link AddressDTO}, giving the same DTO as the {@link AddressMapper}.
+     */
+    static final DtoProjection<Address, AddressDTO> PROJECTION = DtoProjection.<Address, AddressDTO>of(AddressDTO::new)
+        .with(address -> address.get(Address_.id), AddressDTO::setId)
+        .with(address -> address.get(Address_.address1), AddressDTO::setAddress1)
+        .with(address -> address.get(Address_.address2), AddressDTO::setAddress2)
+        .with(address -> address.get(Address_.city), AddressDTO::setCity)
+        .with(address -> address.get(Address_.postcode), AddressDTO::setPostcode)
+        .with(address -> address.get(Address_.country), AddressDTO::setCountry)
+        .with(address -> address.get(Address_.customer).get(Customer_.id), AddressDTO::setCustomerId);
 
     private final Logger log = LoggerFactory.getLogger(AddressQueryService.class);
 
@@ -37,9 +50,12 @@ public class AddressQueryService extends QueryService<Address> {
 
     private final AddressMapper addressMapper;
 
-    public AddressQueryService(AddressRepository addressRepository, AddressMapper addressMapper) {
+    private final CountCache countCache;
+
+    public AddressQueryService(AddressRepository addressRepository, AddressMapper addressMapper, CountCache countCache) {
         this.addressRepository = addressRepository;
         this.addressMapper = addressMapper;
+        this.countCache = countCache;
     }
 
     /**
@@ -56,6 +72,7 @@ public class AddressQueryService extends QueryService<Address> {
 
     /**
      * Return a {@link Page} of {@link AddressDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -64,8 +81,67 @@ public class AddressQueryService extends QueryService<Address> {
     public Page<AddressDTO> findByCriteria(AddressCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Address> specification = createSpecification(criteria);
-        return addressRepository.findAll(specification, page)
-            .map(addressMapper::toDto);
+        return findProjected(Address.class, specification, page, PROJECTION, () -> addressRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of the {@link AddressDTO} of a customer, filtered on the customer foreign key, without joining
+     * the customer. The DTOs are projected from the matching rows, without loading the entities.
+     * @param customerId The id of the customer.
+     * @param page The page, which should be returned.
+     * @return the addresses of the customer.
+     */
+    @Transactional(readOnly = true)
+    public Page<AddressDTO> findByCustomer(Long customerId, Pageable page) {
+        log.debug("find by customer : {}, page: {}", customerId, page);
+        final Specification<Address> specification = (root, query, builder) ->
+            builder.equal(root.get(Address_.customer).get(Customer_.id), customerId);
+        return findProjected(Address.class, specification, page, PROJECTION, () -> addressRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of {@link AddressDTO} which matches the criteria from the database,
+     * with an approximate total taken from the {@link CountCache}.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<AddressDTO> findByCriteriaWithApproximateCount(AddressCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Address> specification = createSpecification(criteria);
+        return findPage(Address.class, specification, page, PROJECTION,
+            () -> countCache.count(criteria, () -> addressRepository.count(specification)));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link AddressDTO} which matches the criteria from the database, without counting them.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AddressDTO> findSliceByCriteria(AddressCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Address> specification = createSpecification(criteria);
+        return findSlice(Address.class, specification, page, PROJECTION);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link AddressDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or an empty value for the first slice.
+     * @param page The size and, for the first slice, the sort order of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<AddressDTO> findByCriteria(AddressCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Address> specification = createSpecification(criteria);
+        return findAfter(Address.class, specification, after, page, PROJECTION);
     }
 
     /**
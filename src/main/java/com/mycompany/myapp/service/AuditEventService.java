@@ -0,0 +1,137 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.PersistentAuditEvent;
+import com.mycompany.myapp.repository.PersistenceAuditEventRepository;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for managing the retention of the {@link PersistentAuditEvent}s.
+ * <p>
+ * Old events are purged in ranges of {@code application.audit-events.purge-chunk-size} ids, walking the primary key
+ * from the oldest event up to the last expired one, found through the event date index. Every range is deleted in its
+ * own short transaction, with a pause of {@code application.audit-events.purge-throttle-millis} between ranges, so the
+ * audit tables are never locked for long. A cluster-wide lock makes a single node purge at a time.
+ * <p>
+ * The purged events are counted in {@code audit.events.purged}, tagged with the table, and the ids left to walk in the
+ * current purge are published as {@code audit.events.purge.remaining}.
+ */
+@Service
+public class AuditEventService {
+
+    static final String LOCK_MAP = "sampleonlineshop.locks";
+
+    static final String LOCK_KEY = "audit-event-purge";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventService.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.AuditEvents properties;
+
+    private final Counter purgedEvents;
+
+    private final Counter purgedData;
+
+    private final AtomicLong remaining = new AtomicLong();
+
+    public AuditEventService(PersistenceAuditEventRepository persistenceAuditEventRepository,
+            PlatformTransactionManager transactionManager, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
+            JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hazelcastInstance = hazelcastInstance;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getAuditEvents();
+        this.purgedEvents = Counter.builder("audit.events.purged")
+            .description("Audit events deleted by the retention purge")
+            .tag("table", "jhi_persistent_audit_event")
+            .register(meterRegistry);
+        this.purgedData = Counter.builder("audit.events.purged")
+            .description("Audit events deleted by the retention purge")
+            .tag("table", "jhi_persistent_audit_evt_data")
+            .register(meterRegistry);
+        Gauge.builder("audit.events.purge.remaining", remaining, AtomicLong::get)
+            .description("Audit event ids left to walk by the running retention purge")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Old audit events should be automatically deleted after {@code jhipster.audit-events.retention-period} days.
+     * <p>
+     * This is scheduled to get fired every day, by default at 3:00 (am), and skipped if another node is purging.
+     *
+     * @return the number of deleted events.
+     * @throws InterruptedException if interrupted while throttled, the events deleted so far stay deleted.
+     */
+    @Scheduled(cron = "${application.audit-events.purge-cron:0 0 3 * * ?}")
+    public long removeOldAuditEvents() throws InterruptedException {
+        IMap<String, Object> locks = hazelcastInstance.getMap(LOCK_MAP);
+        if (!locks.tryLock(LOCK_KEY)) {
+            log.debug("Audit events are being purged by another node");
+            return 0;
+        }
+        try {
+            return purge(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS));
+        } finally {
+            remaining.set(0);
+            locks.unlock(LOCK_KEY);
+        }
+    }
+
+    private long purge(Instant before) throws InterruptedException {
+        Optional<Long> last = persistenceAuditEventRepository.findMaxIdByAuditEventDateBefore(before);
+        Optional<Long> first = persistenceAuditEventRepository.findMinId();
+        if (!last.isPresent() || !first.isPresent()) {
+            log.debug("No audit event before {} to purge", before);
+            return 0;
+        }
+        log.info("Purging audit events before {}, ids {} to {}", before, first.get(), last.get());
+        long deleted = 0;
+        long end = last.get() + 1;
+        for (long from = first.get(); from < end; from += properties.getPurgeChunkSize()) {
+            long to = Math.min(from + properties.getPurgeChunkSize(), end);
+            remaining.set(end - to);
+            deleted += deleteRange(from, to, before);
+            if (to < end && properties.getPurgeThrottleMillis() > 0) {
+                Thread.sleep(properties.getPurgeThrottleMillis());
+            }
+        }
+        log.info("Purged {} audit events before {}", deleted, before);
+        return deleted;
+    }
+
+    private int deleteRange(long from, long to, Instant before) {
+        int[] deleted = transactionTemplate.execute(status -> new int[] {
+            persistenceAuditEventRepository.deleteDataByIdBetweenAndAuditEventDateBefore(from, to, before),
+            persistenceAuditEventRepository.deleteByIdBetweenAndAuditEventDateBefore(from, to, before)
+        });
+        purgedData.increment(deleted[0]);
+        purgedEvents.increment(deleted[1]);
+        log.debug("Purged {} audit events with {} data rows, ids {} to {}", deleted[1], deleted[0], from, to - 1);
+        return deleted[1];
+    }
+}
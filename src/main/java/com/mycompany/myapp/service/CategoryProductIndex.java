@@ -0,0 +1,353 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.service.dto.CategoryExpression;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the products of every {@link Category}, held as compressed (roaring) bitmaps of product ids.
+ * <p>
+ * A {@link CategoryExpression} combining several categories is evaluated on the bitmaps, so the ids of the matching
+ * products are known before the database is queried, instead of joining the {@code category_product} table once per
+ * category. Only the ids are held, the products themselves are read from the database.
+ * <p>
+ * The index is built when the application is ready and kept up to date by {@link CategoryService} and
+ * {@link ProductService}. Changes are also published on a Hazelcast topic, so every node applies the changes made on
+ * the others.
+ */
+@Component
+public class CategoryProductIndex {
+
+    public static final String CHANGE_TOPIC = "sampleonlineshop.category-product-index";
+
+    private final Logger log = LoggerFactory.getLogger(CategoryProductIndex.class);
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryTree categoryTree;
+
+    private final ITopic<Change> changes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private final Map<Long, Roaring64NavigableMap> products = new HashMap<>();
+
+    /**
+     * Changes applied while the index is being rebuilt, in order; guarded by the write lock, {@code null} when no
+     * rebuild is running.
+     */
+    private List<Change> rebuildChanges;
+
+    public CategoryProductIndex(CategoryRepository categoryRepository, CategoryTree categoryTree,
+            HazelcastInstance hazelcastInstance) {
+        this.categoryRepository = categoryRepository;
+        this.categoryTree = categoryTree;
+        this.changes = hazelcastInstance.getTopic(CHANGE_TOPIC);
+        this.changes.addMessageListener(this::onChange);
+    }
+
+    /**
+     * Read all the memberships of the database, replacing the current content of the index.
+     * <p>
+     * The changes applied while the memberships are read are not locked out, they are kept and applied again to the
+     * memberships read, which may miss them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.debug("Rebuilding the Category product index");
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                rebuildChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                Map<Long, Roaring64NavigableMap> rebuilt = new HashMap<>();
+                for (CategoryRepository.Membership membership : categoryRepository.findAllMemberships()) {
+                    rebuilt.computeIfAbsent(membership.getCategoryId(), id -> bitmap()).addLong(membership.getProductId());
+                }
+                rebuilt.values().forEach(Roaring64NavigableMap::runOptimize);
+                lock.writeLock().lock();
+                try {
+                    products.clear();
+                    products.putAll(rebuilt);
+                    rebuildChanges.forEach(this::replay);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Category product index built with {} categories", rebuilt.size());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    rebuildChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the products of a category, on this node and on the others.
+     *
+     * @param category the saved category, with all its products.
+     */
+    public void update(Category category) {
+        long[] productIds = category.getProducts().stream().mapToLong(Product::getId).toArray();
+        publish(new Change(Change.Type.REPLACE, category.getId(), null, productIds));
+    }
+
+    /**
+     * Add products to a category, on this node and on the others.
+     *
+     * @param categoryId the id of the category.
+     * @param productIds the ids of the products.
+     */
+    public void add(Long categoryId, Collection<Long> productIds) {
+        publish(new Change(Change.Type.ADD, categoryId, null, toArray(productIds)));
+    }
+
+    /**
+     * Remove products from a category, on this node and on the others.
+     *
+     * @param categoryId the id of the category.
+     * @param productIds the ids of the products.
+     */
+    public void remove(Long categoryId, Collection<Long> productIds) {
+        publish(new Change(Change.Type.REMOVE, categoryId, null, toArray(productIds)));
+    }
+
+    /**
+     * Remove a category from the index, on this node and on the others.
+     *
+     * @param categoryId the id of the deleted category.
+     */
+    public void deleteCategory(Long categoryId) {
+        publish(new Change(Change.Type.DELETE_CATEGORY, categoryId, null, null));
+    }
+
+    /**
+     * Remove a product from all the categories, on this node and on the others.
+     *
+     * @param productId the id of the deleted product.
+     */
+    public void deleteProduct(Long productId) {
+        publish(new Change(Change.Type.DELETE_PRODUCT, null, productId, null));
+    }
+
+    private static long[] toArray(Collection<Long> productIds) {
+        return productIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void publish(Change change) {
+        apply(change);
+        changes.publish(change);
+    }
+
+    private void onChange(Message<Change> message) {
+        // The publishing node already applied the change
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        apply(message.getMessageObject());
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (rebuildChanges != null) {
+                rebuildChanges.add(change);
+            }
+            replay(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replay(Change change) {
+        switch (change.type) {
+            case REPLACE:
+                Roaring64NavigableMap bitmap = bitmap();
+                for (long productId : change.productIds) {
+                    bitmap.addLong(productId);
+                }
+                bitmap.runOptimize();
+                products.put(change.categoryId, bitmap);
+                break;
+            case ADD:
+                Roaring64NavigableMap added = products.computeIfAbsent(change.categoryId, id -> bitmap());
+                for (long productId : change.productIds) {
+                    added.addLong(productId);
+                }
+                break;
+            case REMOVE:
+                Roaring64NavigableMap current = products.get(change.categoryId);
+                if (current != null) {
+                    for (long productId : change.productIds) {
+                        current.removeLong(productId);
+                    }
+                }
+                break;
+            case DELETE_CATEGORY:
+                products.remove(change.categoryId);
+                break;
+            case DELETE_PRODUCT:
+                for (Roaring64NavigableMap productIds : products.values()) {
+                    productIds.removeLong(change.productId);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown change " + change.type);
+        }
+    }
+
+    /**
+     * Evaluate a category expression on the index.
+     *
+     * @param expression the category expression.
+     * @param includeDescendants whether a category of the expression also stands for its descendants, taken from the
+     *        {@link CategoryTree}.
+     * @return the matching products.
+     */
+    public Selection select(CategoryExpression expression, boolean includeDescendants) {
+        lock.readLock().lock();
+        try {
+            return expression.evaluate(
+                categoryId -> new Selection(productsOf(categoryId, includeDescendants), false),
+                Selection::not,
+                Selection::and,
+                (left, right) -> Selection.and(left.not(), right.not()).not());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Roaring64NavigableMap productsOf(long categoryId, boolean includeDescendants) {
+        // Copied, the evaluation of the expression combines them in place
+        Roaring64NavigableMap productIds = bitmap();
+        Set<Long> categoryIds = includeDescendants
+            ? categoryTree.withDescendants(categoryId) : Collections.singleton(categoryId);
+        for (Long id : categoryIds) {
+            Roaring64NavigableMap categoryProducts = products.get(id);
+            if (categoryProducts != null) {
+                productIds.or(categoryProducts);
+            }
+        }
+        return productIds;
+    }
+
+    /**
+     * Bitmap of product ids, without the cardinality cache which would be updated by the concurrent readers.
+     */
+    private static Roaring64NavigableMap bitmap() {
+        return new Roaring64NavigableMap(false, false);
+    }
+
+    /**
+     * Products matching a category expression: either the products with the given ids, or, when the selection is a
+     * complement, all the products except them.
+     */
+    public static final class Selection {
+
+        private final Roaring64NavigableMap productIds;
+
+        private final boolean complement;
+
+        private Selection(Roaring64NavigableMap productIds, boolean complement) {
+            this.productIds = productIds;
+            this.complement = complement;
+        }
+
+        /**
+         * @return the sorted ids of the selected products or, for a complement, of the excluded ones.
+         */
+        public long[] getProductIds() {
+            return productIds.toArray();
+        }
+
+        /**
+         * @return the number of selected products or, for a complement, of the excluded ones.
+         */
+        public long getCount() {
+            return productIds.getLongCardinality();
+        }
+
+        /**
+         * @return whether all the products are selected except the ones of {@link #getProductIds()}.
+         */
+        public boolean isComplement() {
+            return complement;
+        }
+
+        private Selection not() {
+            return new Selection(productIds, !complement);
+        }
+
+        private static Selection and(Selection left, Selection right) {
+            if (left.complement && right.complement) {
+                left.productIds.or(right.productIds);
+                return left;
+            }
+            if (left.complement) {
+                right.productIds.andNot(left.productIds);
+                return right;
+            }
+            if (right.complement) {
+                left.productIds.andNot(right.productIds);
+            } else {
+                left.productIds.and(right.productIds);
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Announcement of a change of the memberships, sent to the other nodes.
+     */
+    static final class Change implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        enum Type { REPLACE, ADD, REMOVE, DELETE_CATEGORY, DELETE_PRODUCT }
+
+        private final Type type;
+
+        private final Long categoryId;
+
+        private final Long productId;
+
+        private final long[] productIds;
+
+        Change(Type type, Long categoryId, Long productId, long[] productIds) {
+            this.type = type;
+            this.categoryId = categoryId;
+            this.productId = productId;
+            this.productIds = productIds;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.mycompany.myapp.service;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.persistence.criteria.JoinType;
 
@@ -8,28 +12,57 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import com.mycompany.myapp.domain.Category;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.repository.CategoryRepository;
 import com.mycompany.myapp.service.dto.CategoryCriteria;
 import com.mycompany.myapp.service.dto.CategoryDTO;
+import com.mycompany.myapp.service.dto.CategorySummaryDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.service.dto.ProductDTO;
 import com.mycompany.myapp.service.mapper.CategoryMapper;
 
 /**
  * Service for executing complex queries for {@link Category} entities in the database.
  * The main input is a {@link CategoryCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link CategoryDTO} or a {@link Page} of {@link CategoryDTO} which fulfills the criteria.
+ * It returns a {@link List}, a {@link Page}, a {@link Slice} or a {@link KeysetSlice} of {@link CategoryDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class CategoryQueryService extends QueryService<Category> {
+public class CategoryQueryService extends SliceQueryService<Category> {
+
+    /**
+     * Projection of a {@link Category} onto its {@link CategoryDTO}, giving the same DTO as the
+     * {@link CategoryMapper}, without its products.
+     */
+    static final DtoProjection<Category, CategoryDTO> PROJECTION = DtoProjection.<Category, CategoryDTO>of(CategoryDTO::new)
+        .with(category -> category.get(Category_.id), CategoryDTO::setId)
+        .with(category -> category.get(Category_.description), CategoryDTO::setDescription)
+        .with(category -> category.get(Category_.sortOrder), CategoryDTO::setSortOrder)
+        .with(category -> category.get(Category_.dateAdded), CategoryDTO::setDateAdded)
+        .with(category -> category.get(Category_.dateModified), CategoryDTO::setDateModified)
+        .with(category -> category.get(Category_.status), CategoryDTO::setStatus)
+        .with(category -> category.get(Category_.parent).get(Category_.id), CategoryDTO::setParentId);
+
+    /**
+     * Projection of a {@link Category} onto its {@link CategorySummaryDTO}, without the product count.
+     */
+    static final DtoProjection<Category, CategorySummaryDTO> SUMMARY_PROJECTION =
+        DtoProjection.<Category, CategorySummaryDTO>of(CategorySummaryDTO::new)
+        .with(category -> category.get(Category_.id), CategorySummaryDTO::setId)
+        .with(category -> category.get(Category_.description), CategorySummaryDTO::setDescription)
+        .with(category -> category.get(Category_.sortOrder), CategorySummaryDTO::setSortOrder)
+        .with(category -> category.get(Category_.dateAdded), CategorySummaryDTO::setDateAdded)
+        .with(category -> category.get(Category_.dateModified), CategorySummaryDTO::setDateModified)
+        .with(category -> category.get(Category_.status), CategorySummaryDTO::setStatus)
+        .with(category -> category.get(Category_.parent).get(Category_.id), CategorySummaryDTO::setParentId);
 
     private final Logger log = LoggerFactory.getLogger(CategoryQueryService.class);
 
@@ -37,9 +70,12 @@ public class CategoryQueryService extends QueryService<Category> {
 
     private final CategoryMapper categoryMapper;
 
-    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    private final CountCache countCache;
+
+    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, CountCache countCache) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.countCache = countCache;
     }
 
     /**
@@ -56,6 +92,7 @@ public class CategoryQueryService extends QueryService<Category> {
 
     /**
      * Return a {@link Page} of {@link CategoryDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -64,8 +101,95 @@ public class CategoryQueryService extends QueryService<Category> {
     public Page<CategoryDTO> findByCriteria(CategoryCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Category> specification = createSpecification(criteria);
-        return categoryRepository.findAll(specification, page)
-            .map(categoryMapper::toDto);
+        Page<CategoryDTO> categories = findProjected(Category.class, specification, page, PROJECTION,
+            () -> categoryRepository.count(specification));
+        withProducts(categories.getContent());
+        return categories;
+    }
+
+    /**
+     * Return a {@link Page} of {@link CategorySummaryDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, and the products of the page are counted with a single query
+     * grouped by category, without reading the products.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<CategorySummaryDTO> findSummariesByCriteria(CategoryCriteria criteria, Pageable page) {
+        log.debug("find summaries by criteria : {}, page: {}", criteria, page);
+        final Specification<Category> specification = createSpecification(criteria);
+        Page<CategorySummaryDTO> categories = findProjected(Category.class, specification, page, SUMMARY_PROJECTION,
+            () -> categoryRepository.count(specification));
+        if (categories.hasContent()) {
+            List<Long> ids = categories.map(CategorySummaryDTO::getId).getContent();
+            Map<Long, Long> productCounts = categoryRepository.countProducts(ids).stream()
+                .collect(Collectors.toMap(CategoryRepository.ProductCount::getCategoryId, CategoryRepository.ProductCount::getProductCount));
+            categories.forEach(category -> category.setProductCount(productCounts.getOrDefault(category.getId(), 0L)));
+        }
+        return categories;
+    }
+
+    /**
+     * Return a {@link Page} of {@link CategoryDTO} which matches the criteria from the database,
+     * with an approximate total taken from the {@link CountCache}.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<CategoryDTO> findByCriteriaWithApproximateCount(CategoryCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Category> specification = createSpecification(criteria);
+        Page<CategoryDTO> categories = findPage(Category.class, specification, page, PROJECTION,
+            () -> countCache.count(criteria, () -> categoryRepository.count(specification)));
+        withProducts(categories.getContent());
+        return categories;
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CategoryDTO} which matches the criteria from the database, without counting them.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CategoryDTO> findSliceByCriteria(CategoryCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Category> specification = createSpecification(criteria);
+        Slice<CategoryDTO> categories = findSlice(Category.class, specification, page, PROJECTION);
+        withProducts(categories.getContent());
+        return categories;
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link CategoryDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or an empty value for the first slice.
+     * @param page The size and, for the first slice, the sort order of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<CategoryDTO> findByCriteria(CategoryCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Category> specification = createSpecification(criteria);
+        KeysetSlice<CategoryDTO> categories = findAfter(Category.class, specification, after, page, PROJECTION);
+        withProducts(categories.getContent());
+        return categories;
+    }
+
+    /**
+     * Fill the products of categories, projected with a single query.
+     * @param categories The DTOs of the categories, without their products.
+     */
+    private void withProducts(List<CategoryDTO> categories) {
+        Map<Long, List<ProductDTO>> products = findProjectedCollection(Category.class,
+            categories.stream().map(CategoryDTO::getId).collect(Collectors.toList()),
+            category -> category.join(Category_.products), ProductQueryService.PROJECTION);
+        categories.forEach(category -> category.setProducts(new HashSet<>(products.getOrDefault(category.getId(), Collections.emptyList()))));
     }
 
     /**
@@ -111,8 +235,8 @@ public class CategoryQueryService extends QueryService<Category> {
                     root -> root.join(Category_.parent, JoinType.LEFT).get(Category_.id)));
             }
             if (criteria.getProductId() != null) {
-                specification = specification.and(buildSpecification(criteria.getProductId(),
-                    root -> root.join(Category_.products, JoinType.LEFT).get(Product_.id)));
+                specification = specification.and(semiJoin(buildSpecification(criteria.getProductId(),
+                    root -> root.join(Category_.products, JoinType.LEFT).get(Product_.id))));
             }
         }
         return specification;
@@ -1,18 +1,33 @@
 package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.repository.ProductMembershipRepository;
 import com.mycompany.myapp.service.dto.CategoryDTO;
+import com.mycompany.myapp.service.dto.CategoryTreeDTO;
 import com.mycompany.myapp.service.mapper.CategoryMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link Category}.
@@ -27,9 +42,23 @@ public class CategoryService {
 
     private final CategoryMapper categoryMapper;
 
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    private final CategoryTree categoryTree;
+
+    private final CategoryProductIndex categoryProductIndex;
+
+    private final ProductMembershipRepository productMembershipRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, CategoryTree categoryTree,
+            CategoryProductIndex categoryProductIndex, ProductMembershipRepository productMembershipRepository,
+            EntityManagerFactory entityManagerFactory) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.categoryTree = categoryTree;
+        this.categoryProductIndex = categoryProductIndex;
+        this.productMembershipRepository = productMembershipRepository;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     /**
@@ -37,11 +66,21 @@ public class CategoryService {
      *
      * @param categoryDTO the entity to save.
      * @return the persisted entity.
+     * @throws IllegalArgumentException if the category would be moved under itself or one of its descendants.
      */
     public CategoryDTO save(CategoryDTO categoryDTO) {
         log.debug("Request to save Category : {}", categoryDTO);
+        if (categoryDTO.getId() != null && categoryDTO.getParentId() != null
+                && categoryTree.isInSubtree(categoryDTO.getParentId(), categoryDTO.getId())) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or one of its descendants");
+        }
         Category category = categoryMapper.toEntity(categoryDTO);
         category = categoryRepository.save(category);
+        Category saved = category;
+        TransactionCallbacks.afterCommit(() -> {
+            categoryTree.update(saved);
+            categoryProductIndex.update(saved);
+        });
         return categoryMapper.toDto(category);
     }
 
@@ -61,11 +100,28 @@ public class CategoryService {
 
     /**
      * Get all the categories with eager load of many-to-many relationships.
+     * <p>
+     * The page of category ids is read first, then the categories of that page are fetched with their products
+     * in a single query, so the database only returns the rows of the requested page.
      *
+     * @param pageable the pagination information.
      * @return the list of entities.
      */
+    @Transactional(readOnly = true)
     public Page<CategoryDTO> findAllWithEagerRelationships(Pageable pageable) {
-        return categoryRepository.findAllWithEagerRelationships(pageable).map(categoryMapper::toDto);
+        log.debug("Request to get all Categories with eager relationships");
+        Page<Long> ids = categoryRepository.findAllIds(pageable);
+        if (!ids.hasContent()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Category> categories = categoryRepository.findAllWithEagerRelationships(ids.getContent()).stream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+        List<CategoryDTO> content = ids.getContent().stream()
+            .map(categories::get)
+            .filter(Objects::nonNull)
+            .map(categoryMapper::toDto)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     /**
@@ -81,6 +137,45 @@ public class CategoryService {
             .map(categoryMapper::toDto);
     }
 
+    /**
+     * Tell whether a category exists, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return whether the entity exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(Long id) {
+        return categoryRepository.existsById(id);
+    }
+
+    /**
+     * Get a category with its sub-categories, from the {@link CategoryTree}.
+     *
+     * @param id the id of the entity.
+     * @param depth the levels of sub-categories to include, {@code null} for all of them.
+     * @return the category tree.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<CategoryTreeDTO> findTree(Long id, Integer depth) {
+        log.debug("Request to get the tree of Category : {}, depth : {}", id, depth);
+        if (depth != null && depth < 0) {
+            throw new IllegalArgumentException("The depth cannot be negative");
+        }
+        return categoryTree.tree(id, depth);
+    }
+
+    /**
+     * Get the ancestors of a category, from the {@link CategoryTree}.
+     *
+     * @param id the id of the entity.
+     * @return the ancestors, from the root category down to the parent.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<List<CategoryTreeDTO>> findAncestors(Long id) {
+        log.debug("Request to get the ancestors of Category : {}", id);
+        return categoryTree.ancestors(id);
+    }
+
     /**
      * Delete the category by id.
      *
@@ -90,5 +185,83 @@ public class CategoryService {
         log.debug("Request to delete Category : {}", id);
 
         categoryRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            categoryTree.delete(id);
+            categoryProductIndex.deleteCategory(id);
+        });
+    }
+
+    /**
+     * Add products to a category, with a single statement which neither loads the products of the category nor the
+     * categories of the products.
+     * <p>
+     * Only the cached products of the category and cached categories of the products are evicted from the
+     * second-level cache, before the statement and once committed, as Hibernate does for its bulk operations: a
+     * transaction loading them in between could otherwise cache their previous state.
+     *
+     * @param id the id of the category.
+     * @param productIds the ids of the products, those already in the category being left as they are.
+     * @return the number of products added, empty if the category does not exist.
+     * @throws IllegalArgumentException if a product does not exist.
+     */
+    public Optional<Integer> addProducts(Long id, Collection<Long> productIds) {
+        log.debug("Request to add Products {} to Category : {}", productIds, id);
+        if (!categoryRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        checkProductsExist(productIds);
+        evictMemberships(id, productIds);
+        int added = productMembershipRepository.addToCategory(id, productIds);
+        TransactionCallbacks.afterCommit(() -> {
+            evictMemberships(id, productIds);
+            categoryProductIndex.add(id, productIds);
+        });
+        return Optional.of(added);
+    }
+
+    /**
+     * Remove products from a category, with a single statement which neither loads the products of the category nor
+     * the categories of the products.
+     *
+     * @param id the id of the category.
+     * @param productIds the ids of the products, those which are not in the category being ignored.
+     * @return the number of products removed, empty if the category does not exist.
+     */
+    public Optional<Integer> removeProducts(Long id, Collection<Long> productIds) {
+        log.debug("Request to remove Products {} from Category : {}", productIds, id);
+        if (!categoryRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        checkProductIds(productIds);
+        evictMemberships(id, productIds);
+        int removed = productMembershipRepository.removeFromCategory(id, productIds);
+        TransactionCallbacks.afterCommit(() -> {
+            evictMemberships(id, productIds);
+            categoryProductIndex.remove(id, productIds);
+        });
+        return Optional.of(removed);
+    }
+
+    private void checkProductsExist(Collection<Long> productIds) {
+        checkProductIds(productIds);
+        Set<Long> unknown = new TreeSet<>(productIds);
+        unknown.removeAll(productMembershipRepository.findExistingProductIds(productIds));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown products " + unknown);
+        }
+    }
+
+    private static void checkProductIds(Collection<Long> productIds) {
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("A product id cannot be null");
+        }
+    }
+
+    private void evictMemberships(Long id, Collection<Long> productIds) {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictCollectionData(Category.class.getName() + ".products", id);
+        for (Long productId : productIds) {
+            cache.evictCollectionData(Product.class.getName() + ".categories", productId);
+        }
     }
 }
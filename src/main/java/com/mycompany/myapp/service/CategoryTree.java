@@ -0,0 +1,360 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.service.dto.CategoryTreeDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory tree of all the {@link Category}s, so that sub-trees, ancestors and descendants are found without walking
+ * the {@code parent} relationship one query at a time.
+ * <p>
+ * The tree is an immutable snapshot: the categories by id, the sorted children of every category, and a pre-order
+ * numbering in which the descendants of a category are the range following it. Readers use the current snapshot without
+ * locking; a change builds a new snapshot from the previous one, without reading the database, and replaces it. This
+ * renumbers all the categories on every change, which are few and rarely changed compared to how often they are read.
+ * <p>
+ * The tree is built when the application is ready and kept up to date by {@link CategoryService}. Changes are also
+ * published on a Hazelcast topic, so every node applies the changes made on the others.
+ */
+@Component
+public class CategoryTree {
+
+    public static final String CHANGE_TOPIC = "sampleonlineshop.category-tree";
+
+    private static final Comparator<Node> SIBLING_ORDER = Comparator
+        .comparing((Node node) -> node.sortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(node -> node.id);
+
+    private final Logger log = LoggerFactory.getLogger(CategoryTree.class);
+
+    private final CategoryRepository categoryRepository;
+
+    private final ITopic<Change> changes;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+    /**
+     * Changes applied while the tree is being rebuilt, by category id, {@code null} for a deletion; guarded by
+     * {@code this}, {@code null} when no rebuild is running.
+     */
+    private Map<Long, Node> rebuildChanges;
+
+    public CategoryTree(CategoryRepository categoryRepository, HazelcastInstance hazelcastInstance) {
+        this.categoryRepository = categoryRepository;
+        this.changes = hazelcastInstance.getTopic(CHANGE_TOPIC);
+        this.changes.addMessageListener(this::onChange);
+    }
+
+    /**
+     * Read all the categories of the database, replacing the current tree.
+     * <p>
+     * The changes applied while the categories are read are not locked out, they are kept and applied again to the
+     * categories read, which may miss them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.debug("Rebuilding the Category tree");
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                rebuildChanges = new HashMap<>();
+            }
+            try {
+                Map<Long, Node> nodes = new HashMap<>();
+                for (CategoryRepository.TreeNode node : categoryRepository.findAllTreeNodes()) {
+                    nodes.put(node.getId(), new Node(node.getId(), node.getParentId(), node.getDescription(),
+                        node.getSortOrder(), node.getStatus()));
+                }
+                synchronized (this) {
+                    rebuildChanges.forEach((id, node) -> put(nodes, id, node));
+                    snapshot = new Snapshot(nodes);
+                }
+                log.info("Category tree built with {} categories", nodes.size());
+            } finally {
+                synchronized (this) {
+                    rebuildChanges = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a category to the tree, or move and update it, on this node and on the others.
+     *
+     * @param category the saved category.
+     */
+    public void update(Category category) {
+        Node node = new Node(category.getId(), category.getParent() != null ? category.getParent().getId() : null,
+            category.getDescription(), category.getSortOrder(), category.getStatus());
+        apply(category.getId(), node);
+        changes.publish(new Change(category.getId(), node));
+    }
+
+    /**
+     * Remove a category from the tree, on this node and on the others.
+     *
+     * @param id the id of the deleted category.
+     */
+    public void delete(Long id) {
+        apply(id, null);
+        changes.publish(new Change(id, null));
+    }
+
+    private void onChange(Message<Change> message) {
+        // The publishing node already applied the change
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        apply(message.getMessageObject().id, message.getMessageObject().node);
+    }
+
+    private synchronized void apply(Long id, Node node) {
+        if (rebuildChanges != null) {
+            rebuildChanges.put(id, node);
+        }
+        Map<Long, Node> nodes = new HashMap<>(snapshot.nodes);
+        put(nodes, id, node);
+        snapshot = new Snapshot(nodes);
+    }
+
+    private static void put(Map<Long, Node> nodes, Long id, Node node) {
+        if (node != null) {
+            nodes.put(id, node);
+        } else {
+            nodes.remove(id);
+        }
+    }
+
+    /**
+     * Get a category with its descendants.
+     *
+     * @param id the id of the category.
+     * @param depth the levels of descendants to include, {@code null} for all of them.
+     * @return the category with its sub-categories, sorted by sort order then id, or empty if it does not exist.
+     */
+    public Optional<CategoryTreeDTO> tree(Long id, Integer depth) {
+        Snapshot current = snapshot;
+        Node node = current.nodes.get(id);
+        return Optional.ofNullable(node).map(n -> current.toTree(n, depth != null ? depth : Integer.MAX_VALUE));
+    }
+
+    /**
+     * Get the ancestors of a category.
+     *
+     * @param id the id of the category.
+     * @return the ancestors, from the root category down to the parent, or empty if the category does not exist.
+     */
+    public Optional<List<CategoryTreeDTO>> ancestors(Long id) {
+        Snapshot current = snapshot;
+        Node node = current.nodes.get(id);
+        if (node == null) {
+            return Optional.empty();
+        }
+        LinkedList<CategoryTreeDTO> ancestors = new LinkedList<>();
+        // Bounded by the number of categories, in case a change made a cycle
+        for (Node parent = current.nodes.get(node.parentId); parent != null && ancestors.size() < current.nodes.size();
+                parent = current.nodes.get(parent.parentId)) {
+            ancestors.addFirst(parent.toDto());
+        }
+        return Optional.of(ancestors);
+    }
+
+    /**
+     * Get the ids of a category and of all its descendants.
+     *
+     * @param id the id of the category.
+     * @return the sorted ids, only the given one if the category is unknown or has no sub-category.
+     */
+    public Set<Long> withDescendants(Long id) {
+        Snapshot current = snapshot;
+        Integer position = current.positions.get(id);
+        Set<Long> ids = new TreeSet<>();
+        ids.add(id);
+        if (position != null) {
+            for (int i = position; i < current.ends[position]; i++) {
+                ids.add(current.preorder[i]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Check whether a category is another one or one of its descendants.
+     *
+     * @param id the id of the category.
+     * @param ancestorId the id of the other category.
+     * @return whether the category is in the sub-tree of the other one.
+     */
+    public boolean isInSubtree(Long id, Long ancestorId) {
+        Snapshot current = snapshot;
+        if (id.equals(ancestorId)) {
+            return true;
+        }
+        Integer position = current.positions.get(id);
+        Integer ancestorPosition = current.positions.get(ancestorId);
+        return position != null && ancestorPosition != null && position > ancestorPosition
+            && position < current.ends[ancestorPosition];
+    }
+
+    /**
+     * Immutable state of the tree.
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, Node> nodes;
+
+        private final Map<Long, List<Node>> children = new HashMap<>();
+
+        private final Map<Long, Integer> positions = new HashMap<>();
+
+        private final long[] preorder;
+
+        /**
+         * End (exclusive) of the range of the descendants of the category at every position of the pre-order.
+         */
+        private final int[] ends;
+
+        private Snapshot(Map<Long, Node> nodes) {
+            this.nodes = nodes;
+            this.preorder = new long[nodes.size()];
+            this.ends = new int[nodes.size()];
+            List<Node> roots = new ArrayList<>();
+            for (Node node : nodes.values()) {
+                if (node.parentId == null || !nodes.containsKey(node.parentId)) {
+                    roots.add(node);
+                } else {
+                    children.computeIfAbsent(node.parentId, parentId -> new ArrayList<>()).add(node);
+                }
+            }
+            roots.sort(SIBLING_ORDER);
+            children.values().forEach(siblings -> siblings.sort(SIBLING_ORDER));
+            // Categories in a cycle are left out, they are not under any root
+            Deque<Node> pending = new ArrayDeque<>();
+            for (int i = roots.size() - 1; i >= 0; i--) {
+                pending.push(roots.get(i));
+            }
+            int numbered = 0;
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                positions.put(node.id, numbered);
+                preorder[numbered++] = node.id;
+                List<Node> siblings = children.getOrDefault(node.id, Collections.emptyList());
+                for (int i = siblings.size() - 1; i >= 0; i--) {
+                    pending.push(siblings.get(i));
+                }
+            }
+            // Children come after their parent, so the sizes of the sub-trees are summed from the end
+            for (int position = numbered - 1; position >= 0; position--) {
+                int end = position + 1;
+                for (Node child : children.getOrDefault(preorder[position], Collections.emptyList())) {
+                    int childPosition = positions.get(child.id);
+                    end += ends[childPosition] - childPosition;
+                }
+                ends[position] = end;
+            }
+        }
+
+        private CategoryTreeDTO toTree(Node root, int depth) {
+            CategoryTreeDTO tree = root.toDto();
+            Deque<CategoryTreeDTO> pending = new ArrayDeque<>();
+            Deque<Integer> levels = new ArrayDeque<>();
+            pending.push(tree);
+            levels.push(0);
+            while (!pending.isEmpty()) {
+                CategoryTreeDTO dto = pending.pop();
+                int level = levels.pop();
+                // The sub-categories of a category in a cycle are left out, it would never end
+                if (level >= depth || !positions.containsKey(dto.getId())) {
+                    continue;
+                }
+                List<CategoryTreeDTO> subCategories = new ArrayList<>();
+                for (Node child : children.getOrDefault(dto.getId(), Collections.emptyList())) {
+                    CategoryTreeDTO subCategory = child.toDto();
+                    subCategories.add(subCategory);
+                    pending.push(subCategory);
+                    levels.push(level + 1);
+                }
+                dto.setChildren(subCategories);
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * A category in the tree, also sent to the other nodes when it changes.
+     */
+    static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+
+        private final Long parentId;
+
+        private final String description;
+
+        private final Integer sortOrder;
+
+        private final CategoryStatus status;
+
+        Node(Long id, Long parentId, String description, Integer sortOrder, CategoryStatus status) {
+            this.id = id;
+            this.parentId = parentId;
+            this.description = description;
+            this.sortOrder = sortOrder;
+            this.status = status;
+        }
+
+        private CategoryTreeDTO toDto() {
+            CategoryTreeDTO dto = new CategoryTreeDTO();
+            dto.setId(id);
+            dto.setParentId(parentId);
+            dto.setDescription(description);
+            dto.setSortOrder(sortOrder);
+            dto.setStatus(status);
+            return dto;
+        }
+    }
+
+    /**
+     * Announcement of the change of a category, or of its deletion when the node is {@code null}.
+     */
+    static final class Change implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+
+        private final Node node;
+
+        Change(Long id, Node node) {
+            this.id = id;
+            this.node = node;
+        }
+    }
+}
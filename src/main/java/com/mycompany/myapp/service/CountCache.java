@@ -0,0 +1,196 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+
+import io.github.jhipster.service.Criteria;
+import io.github.jhipster.service.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the number of entities matching a criteria, used for the approximate totals of paginated listings and for
+ * the facet counts.
+ * <p>
+ * Entries are keyed by a normalized copy of the criteria, so all the requests using the same filters share one count,
+ * whatever the order or the repetitions of their {@code in} and {@code notIn} values. A missing count is computed once:
+ * the concurrent requests for the same criteria wait for it instead of running the same query. Once an entry is older than {@code application.count-cache.refresh-after-seconds} it is still served,
+ * while a fresh count is computed in the background; the least recently used entries are evicted
+ * above {@code application.count-cache.max-entries}.
+ */
+@Component
+public class CountCache {
+
+    private final Logger log = LoggerFactory.getLogger(CountCache.class);
+
+    private final Executor executor;
+
+    private final long refreshAfterMillis;
+
+    private final Map<Object, Entry> entries;
+
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CountCache(ApplicationProperties applicationProperties, @Qualifier("taskExecutor") Executor executor) {
+        this.executor = executor;
+        this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(applicationProperties.getCountCache().getRefreshAfterSeconds());
+        int maxEntries = applicationProperties.getCountCache().getMaxEntries();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Get the number of entities matching the criteria.
+     *
+     * @param criteria the criteria the entities should match.
+     * @param counter the function counting the matching entities in the database.
+     * @return the cached count, which is computed by {@code counter} if the criteria was not cached yet.
+     */
+    public long count(Criteria criteria, LongSupplier counter) {
+        return get(normalize(criteria), counter::getAsLong);
+    }
+
+    /**
+     * Get several counts of the entities matching the criteria, such as their facet counts.
+     *
+     * @param criteria the criteria the entities should match.
+     * @param qualifier what is counted, cached separately for the same criteria.
+     * @param counter the function counting the matching entities in the database, whose result must not be changed.
+     * @param <T> the type of the counts.
+     * @return the cached counts, which are computed by {@code counter} if the criteria was not cached yet.
+     */
+    public <T> T counts(Criteria criteria, Object qualifier, Supplier<T> counter) {
+        return get(Arrays.asList(normalize(criteria), qualifier), counter);
+    }
+
+    /**
+     * Copy a criteria with the values of its {@code in} and {@code notIn} conditions sorted and without duplicates,
+     * and without its empty filters, so that the criteria written differently but matching the same entities are equal.
+     *
+     * @param criteria the criteria.
+     * @param <C> the type of the criteria.
+     * @return the normalized copy of the criteria.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends Criteria> C normalize(C criteria) {
+        C normalized = (C) criteria.copy();
+        ReflectionUtils.doWithFields(normalized.getClass(), field -> {
+            ReflectionUtils.makeAccessible(field);
+            Filter<Object> filter = (Filter<Object>) field.get(normalized);
+            if (filter == null) {
+                return;
+            }
+            if (filter.getIn() != null) {
+                filter.setIn(sortedValues(filter.getIn()));
+            }
+            if (filter.getNotIn() != null) {
+                filter.setNotIn(sortedValues(filter.getNotIn()));
+            }
+            if (filter.equals(BeanUtils.instantiateClass(filter.getClass()))) {
+                field.set(normalized, null);
+            }
+        }, field -> Filter.class.isAssignableFrom(field.getType()));
+        return normalized;
+    }
+
+    /**
+     * The values of the filters are comparable, except those of custom filter types, which are only deduplicated.
+     */
+    private static List<Object> sortedValues(Collection<Object> values) {
+        boolean comparable = values.stream().allMatch(value -> value instanceof Comparable);
+        return new ArrayList<>(comparable ? new TreeSet<>(values) : new LinkedHashSet<>(values));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Supplier<T> counter) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry computing = new Entry(new CompletableFuture<>());
+            entry = entries.putIfAbsent(key, computing);
+            if (entry == null) {
+                return compute(key, computing, counter);
+            }
+        }
+        if (entry.value.isDone() && entry.isOlderThan(refreshAfterMillis) && refreshing.add(key)) {
+            refresh(key, counter);
+        }
+        try {
+            return (T) entry.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Compute a missing count in the calling thread, completing the entry the concurrent requests wait for.
+     */
+    private <T> T compute(Object key, Entry computing, Supplier<T> counter) {
+        try {
+            T value = counter.get();
+            computing.value.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, computing);
+            computing.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void refresh(Object key, Supplier<?> counter) {
+        try {
+            executor.execute(() -> {
+                try {
+                    entries.put(key, new Entry(CompletableFuture.<Object>completedFuture(counter.get())));
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh the count of {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Count refresh of {} rejected, the cached value is kept", key);
+            refreshing.remove(key);
+        }
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<Object> value;
+
+        private final long computedAt = System.currentTimeMillis();
+
+        private Entry(CompletableFuture<Object> value) {
+            this.value = value;
+        }
+
+        private boolean isOlderThan(long millis) {
+            return System.currentTimeMillis() - computedAt >= millis;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.persistence.criteria.JoinType;
 
@@ -8,28 +9,40 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Customer;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.repository.CustomerRepository;
 import com.mycompany.myapp.service.dto.CustomerCriteria;
 import com.mycompany.myapp.service.dto.CustomerDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.CustomerMapper;
 
 /**
  * Service for executing complex queries for {@link Customer} entities in the database.
  * The main input is a {@link CustomerCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link CustomerDTO} or a {@link Page} of {@link CustomerDTO} which fulfills the criteria.
+ * It returns a {@link List}, a {@link Page}, a {@link Slice} or a {@link KeysetSlice} of {@link CustomerDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class CustomerQueryService extends QueryService<Customer> {
+public class CustomerQueryService extends SliceQueryService<Customer> {
+
+    /**
+     * Projection of a {@link Customer} onto its {@link CustomerDTO}, giving the same DTO as the {@link CustomerMapper}.
+     */
+    static final DtoProjection<Customer, CustomerDTO> PROJECTION = DtoProjection.<Customer, CustomerDTO>of(CustomerDTO::new)
+        .with(customer -> customer.get(Customer_.id), CustomerDTO::setId)
+        .with(customer -> customer.get(Customer_.firstName), CustomerDTO::setFirstName)
+        .with(customer -> customer.get(Customer_.lastName), CustomerDTO::setLastName)
+        .with(customer -> customer.get(Customer_.email), CustomerDTO::setEmail)
+        .with(customer -> customer.get(Customer_.telephone), CustomerDTO::setTelephone);
 
     private final Logger log = LoggerFactory.getLogger(CustomerQueryService.class);
 
@@ -37,9 +50,16 @@ public class CustomerQueryService extends QueryService<Customer> {
 
     private final CustomerMapper customerMapper;
 
-    public CustomerQueryService(CustomerRepository customerRepository, CustomerMapper customerMapper) {
+    private final CountCache countCache;
+
+    private final int exportFetchSize;
+
+    public CustomerQueryService(CustomerRepository customerRepository, CustomerMapper customerMapper, CountCache countCache,
+            ApplicationProperties applicationProperties) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
+        this.countCache = countCache;
+        this.exportFetchSize = applicationProperties.getExport().getFetchSize();
     }
 
     /**
@@ -56,6 +76,7 @@ public class CustomerQueryService extends QueryService<Customer> {
 
     /**
      * Return a {@link Page} of {@link CustomerDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -64,8 +85,66 @@ public class CustomerQueryService extends QueryService<Customer> {
     public Page<CustomerDTO> findByCriteria(CustomerCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Customer> specification = createSpecification(criteria);
-        return customerRepository.findAll(specification, page)
-            .map(customerMapper::toDto);
+        return findProjected(Customer.class, specification, page, PROJECTION, () -> customerRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of {@link CustomerDTO} which matches the criteria from the database,
+     * with an approximate total taken from the {@link CountCache}.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> findByCriteriaWithApproximateCount(CustomerCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Customer> specification = createSpecification(criteria);
+        return findPage(Customer.class, specification, page, PROJECTION,
+            () -> countCache.count(criteria, () -> customerRepository.count(specification)));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CustomerDTO} which matches the criteria from the database, without counting them.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CustomerDTO> findSliceByCriteria(CustomerCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Customer> specification = createSpecification(criteria);
+        return findSlice(Customer.class, specification, page, PROJECTION);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link CustomerDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or an empty value for the first slice.
+     * @param page The size and, for the first slice, the sort order of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<CustomerDTO> findByCriteria(CustomerCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Customer> specification = createSpecification(criteria);
+        return findAfter(Customer.class, specification, after, page, PROJECTION);
+    }
+
+    /**
+     * Pass every {@link CustomerDTO} which matches the criteria from the database to an action, in id order,
+     * without loading them all in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param action The action applied to every matching entity.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long exportByCriteria(CustomerCriteria criteria, Consumer<? super CustomerDTO> action) {
+        log.debug("export by criteria : {}", criteria);
+        final Specification<Customer> specification = createSpecification(criteria);
+        return forEach(Customer.class, specification, exportFetchSize, customer -> action.accept(customerMapper.toDto(customer)));
     }
 
     /**
@@ -104,12 +183,12 @@ public class CustomerQueryService extends QueryService<Customer> {
                 specification = specification.and(buildStringSpecification(criteria.getTelephone(), Customer_.telephone));
             }
             if (criteria.getWishListId() != null) {
-                specification = specification.and(buildSpecification(criteria.getWishListId(),
-                    root -> root.join(Customer_.wishLists, JoinType.LEFT).get(WishList_.id)));
+                specification = specification.and(semiJoin(buildSpecification(criteria.getWishListId(),
+                    root -> root.join(Customer_.wishLists, JoinType.LEFT).get(WishList_.id))));
             }
             if (criteria.getAddressId() != null) {
-                specification = specification.and(buildSpecification(criteria.getAddressId(),
-                    root -> root.join(Customer_.addresses, JoinType.LEFT).get(Address_.id)));
+                specification = specification.and(semiJoin(buildSpecification(criteria.getAddressId(),
+                    root -> root.join(Customer_.addresses, JoinType.LEFT).get(Address_.id))));
             }
         }
         return specification;
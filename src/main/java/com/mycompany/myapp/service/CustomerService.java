@@ -72,6 +72,17 @@ public class CustomerService {
             .map(customerMapper::toDto);
     }
 
+    /**
+     * Tell whether a customer exists, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return whether the entity exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(Long id) {
+        return customerRepository.existsById(id);
+    }
+
     /**
      * Delete the customer by id.
      *
@@ -0,0 +1,88 @@
+package com.mycompany.myapp.service;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Projection of an entity onto its DTO, read as a tuple query.
+ * <p>
+ * A projection lists, for every DTO property, the path of the entity holding its value, so the DTOs can be built
+ * straight from the selected columns: no entity is instantiated, tracked by the persistence context, or put in the
+ * second-level cache. Paths are resolved when the query is built, so the static metamodel can be used in them.
+ *
+ * @param <ENTITY> the type of the projected entity.
+ * @param <DTO> the type of the DTO.
+ */
+public final class DtoProjection<ENTITY, DTO> {
+
+    private final Supplier<DTO> factory;
+
+    private final List<Function<From<?, ENTITY>, Path<?>>> paths = new ArrayList<>();
+
+    private final List<BiConsumer<DTO, Object>> setters = new ArrayList<>();
+
+    private DtoProjection(Supplier<DTO> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Start a projection.
+     *
+     * @param factory the constructor of the DTO.
+     * @param <ENTITY> the type of the projected entity.
+     * @param <DTO> the type of the DTO.
+     * @return a projection without properties.
+     */
+    public static <ENTITY, DTO> DtoProjection<ENTITY, DTO> of(Supplier<DTO> factory) {
+        return new DtoProjection<>(factory);
+    }
+
+    /**
+     * Add a property to the projection.
+     *
+     * @param path the path of the value, from the projected entity.
+     * @param setter the setter of the DTO property.
+     * @param <V> the type of the value.
+     * @return this projection.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> DtoProjection<ENTITY, DTO> with(Function<From<?, ENTITY>, Path<V>> path, BiConsumer<DTO, V> setter) {
+        paths.add(path::apply);
+        setters.add((BiConsumer<DTO, Object>) setter);
+        return this;
+    }
+
+    /**
+     * @param from the projected entity in the query.
+     * @return the selections of the properties, in order.
+     */
+    public List<Selection<?>> select(From<?, ENTITY> from) {
+        List<Selection<?>> selections = new ArrayList<>(paths.size());
+        for (Function<From<?, ENTITY>, Path<?>> path : paths) {
+            selections.add(path.apply(from));
+        }
+        return selections;
+    }
+
+    /**
+     * Build a DTO from a tuple.
+     *
+     * @param tuple the row of the query.
+     * @param offset the index of the first selection of this projection in the tuple.
+     * @return the DTO.
+     */
+    public DTO map(Tuple tuple, int offset) {
+        DTO dto = factory.get();
+        for (int i = 0; i < setters.size(); i++) {
+            setters.get(i).accept(dto, tuple.get(offset + i));
+        }
+        return dto;
+    }
+}
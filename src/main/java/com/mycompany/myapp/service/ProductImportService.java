@@ -0,0 +1,311 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.service.dto.ProductDTO;
+import com.mycompany.myapp.service.dto.ProductImportReport;
+import com.mycompany.myapp.service.mapper.ProductMapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Service for importing {@link Product}s in bulk.
+ * <p>
+ * Rows are parsed from the input as a stream and grouped in chunks of {@code application.bulk-import.chunk-size}.
+ * Up to {@code application.bulk-import.validation-parallelism} chunks are validated ahead on the task executor,
+ * while the previous chunks are written in order, one transaction per chunk, with batched inserts. Only a few chunks
+ * are held in memory, whatever the size of the input.
+ */
+@Service
+public class ProductImportService {
+
+    private final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final ProductRepository productRepository;
+
+    private final ProductMapper productMapper;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ObjectReader jsonReader;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final Executor executor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.BulkImport properties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductImportService(ProductRepository productRepository, ProductMapper productMapper,
+            ProductSearchIndex productSearchIndex, ObjectMapper objectMapper, Validator validator,
+            @Qualifier("taskExecutor") Executor executor, PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productSearchIndex = productSearchIndex;
+        this.objectMapper = objectMapper;
+        this.jsonReader = objectMapper.readerFor(ProductDTO.class);
+        this.validator = validator;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getBulkImport();
+    }
+
+    /**
+     * Import products from CSV, with a header row naming the {@link ProductDTO} properties of every column.
+     *
+     * @param input the CSV content.
+     * @return the import report.
+     * @throws IOException if the input cannot be read.
+     */
+    public ProductImportReport importCsv(InputStream input) throws IOException {
+        log.debug("Request to import Products from CSV");
+        MappingIterator<Map<String, String>> records = new CsvMapper()
+            .readerFor(Map.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .readValues(input);
+        return importRows(new RowSource() {
+            @Override
+            Row read(long number) throws IOException {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                Map<String, String> record = records.nextValue();
+                // An empty cell is a missing value
+                record.replaceAll((column, value) -> value.isEmpty() ? null : value);
+                try {
+                    return Row.parsed(number, objectMapper.convertValue(record, ProductDTO.class));
+                } catch (IllegalArgumentException e) {
+                    return Row.rejected(number, describe(e.getCause()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Import products from newline-delimited JSON, one {@link ProductDTO} per line.
+     *
+     * @param input the NDJSON content, in UTF-8.
+     * @return the import report.
+     * @throws IOException if the input cannot be read.
+     */
+    public ProductImportReport importNdjson(InputStream input) throws IOException {
+        log.debug("Request to import Products from NDJSON");
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return importRows(new RowSource() {
+            @Override
+            Row read(long number) throws IOException {
+                String line = lines.readLine();
+                while (line != null && line.trim().isEmpty()) {
+                    line = lines.readLine();
+                }
+                if (line == null) {
+                    return null;
+                }
+                try {
+                    return Row.parsed(number, jsonReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    return Row.rejected(number, describe(e));
+                }
+            }
+        });
+    }
+
+    private ProductImportReport importRows(RowSource source) throws IOException {
+        ProductImportReport report = new ProductImportReport(properties.getMaxReportedErrors());
+        Deque<CompletableFuture<List<Row>>> validating = new ArrayDeque<>();
+        List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+        String unreadable = null;
+        try {
+            for (Row row = source.read(1); row != null; row = source.read(row.number + 1)) {
+                chunk.add(row);
+                if (chunk.size() == properties.getChunkSize()) {
+                    validating.add(validate(chunk));
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                    if (validating.size() > properties.getValidationParallelism()) {
+                        write(validating.remove().join(), report);
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The input is malformed past this point: the rows read so far are still imported
+            unreadable = describe(e);
+        }
+        if (!chunk.isEmpty()) {
+            validating.add(validate(chunk));
+        }
+        while (!validating.isEmpty()) {
+            write(validating.remove().join(), report);
+        }
+        if (unreadable != null) {
+            report.addError(report.getRows() + 1, "Unreadable input, import stopped: " + unreadable);
+        }
+        log.debug("Imported Products: {}", report);
+        return report;
+    }
+
+    private CompletableFuture<List<Row>> validate(List<Row> chunk) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                chunk.forEach(this::validate);
+                return chunk;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            chunk.forEach(this::validate);
+            return CompletableFuture.completedFuture(chunk);
+        }
+    }
+
+    private void validate(Row row) {
+        if (row.error != null) {
+            return;
+        }
+        if (row.product.getId() != null) {
+            row.error = "A new product cannot already have an ID";
+            return;
+        }
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(row.product);
+        if (!violations.isEmpty()) {
+            row.error = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+    }
+
+    private void write(List<Row> chunk, ProductImportReport report) {
+        report.addRows(chunk.size());
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.error == null) {
+                valid.add(row);
+            } else {
+                report.addError(row.number, row.error);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> save(valid));
+            report.addImported(valid.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not import a chunk of {} Products, retrying them one by one: {}", valid.size(), e.getMessage());
+            for (Row row : valid) {
+                try {
+                    transactionTemplate.execute(status -> save(Collections.singletonList(row)));
+                    report.addImported(1);
+                } catch (RuntimeException rowException) {
+                    report.addError(row.number, mostSpecificMessage(rowException));
+                }
+            }
+        }
+    }
+
+    private List<Product> save(List<Row> rows) {
+        List<Product> products = rows.stream()
+            .map(row -> productMapper.toEntity(row.product))
+            .collect(Collectors.toList());
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+        TransactionCallbacks.afterCommit(() -> productSearchIndex.index(products));
+        return products;
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof JsonMappingException && !((JsonMappingException) e).getPath().isEmpty()) {
+            return "Invalid value for " + ((JsonMappingException) e).getPath().stream()
+                .map(reference -> reference.getFieldName() != null ? reference.getFieldName() : String.valueOf(reference.getIndex()))
+                .collect(Collectors.joining("."));
+        }
+        if (e instanceof JsonProcessingException) {
+            return ((JsonProcessingException) e).getOriginalMessage();
+        }
+        return e == null ? "Invalid row" : e.getMessage();
+    }
+
+    private static String mostSpecificMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * A source of parsed rows.
+     */
+    private abstract static class RowSource {
+
+        /**
+         * @param number the number of the next row.
+         * @return the next row, or {@code null} at the end of the input.
+         * @throws JsonProcessingException if the input cannot be parsed further.
+         */
+        abstract Row read(long number) throws IOException;
+    }
+
+    private static final class Row {
+
+        private final long number;
+
+        private final ProductDTO product;
+
+        private String error;
+
+        private Row(long number, ProductDTO product, String error) {
+            this.number = number;
+            this.product = product;
+            this.error = error;
+        }
+
+        private static Row parsed(long number, ProductDTO product) {
+            return new Row(number, product, null);
+        }
+
+        private static Row rejected(long number, String error) {
+            return new Row(number, null, error);
+        }
+    }
+}
@@ -1,35 +1,82 @@
 package com.mycompany.myapp.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.service.dto.CategoryExpression;
 import com.mycompany.myapp.service.dto.ProductCriteria;
 import com.mycompany.myapp.service.dto.ProductDTO;
+import com.mycompany.myapp.service.dto.ProductFacetsDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.ProductMapper;
 
+import io.github.jhipster.service.filter.LongFilter;
+
 /**
  * Service for executing complex queries for {@link Product} entities in the database.
  * The main input is a {@link ProductCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link ProductDTO} or a {@link Page} of {@link ProductDTO} which fulfills the criteria.
+ * It returns a {@link List}, a {@link Page}, a {@link Slice} or a {@link KeysetSlice} of {@link ProductDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class ProductQueryService extends QueryService<Product> {
+public class ProductQueryService extends SliceQueryService<Product> {
+
+    public static final String CATEGORY_ID_FACET = "categoryId";
+
+    public static final String RATING_FACET = "rating";
+
+    public static final String DATE_ADDED_FACET = "dateAdded";
+
+    static final Set<String> FACETS = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(CATEGORY_ID_FACET, RATING_FACET,
+        DATE_ADDED_FACET)));
+
+    /**
+     * Most product ids sent to the database for a category expression: larger selections are filtered by joining
+     * the categories instead, so that the ids narrow the query without making it.
+     */
+    static final int MAX_INDEXED_IDS = 1000;
+
+    /**
+     * Projection of a {@link Product} onto its {@link ProductDTO}, giving the same DTO as the {@link ProductMapper}.
+     */
+    static final DtoProjection<Product, ProductDTO> PROJECTION = DtoProjection.<Product, ProductDTO>of(ProductDTO::new)
+        .with(product -> product.get(Product_.id), ProductDTO::setId)
+        .with(product -> product.get(Product_.title), ProductDTO::setTitle)
+        .with(product -> product.get(Product_.keywords), ProductDTO::setKeywords)
+        .with(product -> product.get(Product_.description), ProductDTO::setDescription)
+        .with(product -> product.get(Product_.rating), ProductDTO::setRating)
+        .with(product -> product.get(Product_.dateAdded), ProductDTO::setDateAdded)
+        .with(product -> product.get(Product_.dateModified), ProductDTO::setDateModified)
+        .with(product -> product.get(Product_.wishList).get(WishList_.id), ProductDTO::setWishListId);
 
     private final Logger log = LoggerFactory.getLogger(ProductQueryService.class);
 
@@ -37,9 +84,22 @@ public class ProductQueryService extends QueryService<Product> {
 
     private final ProductMapper productMapper;
 
-    public ProductQueryService(ProductRepository productRepository, ProductMapper productMapper) {
+    private final CountCache countCache;
+
+    private final CategoryTree categoryTree;
+
+    private final CategoryProductIndex categoryProductIndex;
+
+    private final int exportFetchSize;
+
+    public ProductQueryService(ProductRepository productRepository, ProductMapper productMapper, CountCache countCache,
+            CategoryTree categoryTree, CategoryProductIndex categoryProductIndex, ApplicationProperties applicationProperties) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.countCache = countCache;
+        this.categoryTree = categoryTree;
+        this.categoryProductIndex = categoryProductIndex;
+        this.exportFetchSize = applicationProperties.getExport().getFetchSize();
     }
 
     /**
@@ -56,6 +116,7 @@ public class ProductQueryService extends QueryService<Product> {
 
     /**
      * Return a {@link Page} of {@link ProductDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -64,8 +125,81 @@ public class ProductQueryService extends QueryService<Product> {
     public Page<ProductDTO> findByCriteria(ProductCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Product> specification = createSpecification(criteria);
-        return productRepository.findAll(specification, page)
-            .map(productMapper::toDto);
+        return findProjected(Product.class, specification, page, PROJECTION, () -> productRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of the {@link ProductDTO} of a category, read through the {@code category_product} join
+     * table by category id. The DTOs are projected from the matching rows, without loading the entities.
+     * @param categoryId The id of the category.
+     * @param page The page, which should be returned.
+     * @return the products of the category.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findByCategory(Long categoryId, Pageable page) {
+        log.debug("find by category : {}, page: {}", categoryId, page);
+        final Specification<Product> specification = (root, query, builder) ->
+            builder.equal(root.join(Product_.categories).get(Category_.id), categoryId);
+        return findProjected(Product.class, specification, page, PROJECTION, () -> productRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of {@link ProductDTO} which matches the criteria from the database,
+     * with an approximate total taken from the {@link CountCache}.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findByCriteriaWithApproximateCount(ProductCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return findPage(Product.class, specification, page, PROJECTION,
+            () -> countCache.count(criteria, () -> productRepository.count(specification)));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link ProductDTO} which matches the criteria from the database, without counting them.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findSliceByCriteria(ProductCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return findSlice(Product.class, specification, page, PROJECTION);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link ProductDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or an empty value for the first slice.
+     * @param page The size and, for the first slice, the sort order of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<ProductDTO> findByCriteria(ProductCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return findAfter(Product.class, specification, after, page, PROJECTION);
+    }
+
+    /**
+     * Pass every {@link ProductDTO} which matches the criteria from the database to an action, in id order,
+     * without loading them all in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param action The action applied to every matching entity.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long exportByCriteria(ProductCriteria criteria, Consumer<? super ProductDTO> action) {
+        log.debug("export by criteria : {}", criteria);
+        final Specification<Product> specification = createSpecification(criteria);
+        return forEach(Product.class, specification, exportFetchSize, product -> action.accept(productMapper.toDto(product)));
     }
 
     /**
@@ -80,6 +214,77 @@ public class ProductQueryService extends QueryService<Product> {
         return productRepository.count(specification);
     }
 
+    /**
+     * Return the facet counts of the products which match the criteria, each facet being counted with a single grouped
+     * query. Counts are cached per normalized criteria in the {@link CountCache}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param facets The facets to count, among {@link #CATEGORY_ID_FACET}, {@link #RATING_FACET} and
+     * {@link #DATE_ADDED_FACET}, all of them when empty.
+     * @param ratingBucketSize The width of the rating buckets.
+     * @return the facet counts.
+     * @throws IllegalArgumentException if a facet is unknown or the bucket size is not positive.
+     */
+    @Transactional(readOnly = true)
+    public ProductFacetsDTO findFacets(ProductCriteria criteria, Set<String> facets, int ratingBucketSize) {
+        log.debug("find facets by criteria : {}, facets: {}, rating bucket size: {}", criteria, facets, ratingBucketSize);
+        Set<String> requested = facets == null || facets.isEmpty() ? FACETS : new TreeSet<>(facets);
+        if (!FACETS.containsAll(requested)) {
+            throw new IllegalArgumentException("Unknown facet in " + facets + ", the facets are " + FACETS);
+        }
+        if (ratingBucketSize < 1) {
+            throw new IllegalArgumentException("The rating bucket size must be positive");
+        }
+        final ProductCriteria normalized = normalize(criteria);
+        return countCache.counts(normalized, Arrays.asList(requested, ratingBucketSize),
+            () -> countFacets(normalized, requested, ratingBucketSize));
+    }
+
+    private ProductFacetsDTO countFacets(ProductCriteria criteria, Set<String> facets, int ratingBucketSize) {
+        final Specification<Product> specification = createSpecification(criteria);
+        ProductFacetsDTO result = new ProductFacetsDTO();
+        result.setTotal(productRepository.count(specification));
+        if (facets.contains(CATEGORY_ID_FACET)) {
+            result.setCategoryId(new TreeMap<>(countGroupedBy(Product.class, specification,
+                (root, builder) -> root.join(Product_.categories).get(Category_.id))));
+        }
+        if (facets.contains(RATING_FACET)) {
+            result.setRating(new TreeMap<>(countGroupedBy(Product.class, specification, (root, builder) -> {
+                Expression<Integer> rating = root.get(Product_.rating);
+                if (ratingBucketSize == 1) {
+                    return rating;
+                }
+                // The lowest rating of the bucket, rounded down: mod takes the sign of the rating on every database,
+                // so a negative rating which is not a bucket bound is moved down to the bound below it
+                Expression<Integer> remainder = builder.mod(rating, ratingBucketSize);
+                Expression<Integer> truncated = builder.diff(rating, remainder);
+                return builder.<Integer>selectCase()
+                    .when(builder.lessThan(remainder, 0), builder.diff(truncated, ratingBucketSize))
+                    .otherwise(truncated);
+            })));
+        }
+        if (facets.contains(DATE_ADDED_FACET)) {
+            Map<Integer, Long> months = countGroupedBy(Product.class, specification, (root, builder) -> {
+                Expression<LocalDate> dateAdded = root.get(Product_.dateAdded);
+                return builder.sum(builder.prod(builder.function("year", Integer.class, dateAdded), 100),
+                    builder.function("month", Integer.class, dateAdded));
+            });
+            SortedMap<String, Long> dateAdded = new TreeMap<>();
+            months.forEach((month, count) -> dateAdded.put(String.format("%04d-%02d", month / 100, month % 100), count));
+            result.setDateAdded(dateAdded);
+        }
+        return result;
+    }
+
+    /**
+     * Normalize a criteria as the {@link CountCache} does, so that the facets are counted on the criteria their counts
+     * are cached for.
+     * @param criteria The criteria, may be {@code null}.
+     * @return the normalized copy of the criteria.
+     */
+    static ProductCriteria normalize(ProductCriteria criteria) {
+        return CountCache.normalize(criteria != null ? criteria : new ProductCriteria());
+    }
+
     /**
      * Function to convert {@link ProductCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -114,10 +319,84 @@ public class ProductQueryService extends QueryService<Product> {
                     root -> root.join(Product_.wishList, JoinType.LEFT).get(WishList_.id)));
             }
             if (criteria.getCategoryId() != null) {
-                specification = specification.and(buildSpecification(criteria.getCategoryId(),
-                    root -> root.join(Product_.categories, JoinType.LEFT).get(Category_.id)));
+                LongFilter categoryId = Boolean.TRUE.equals(criteria.getIncludeDescendants())
+                    ? withDescendants(criteria.getCategoryId()) : criteria.getCategoryId();
+                specification = specification.and(semiJoin(buildSpecification(categoryId,
+                    root -> root.join(Product_.categories, JoinType.LEFT).get(Category_.id))));
+            }
+            if (criteria.getCategoryExpression() != null) {
+                specification = specification.and(inCategories(criteria.getCategoryExpression(),
+                    Boolean.TRUE.equals(criteria.getIncludeDescendants())));
             }
         }
         return specification;
     }
+
+    /**
+     * Restrict the products to those matching a category expression, evaluated on the {@link CategoryProductIndex}
+     * so the database is given their ids instead of joining the categories, unless there are more than
+     * {@link #MAX_INDEXED_IDS} of them.
+     * @param expression the category expression.
+     * @param includeDescendants whether the categories also stand for their descendants.
+     * @return the matching {@link Specification}, {@code null} when all the products match.
+     */
+    private Specification<Product> inCategories(CategoryExpression expression, boolean includeDescendants) {
+        CategoryProductIndex.Selection selection = categoryProductIndex.select(expression, includeDescendants);
+        if (selection.getCount() > MAX_INDEXED_IDS) {
+            return joinCategories(expression, includeDescendants);
+        }
+        List<Long> ids = LongStream.of(selection.getProductIds()).boxed().collect(Collectors.toList());
+        if (selection.isComplement()) {
+            return ids.isEmpty() ? null : (root, query, builder) -> builder.not(root.get(Product_.id).in(ids));
+        }
+        if (ids.isEmpty()) {
+            return (root, query, builder) -> builder.disjunction();
+        }
+        return (root, query, builder) -> root.get(Product_.id).in(ids);
+    }
+
+    /**
+     * Restrict the products to those matching a category expression, with a semi-join on the categories per category
+     * of the expression, like the {@code categoryId} filter.
+     * @param expression the category expression.
+     * @param includeDescendants whether the categories also stand for their descendants.
+     * @return the matching {@link Specification}.
+     */
+    private Specification<Product> joinCategories(CategoryExpression expression, boolean includeDescendants) {
+        return expression.<Specification<Product>>evaluate(id -> {
+            LongFilter categoryId = new LongFilter();
+            categoryId.setEquals(id);
+            return semiJoin(buildSpecification(includeDescendants ? withDescendants(categoryId) : categoryId,
+                root -> root.join(Product_.categories, JoinType.LEFT).get(Category_.id)));
+        }, Specification::not, Specification::and, Specification::or);
+    }
+
+    /**
+     * Extend the {@code equals} and {@code in} conditions of a category filter to the descendants of the categories,
+     * taken from the {@link CategoryTree}.
+     * @param categoryId the category filter.
+     * @return the filter matching the categories or their descendants.
+     */
+    private LongFilter withDescendants(LongFilter categoryId) {
+        Set<Long> ids = null;
+        if (categoryId.getEquals() != null) {
+            ids = categoryTree.withDescendants(categoryId.getEquals());
+        }
+        if (categoryId.getIn() != null) {
+            Set<Long> in = new TreeSet<>();
+            categoryId.getIn().forEach(id -> in.addAll(categoryTree.withDescendants(id)));
+            if (ids == null) {
+                ids = in;
+            } else {
+                ids.retainAll(in);
+            }
+        }
+        if (ids == null) {
+            return categoryId;
+        }
+        LongFilter filter = categoryId.copy();
+        filter.setEquals(null);
+        filter.setIn(new ArrayList<>(ids));
+        return filter;
+    }
 }
@@ -0,0 +1,370 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the title, keywords and description of the {@link Product}s.
+ * <p>
+ * Every term points to the ids of the products containing it, with its (field-weighted) frequency, so a search only
+ * visits the products matching its rarest term instead of scanning the whole catalog. Only ids, ratings and term
+ * frequencies are held, the products themselves are read from the database.
+ * <p>
+ * The index is built when the application is ready and kept up to date by {@link ProductService} and
+ * {@link ProductImportService}. Changes are also published on a Hazelcast topic, so every node applies the changes
+ * made on the others.
+ */
+@Component
+public class ProductSearchIndex {
+
+    public static final String CHANGE_TOPIC = "sampleonlineshop.product-search-index";
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final int KEYWORDS_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private final ProductRepository productRepository;
+
+    private final ITopic<Change> changes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Changes applied while the index is being rebuilt, in order; guarded by the write lock, {@code null} when no
+     * rebuild is running.
+     */
+    private List<Change> rebuildChanges;
+
+    public ProductSearchIndex(ProductRepository productRepository, HazelcastInstance hazelcastInstance) {
+        this.productRepository = productRepository;
+        this.changes = hazelcastInstance.getTopic(CHANGE_TOPIC);
+        this.changes.addMessageListener(this::onChange);
+    }
+
+    /**
+     * Index all the products of the database, replacing the current content of the index.
+     * <p>
+     * The changes applied while the products are read are not locked out, they are kept and applied again once the
+     * products read are indexed, as the chunks read before a change miss it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.debug("Rebuilding the Product search index");
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                rebuildChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                Map<Long, Document> rebuilt = read();
+                lock.writeLock().lock();
+                try {
+                    postings.clear();
+                    documents.clear();
+                    rebuilt.forEach(this::add);
+                    rebuildChanges.forEach(this::replay);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Product search index built with {} products", rebuilt.size());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    rebuildChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private Map<Long, Document> read() {
+        Map<Long, Document> rebuilt = new HashMap<>();
+        // Read in id order after the last id of the previous chunk, so no chunk is counted or skipped over
+        Pageable chunk = PageRequest.of(0, REBUILD_CHUNK_SIZE);
+        List<ProductRepository.SearchableProduct> products = productRepository.findSearchableAfter(Long.MIN_VALUE, chunk);
+        while (!products.isEmpty()) {
+            products.forEach(product -> rebuilt.put(product.getId(), Document.of(product.getTitle(), product.getKeywords(),
+                product.getDescription(), product.getRating())));
+            Long last = products.get(products.size() - 1).getId();
+            products = products.size() < REBUILD_CHUNK_SIZE
+                ? Collections.emptyList() : productRepository.findSearchableAfter(last, chunk);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Add a product to the index, or replace its previous version, on this node and on the others.
+     *
+     * @param product the product to index.
+     */
+    public void index(Product product) {
+        index(Collections.singletonList(product));
+    }
+
+    /**
+     * Add products to the index, or replace their previous versions, on this node and on the others.
+     *
+     * @param products the products to index.
+     */
+    public void index(Collection<Product> products) {
+        List<Change.Indexed> indexed = products.stream()
+            .map(product -> new Change.Indexed(product.getId(), product.getTitle(), product.getKeywords(),
+                product.getDescription(), product.getRating()))
+            .collect(Collectors.toList());
+        publish(new Change(indexed, null));
+    }
+
+    /**
+     * Remove a product from the index, on this node and on the others.
+     *
+     * @param id the id of the product.
+     */
+    public void delete(Long id) {
+        publish(new Change(Collections.emptyList(), id));
+    }
+
+    private void publish(Change change) {
+        apply(change);
+        changes.publish(change);
+    }
+
+    private void onChange(Message<Change> message) {
+        // The publishing node already applied the change
+        if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+            return;
+        }
+        apply(message.getMessageObject());
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (rebuildChanges != null) {
+                rebuildChanges.add(change);
+            }
+            replay(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replay(Change change) {
+        if (change.deletedId != null) {
+            remove(change.deletedId);
+        }
+        for (Change.Indexed product : change.indexed) {
+            remove(product.id);
+            add(product.id, Document.of(product.title, product.keywords, product.description, product.rating));
+        }
+    }
+
+    /**
+     * Search the products containing all the terms of a query.
+     * <p>
+     * Results are ranked by score, the sum of the weighted frequencies of the query terms plus the rating of the
+     * product, then by id.
+     *
+     * @param query the free text query.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of the matching product ids, in ranking order.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> terms = tokenize(query).keySet();
+        if (terms.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> matches = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> matching = postings.get(term);
+                if (matching == null) {
+                    return new PageImpl<>(Collections.emptyList(), pageable, 0);
+                }
+                matches.add(matching);
+            }
+            matches.sort(Comparator.comparingInt(Map::size));
+            candidates:
+            for (Long id : matches.get(0).keySet()) {
+                // The rating may be negative, so the score can't tell whether all the terms matched
+                long score = documents.get(id).rating;
+                for (Map<Long, Integer> matching : matches) {
+                    Integer frequency = matching.get(id);
+                    if (frequency == null) {
+                        continue candidates;
+                    }
+                    score += frequency;
+                }
+                hits.add(new Hit(id, score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingLong((Hit hit) -> hit.score).reversed().thenComparing(hit -> hit.id));
+        List<Long> content = hits.stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(hit -> hit.id)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    private void add(Long id, Document document) {
+        documents.put(id, document);
+        document.frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.frequencies.keySet()) {
+            Map<Long, Integer> matching = postings.get(term);
+            matching.remove(id);
+            if (matching.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Split a text into lower case terms.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the frequency of every term of the text.
+     */
+    static Map<String, Integer> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    private static final class Document {
+
+        private final int rating;
+
+        private final Map<String, Integer> frequencies;
+
+        private Document(int rating, Map<String, Integer> frequencies) {
+            this.rating = rating;
+            this.frequencies = frequencies;
+        }
+
+        private static Document of(String title, String keywords, String description, Integer rating) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(title).forEach((term, frequency) -> frequencies.merge(term, frequency * TITLE_WEIGHT, Integer::sum));
+            tokenize(keywords).forEach((term, frequency) -> frequencies.merge(term, frequency * KEYWORDS_WEIGHT, Integer::sum));
+            tokenize(description).forEach((term, frequency) -> frequencies.merge(term, frequency * DESCRIPTION_WEIGHT, Integer::sum));
+            return new Document(rating == null ? 0 : rating, frequencies);
+        }
+    }
+
+    private static final class Hit {
+
+        private final Long id;
+
+        private final long score;
+
+        private Hit(Long id, long score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Announcement of a change of the index, sent to the other nodes: products to index, or a deleted product.
+     */
+    static final class Change implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Indexed> indexed;
+
+        private final Long deletedId;
+
+        Change(List<Indexed> indexed, Long deletedId) {
+            this.indexed = indexed;
+            this.deletedId = deletedId;
+        }
+
+        /**
+         * The searchable fields of an indexed product.
+         */
+        static final class Indexed implements Serializable {
+
+            private static final long serialVersionUID = 1L;
+
+            private final Long id;
+
+            private final String title;
+
+            private final String keywords;
+
+            private final String description;
+
+            private final Integer rating;
+
+            Indexed(Long id, String title, String keywords, String description, Integer rating) {
+                this.id = id;
+                this.title = title;
+                this.keywords = keywords;
+                this.description = description;
+                this.rating = rating;
+            }
+        }
+    }
+}
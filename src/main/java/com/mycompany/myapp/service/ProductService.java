@@ -8,11 +8,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link Product}.
@@ -27,9 +33,16 @@ public class ProductService {
 
     private final ProductMapper productMapper;
 
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
+    private final ProductSearchIndex productSearchIndex;
+
+    private final CategoryProductIndex categoryProductIndex;
+
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper, ProductSearchIndex productSearchIndex,
+            CategoryProductIndex categoryProductIndex) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.productSearchIndex = productSearchIndex;
+        this.categoryProductIndex = categoryProductIndex;
     }
 
     /**
@@ -42,6 +55,8 @@ public class ProductService {
         log.debug("Request to save Product : {}", productDTO);
         Product product = productMapper.toEntity(productDTO);
         product = productRepository.save(product);
+        Product saved = product;
+        TransactionCallbacks.afterCommit(() -> productSearchIndex.index(saved));
         return productMapper.toDto(product);
     }
 
@@ -59,6 +74,27 @@ public class ProductService {
     }
 
 
+    /**
+     * Search the products by title, keywords and description.
+     *
+     * @param query the free text query, all its terms must match.
+     * @param pageable the pagination information.
+     * @return the page of entities, ranked by relevance.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> search(String query, Pageable pageable) {
+        log.debug("Request to search Products for query {}", query);
+        Page<Long> ids = productSearchIndex.search(query, pageable);
+        Map<Long, Product> products = productRepository.findAllById(ids.getContent()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> content = ids.getContent().stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .map(productMapper::toDto)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
     /**
      * Get one product by id.
      *
@@ -81,5 +117,9 @@ public class ProductService {
         log.debug("Request to delete Product : {}", id);
 
         productRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> {
+            productSearchIndex.delete(id);
+            categoryProductIndex.deleteProduct(id);
+        });
     }
 }
@@ -0,0 +1,443 @@
+package com.mycompany.myapp.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import io.github.jhipster.service.QueryService;
+
+import com.mycompany.myapp.service.dto.KeysetCursor;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+
+/**
+ * Base service for executing complex queries which, besides the paginated queries of {@link QueryService},
+ * can read the matching entities as a {@link Slice}, without the {@code count} query of a {@link Page}.
+ * <p>
+ * Slices are read either by offset, or in keyset (seek) mode. In keyset mode the listing is ordered by a single
+ * sort property followed by the id, and every slice starts right after the {@link KeysetCursor} of the previous one,
+ * so reading a deep slice costs the same as reading the first one. As in MySQL and H2, {@code null} sort keys are
+ * expected to come first.
+ * <p>
+ * Pages and slices are read as DTOs projected from the columns of the entities, through a {@link DtoProjection}, and
+ * all the matching entities can also be streamed, one at a time, from a forward-only cursor.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+public abstract class SliceQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private static final String ID_PROPERTY = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Turn a specification filtering through a to-many join into an {@code id in (subquery)} semi-join.
+     * <p>
+     * The specification is evaluated in the subquery, which selects the ids of the matching entities; the main query
+     * then keeps each matching entity once, so it needs neither {@code distinct} nor {@code count(distinct)}.
+     * @param specification The specification, which may join collections of the entity.
+     * @return the equivalent specification, without joins in the main query.
+     */
+    protected Specification<ENTITY> semiJoin(Specification<ENTITY> specification) {
+        return (root, query, cb) -> {
+            Subquery<Object> subquery = query.subquery(Object.class);
+            @SuppressWarnings("unchecked")
+            Root<ENTITY> matching = (Root<ENTITY>) subquery.from(root.getJavaType());
+            subquery.select(matching.get(ID_PROPERTY));
+            Predicate filter = specification.toPredicate(matching, query, cb);
+            if (filter != null) {
+                subquery.where(filter);
+            }
+            return root.get(ID_PROPERTY).in(subquery);
+        };
+    }
+
+    /**
+     * Return a {@link Slice} of DTOs projected from the entities which match the specification, read with a tuple
+     * query so that no entity is loaded.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match.
+     * @param page The page, which should be returned.
+     * @param projection The projection of the entity onto its DTO.
+     * @param <DTO> The type of the DTO.
+     * @return the matching DTOs.
+     */
+    protected <DTO> Slice<DTO> findSlice(Class<ENTITY> domainClass, Specification<ENTITY> specification, Pageable page,
+            DtoProjection<ENTITY, DTO> projection) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.multiselect(projection.select(root)).orderBy(QueryUtils.toOrders(page.getSort(), root, cb));
+
+        List<DTO> rows = entityManager.createQuery(query)
+            .setFirstResult((int) page.getOffset())
+            .setMaxResults(page.getPageSize() + 1)
+            .getResultList().stream()
+            .map(tuple -> projection.map(tuple, 0))
+            .collect(Collectors.toList());
+        boolean hasNext = rows.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? new ArrayList<>(rows.subList(0, page.getPageSize())) : rows, page, hasNext);
+    }
+
+    /**
+     * Return a {@link Page} of DTOs projected from the entities which match the specification, read with a tuple query
+     * so that no entity is loaded.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match.
+     * @param page The page, which should be returned.
+     * @param projection The projection of the entity onto its DTO.
+     * @param counter The function counting all the matching entities, only called if the page does not tell the total.
+     * @param <DTO> The type of the DTO.
+     * @return the matching DTOs.
+     */
+    protected <DTO> Page<DTO> findProjected(Class<ENTITY> domainClass, Specification<ENTITY> specification, Pageable page,
+            DtoProjection<ENTITY, DTO> projection, LongSupplier counter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.multiselect(projection.select(root)).orderBy(QueryUtils.toOrders(page.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        List<DTO> content = typedQuery.getResultList().stream()
+            .map(tuple -> projection.map(tuple, 0))
+            .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, page, counter);
+    }
+
+    /**
+     * Return the DTOs projected from a collection of some entities, read with a single tuple query.
+     * @param domainClass The class of the entities owning the collection.
+     * @param ids The ids of the owning entities.
+     * @param join The join of the collection, from the owning entity.
+     * @param projection The projection of the elements of the collection onto their DTO.
+     * @param <T> The type of the elements of the collection.
+     * @param <DTO> The type of the DTO.
+     * @return the DTOs of the elements, by id of their owning entity; entities with an empty collection are absent.
+     */
+    protected <T, DTO> Map<Long, List<DTO>> findProjectedCollection(Class<ENTITY> domainClass, Collection<Long> ids,
+            Function<Root<ENTITY>, Join<ENTITY, T>> join, DtoProjection<T, DTO> projection) {
+        Map<Long, List<DTO>> collections = new HashMap<>();
+        if (ids.isEmpty()) {
+            return collections;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        Join<ENTITY, T> elements = join.apply(root);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(ID_PROPERTY));
+        selections.addAll(projection.select(elements));
+        query.multiselect(selections).where(root.get(ID_PROPERTY).in(ids));
+
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            collections.computeIfAbsent(tuple.get(0, Long.class), id -> new ArrayList<>()).add(projection.map(tuple, 1));
+        }
+        return collections;
+    }
+
+    /**
+     * Count the entities which match the specification by value of an expression, with a single grouped query.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match, which must not join collections.
+     * @param group The expression the entities are grouped by, an entity being counted once per value when it joins
+     * a collection.
+     * @param <T> The type of the values of the expression.
+     * @return the number of matching entities by value of the expression; the {@code null} value is left out.
+     */
+    protected <T> Map<T, Long> countGroupedBy(Class<ENTITY> domainClass, Specification<ENTITY> specification,
+            BiFunction<Root<ENTITY>, CriteriaBuilder, Expression<T>> group) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        Expression<T> value = group.apply(root, cb);
+        query.multiselect(value, cb.count(root)).groupBy(value);
+
+        Map<T, Long> counts = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            if (tuple.get(0) != null) {
+                counts.put(tuple.get(0, value.getJavaType()), tuple.get(1, Long.class));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Pass every entity which matches the specification to an action, in id order, reading them from a forward-only
+     * cursor instead of a list. The persistence context is cleared after every {@code fetchSize} entities, so the memory
+     * used does not depend on the number of matching entities; the action must not keep references to them.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match.
+     * @param fetchSize The number of rows fetched from the database at once.
+     * @param action The action applied to every matching entity.
+     * @return the number of matching entities.
+     */
+    protected long forEach(Class<ENTITY> domainClass, Specification<ENTITY> specification, int fetchSize, Consumer<? super ENTITY> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = cb.createQuery(domainClass);
+        Root<ENTITY> root = query.from(domainClass);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.select(root).orderBy(cb.asc(root.get(ID_PROPERTY)));
+
+        long count = 0;
+        try (ScrollableResults rows = entityManager.createQuery(query)
+            .unwrap(Query.class)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.GET)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                @SuppressWarnings("unchecked")
+                ENTITY entity = (ENTITY) rows.get(0);
+                action.accept(entity);
+                if (++count % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return a {@link Page} of DTOs projected from the entities which match the specification, whose total is taken
+     * from {@code counter} unless it can be deduced from the page itself.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match.
+     * @param page The page, which should be returned.
+     * @param projection The projection of the entity onto its DTO.
+     * @param counter The source of the total number of matching entities, typically a {@link CountCache}.
+     * @param <DTO> The type of the DTO.
+     * @return the matching DTOs.
+     */
+    protected <DTO> Page<DTO> findPage(Class<ENTITY> domainClass, Specification<ENTITY> specification, Pageable page,
+            DtoProjection<ENTITY, DTO> projection, LongSupplier counter) {
+        Slice<DTO> slice = findSlice(domainClass, specification, page, projection);
+        long seen = page.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || page.getOffset() == 0)) {
+            return new PageImpl<>(slice.getContent(), page, seen);
+        }
+        long total = Math.max(counter.getAsLong(), slice.hasNext() ? seen + 1 : seen);
+        return new PageImpl<>(slice.getContent(), page, total);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of DTOs projected from the entities which match the specification, read with a
+     * tuple query which also selects the sort key and the id the next cursor is made of.
+     * @param domainClass The class of the queried entity.
+     * @param specification The specification the entities should match.
+     * @param after The opaque cursor returned with the previous slice, or an empty value for the first slice.
+     * @param page The size of the slice, and for the first slice its sort order.
+     * @param projection The projection of the entity onto its DTO.
+     * @param <DTO> The type of the DTO.
+     * @return the matching DTOs.
+     * @throws IllegalArgumentException if the cursor is malformed or the listing can't be sorted as requested.
+     */
+    protected <DTO> KeysetSlice<DTO> findAfter(Class<ENTITY> domainClass, Specification<ENTITY> specification, String after,
+            Pageable page, DtoProjection<ENTITY, DTO> projection) {
+        KeysetCursor cursor = StringUtils.isEmpty(after) ? null : KeysetCursor.decode(after);
+        Sort.Order order = cursor != null ? new Sort.Order(cursor.getDirection(), cursor.getProperty()) : sortOrder(page.getSort());
+        int size = page.getPageSize();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        SingularAttribute<? super ENTITY, ?> attribute = sortAttribute(root, order.getProperty());
+        Path<Long> id = root.get(ID_PROPERTY);
+        Path<?> key = root.get(attribute.getName());
+        boolean byId = ID_PROPERTY.equals(attribute.getName());
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (cursor != null) {
+            predicates.add(seekPredicate(cb, byId ? null : key, id, order.getDirection(), toValue(cursor.getValue(), attribute), cursor.getId()));
+        }
+        List<Selection<?>> selections = new ArrayList<>(projection.select(root));
+        int keyIndex = selections.size();
+        selections.add(key);
+        selections.add(id);
+        query.multiselect(selections).where(predicates.toArray(new Predicate[0]));
+        if (byId) {
+            query.orderBy(order.isAscending() ? cb.asc(id) : cb.desc(id));
+        } else if (order.isAscending()) {
+            query.orderBy(cb.asc(key), cb.asc(id));
+        } else {
+            query.orderBy(cb.desc(key), cb.desc(id));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        KeysetCursor nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Tuple last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(attribute.getName(), order.getDirection(), toString(last.get(keyIndex)),
+                last.get(keyIndex + 1, Long.class));
+        }
+        List<DTO> content = rows.stream().map(tuple -> projection.map(tuple, 0)).collect(Collectors.toList());
+        return new KeysetSlice<>(content, size, nextCursor);
+    }
+
+    /**
+     * Keyset mode orders by one property and then by id: a trailing {@code id} order is accepted
+     * (and ignored), any other additional order is rejected.
+     */
+    private Sort.Order sortOrder(Sort sort) {
+        Sort.Order primary = null;
+        for (Sort.Order order : sort) {
+            if (primary == null) {
+                primary = order;
+            } else if (!ID_PROPERTY.equals(order.getProperty())) {
+                throw new IllegalArgumentException("Keyset pagination supports a single sort property");
+            }
+        }
+        return primary != null ? primary : Sort.Order.asc(ID_PROPERTY);
+    }
+
+    private SingularAttribute<? super ENTITY, ?> sortAttribute(Root<ENTITY> root, String property) {
+        SingularAttribute<? super ENTITY, ?> attribute;
+        try {
+            attribute = root.getModel().getSingularAttribute(property);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort property: " + property, e);
+        }
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC || !isSupported(attribute.getJavaType())) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+        return attribute;
+    }
+
+    /**
+     * Build the predicate matching the rows after {@code (value, lastId)}; {@code key} is {@code null}
+     * when the listing is sorted by id alone.
+     * <p>
+     * The casts are safe: {@link #sortAttribute} only accepts comparable types, and {@link #toValue} parses the
+     * cursor value to the type of the sort attribute, so the key and the value are of the same type {@code Y}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Y extends Comparable<? super Y>> Predicate seekPredicate(CriteriaBuilder cb, Expression<?> sortKey,
+            Expression<Long> id, Sort.Direction direction, Comparable<?> sortValue, Long lastId) {
+        Expression<Y> key = (Expression<Y>) sortKey;
+        Y value = (Y) sortValue;
+        boolean ascending = direction.isAscending();
+        Predicate afterId = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        if (key == null) {
+            return afterId;
+        }
+        if (value == null) {
+            return ascending ? cb.or(cb.and(cb.isNull(key), afterId), cb.isNotNull(key)) : cb.and(cb.isNull(key), afterId);
+        }
+        Predicate afterKey = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate sameKey = cb.and(cb.equal(key, value), afterId);
+        return ascending ? cb.or(afterKey, sameKey) : cb.or(afterKey, sameKey, cb.isNull(key));
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        return String.class.equals(type) || Long.class.equals(type) || Integer.class.equals(type) ||
+            Boolean.class.equals(type) || BigDecimal.class.equals(type) || LocalDate.class.equals(type) ||
+            Instant.class.equals(type) || ZonedDateTime.class.equals(type) || type.isEnum();
+    }
+
+    private static Comparable<?> toValue(String value, SingularAttribute<?, ?> attribute) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = attribute.getJavaType();
+        try {
+            if (String.class.equals(type)) {
+                return value;
+            } else if (Long.class.equals(type)) {
+                return Long.valueOf(value);
+            } else if (Integer.class.equals(type)) {
+                return Integer.valueOf(value);
+            } else if (Boolean.class.equals(type)) {
+                return Boolean.valueOf(value);
+            } else if (BigDecimal.class.equals(type)) {
+                return new BigDecimal(value);
+            } else if (LocalDate.class.equals(type)) {
+                return LocalDate.parse(value);
+            } else if (Instant.class.equals(type)) {
+                return Instant.parse(value);
+            } else if (ZonedDateTime.class.equals(type)) {
+                return ZonedDateTime.parse(value);
+            } else if (type.isEnum()) {
+                for (Object constant : type.getEnumConstants()) {
+                    if (((Enum<?>) constant).name().equals(value)) {
+                        return (Enum<?>) constant;
+                    }
+                }
+                throw new IllegalArgumentException("No " + type.getSimpleName() + " constant " + value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        throw new IllegalArgumentException("Unsupported sort property: " + attribute.getName());
+    }
+
+    private static String toString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+    }
+}
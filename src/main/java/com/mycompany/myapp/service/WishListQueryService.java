@@ -8,28 +8,38 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import io.github.jhipster.service.QueryService;
-
 import com.mycompany.myapp.domain.WishList;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.repository.WishListRepository;
 import com.mycompany.myapp.service.dto.WishListCriteria;
 import com.mycompany.myapp.service.dto.WishListDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.WishListMapper;
 
 /**
  * Service for executing complex queries for {@link WishList} entities in the database.
  * The main input is a {@link WishListCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link WishListDTO} or a {@link Page} of {@link WishListDTO} which fulfills the criteria.
+ * It returns a {@link List}, a {@link Page}, a {@link Slice} or a {@link KeysetSlice} of {@link WishListDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class WishListQueryService extends QueryService<WishList> {
+public class WishListQueryService extends SliceQueryService<WishList> {
+
+    /**
+     * Projection of a {@link WishList} onto its {@link WishListDTO}, giving the same DTO as the {@link WishListMapper}.
+     */
+    static final DtoProjection<WishList, WishListDTO> PROJECTION = DtoProjection.<WishList, WishListDTO>of(WishListDTO::new)
+        .with(wishList -> wishList.get(WishList_.id), WishListDTO::setId)
+        .with(wishList -> wishList.get(WishList_.title), WishListDTO::setTitle)
+        .with(wishList -> wishList.get(WishList_.restricted), WishListDTO::setRestricted)
+        .with(wishList -> wishList.get(WishList_.customer).get(Customer_.id), WishListDTO::setCustomerId);
 
     private final Logger log = LoggerFactory.getLogger(WishListQueryService.class);
 
@@ -37,9 +47,12 @@ public class WishListQueryService extends QueryService<WishList> {
 
     private final WishListMapper wishListMapper;
 
-    public WishListQueryService(WishListRepository wishListRepository, WishListMapper wishListMapper) {
+    private final CountCache countCache;
+
+    public WishListQueryService(WishListRepository wishListRepository, WishListMapper wishListMapper, CountCache countCache) {
         this.wishListRepository = wishListRepository;
         this.wishListMapper = wishListMapper;
+        this.countCache = countCache;
     }
 
     /**
@@ -56,6 +69,7 @@ public class WishListQueryService extends QueryService<WishList> {
 
     /**
      * Return a {@link Page} of {@link WishListDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -64,8 +78,67 @@ public class WishListQueryService extends QueryService<WishList> {
     public Page<WishListDTO> findByCriteria(WishListCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<WishList> specification = createSpecification(criteria);
-        return wishListRepository.findAll(specification, page)
-            .map(wishListMapper::toDto);
+        return findProjected(WishList.class, specification, page, PROJECTION, () -> wishListRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of the {@link WishListDTO} of a customer, filtered on the customer foreign key, without joining
+     * the customer. The DTOs are projected from the matching rows, without loading the entities.
+     * @param customerId The id of the customer.
+     * @param page The page, which should be returned.
+     * @return the wish lists of the customer.
+     */
+    @Transactional(readOnly = true)
+    public Page<WishListDTO> findByCustomer(Long customerId, Pageable page) {
+        log.debug("find by customer : {}, page: {}", customerId, page);
+        final Specification<WishList> specification = (root, query, builder) ->
+            builder.equal(root.get(WishList_.customer).get(Customer_.id), customerId);
+        return findProjected(WishList.class, specification, page, PROJECTION, () -> wishListRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Page} of {@link WishListDTO} which matches the criteria from the database,
+     * with an approximate total taken from the {@link CountCache}.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<WishListDTO> findByCriteriaWithApproximateCount(WishListCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<WishList> specification = createSpecification(criteria);
+        return findPage(WishList.class, specification, page, PROJECTION,
+            () -> countCache.count(criteria, () -> wishListRepository.count(specification)));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link WishListDTO} which matches the criteria from the database, without counting them.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<WishListDTO> findSliceByCriteria(WishListCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<WishList> specification = createSpecification(criteria);
+        return findSlice(WishList.class, specification, page, PROJECTION);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link WishListDTO} which matches the criteria from the database.
+     * The DTOs are projected from the matching rows, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, or an empty value for the first slice.
+     * @param page The size and, for the first slice, the sort order of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<WishListDTO> findByCriteria(WishListCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<WishList> specification = createSpecification(criteria);
+        return findAfter(WishList.class, specification, after, page, PROJECTION);
     }
 
     /**
@@ -98,8 +171,8 @@ public class WishListQueryService extends QueryService<WishList> {
                 specification = specification.and(buildSpecification(criteria.getRestricted(), WishList_.restricted));
             }
             if (criteria.getProductId() != null) {
-                specification = specification.and(buildSpecification(criteria.getProductId(),
-                    root -> root.join(WishList_.products, JoinType.LEFT).get(Product_.id)));
+                specification = specification.and(semiJoin(buildSpecification(criteria.getProductId(),
+                    root -> root.join(WishList_.products, JoinType.LEFT).get(Product_.id))));
             }
             if (criteria.getCustomerId() != null) {
                 specification = specification.and(buildSpecification(criteria.getCustomerId(),
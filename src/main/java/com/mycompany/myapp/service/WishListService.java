@@ -1,6 +1,8 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.domain.WishList;
+import com.mycompany.myapp.repository.ProductMembershipRepository;
 import com.mycompany.myapp.repository.WishListRepository;
 import com.mycompany.myapp.service.dto.WishListDTO;
 import com.mycompany.myapp.service.mapper.WishListMapper;
@@ -12,7 +14,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Service Implementation for managing {@link WishList}.
@@ -27,9 +35,16 @@ public class WishListService {
 
     private final WishListMapper wishListMapper;
 
-    public WishListService(WishListRepository wishListRepository, WishListMapper wishListMapper) {
+    private final ProductMembershipRepository productMembershipRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public WishListService(WishListRepository wishListRepository, WishListMapper wishListMapper,
+            ProductMembershipRepository productMembershipRepository, EntityManagerFactory entityManagerFactory) {
         this.wishListRepository = wishListRepository;
         this.wishListMapper = wishListMapper;
+        this.productMembershipRepository = productMembershipRepository;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     /**
@@ -82,4 +97,71 @@ public class WishListService {
 
         wishListRepository.deleteById(id);
     }
+
+    /**
+     * Move products to a wish list, with a single statement which does not load the products of the wish list.
+     * <p>
+     * Only the cached products, and the cached product collections of this wish list and of the ones the products
+     * were in, are evicted from the second-level cache, before the statement and once committed, as Hibernate does for
+     * its bulk operations: a transaction loading them in between could otherwise cache their previous state.
+     *
+     * @param id the id of the wish list.
+     * @param productIds the ids of the products, a product being in at most one wish list.
+     * @return the number of products moved, empty if the wish list does not exist.
+     * @throws IllegalArgumentException if a product does not exist.
+     */
+    public Optional<Integer> addProducts(Long id, Collection<Long> productIds) {
+        log.debug("Request to add Products {} to WishList : {}", productIds, id);
+        if (!wishListRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        checkProductIds(productIds);
+        Set<Long> unknown = new TreeSet<>(productIds);
+        unknown.removeAll(productMembershipRepository.findExistingProductIds(productIds));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown products " + unknown);
+        }
+        Set<Long> wishListIds = productMembershipRepository.findWishListIds(productIds);
+        wishListIds.add(id);
+        evictMemberships(wishListIds, productIds);
+        int added = productMembershipRepository.addToWishList(id, productIds);
+        TransactionCallbacks.afterCommit(() -> evictMemberships(wishListIds, productIds));
+        return Optional.of(added);
+    }
+
+    /**
+     * Remove products from a wish list, with a single statement which does not load the products of the wish list.
+     *
+     * @param id the id of the wish list.
+     * @param productIds the ids of the products, those which are not in the wish list being ignored.
+     * @return the number of products removed, empty if the wish list does not exist.
+     */
+    public Optional<Integer> removeProducts(Long id, Collection<Long> productIds) {
+        log.debug("Request to remove Products {} from WishList : {}", productIds, id);
+        if (!wishListRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        checkProductIds(productIds);
+        evictMemberships(Collections.singleton(id), productIds);
+        int removed = productMembershipRepository.removeFromWishList(id, productIds);
+        TransactionCallbacks.afterCommit(() -> evictMemberships(Collections.singleton(id), productIds));
+        return Optional.of(removed);
+    }
+
+    private static void checkProductIds(Collection<Long> productIds) {
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("A product id cannot be null");
+        }
+    }
+
+    private void evictMemberships(Collection<Long> wishListIds, Collection<Long> productIds) {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        for (Long wishListId : wishListIds) {
+            cache.evictCollectionData(WishList.class.getName() + ".products", wishListId);
+        }
+        // The wish list of a product is a column of the product
+        for (Long productId : productIds) {
+            cache.evictEntityData(Product.class, productId);
+        }
+    }
 }
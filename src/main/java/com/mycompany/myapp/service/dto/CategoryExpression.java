@@ -0,0 +1,296 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Boolean expression over category ids, used to filter the products by the categories they belong to.
+ * <p>
+ * An expression is made of category ids combined with {@code and} (or {@code &}), {@code or} (or {@code |}),
+ * {@code not} (or {@code !}) and parentheses, {@code not} binding tighter than {@code and}, which binds tighter than
+ * {@code or}: {@code 1 and (2 or 3) and not 4} matches the products of the category 1 which are also in the category 2
+ * or 3, but not in the category 4. Spaces are optional around the symbols.
+ * <p>
+ * Expressions are immutable, and equal when they are written the same once parsed, whatever their spacing and
+ * operator spelling.
+ */
+public final class CategoryExpression implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Longest expression which is parsed, well above the 3 to 5 categories of a faceted navigation page.
+     */
+    static final int MAX_LENGTH = 1000;
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Node root;
+
+    private CategoryExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Parse an expression, also used by Spring to bind the request parameters.
+     *
+     * @param expression the expression, such as {@code 1 and (2 or 3) and not 4}.
+     * @return the parsed expression.
+     * @throws IllegalArgumentException if the expression is malformed.
+     */
+    public static CategoryExpression of(String expression) {
+        if (expression == null || expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("The category expression must have at most " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(expression);
+        Node root = parser.or(0);
+        if (parser.peek() != null) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek() + "' in the category expression");
+        }
+        return new CategoryExpression(root);
+    }
+
+    /**
+     * @return the ids of all the categories of the expression, sorted.
+     */
+    public Set<Long> getCategoryIds() {
+        Set<Long> ids = new TreeSet<>();
+        root.collect(ids);
+        return ids;
+    }
+
+    /**
+     * Evaluate the expression.
+     *
+     * @param category the value of a category id.
+     * @param not the negation of a value.
+     * @param and the conjunction of two values.
+     * @param or the disjunction of two values.
+     * @param <T> the type of the values.
+     * @return the value of the expression.
+     */
+    public <T> T evaluate(LongFunction<T> category, UnaryOperator<T> not, BinaryOperator<T> and, BinaryOperator<T> or) {
+        return root.evaluate(category, not, and, or);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private abstract static class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        abstract void collect(Set<Long> ids);
+
+        abstract <T> T evaluate(LongFunction<T> category, UnaryOperator<T> not, BinaryOperator<T> and, BinaryOperator<T> or);
+    }
+
+    private static final class Category extends Node {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long id;
+
+        private Category(long id) {
+            this.id = id;
+        }
+
+        @Override
+        void collect(Set<Long> ids) {
+            ids.add(id);
+        }
+
+        @Override
+        <T> T evaluate(LongFunction<T> category, UnaryOperator<T> not, BinaryOperator<T> and, BinaryOperator<T> or) {
+            return category.apply(id);
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(id);
+        }
+    }
+
+    private static final class Not extends Node {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node operand;
+
+        private Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void collect(Set<Long> ids) {
+            operand.collect(ids);
+        }
+
+        @Override
+        <T> T evaluate(LongFunction<T> category, UnaryOperator<T> not, BinaryOperator<T> and, BinaryOperator<T> or) {
+            return not.apply(operand.evaluate(category, not, and, or));
+        }
+
+        @Override
+        public String toString() {
+            return "not " + (operand instanceof Operation ? "(" + operand + ")" : operand);
+        }
+    }
+
+    private static final class Operation extends Node {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean and;
+
+        private final List<Node> operands;
+
+        private Operation(boolean and, List<Node> operands) {
+            this.and = and;
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        @Override
+        void collect(Set<Long> ids) {
+            operands.forEach(operand -> operand.collect(ids));
+        }
+
+        @Override
+        <T> T evaluate(LongFunction<T> category, UnaryOperator<T> not, BinaryOperator<T> and, BinaryOperator<T> or) {
+            T value = operands.get(0).evaluate(category, not, and, or);
+            for (int i = 1; i < operands.size(); i++) {
+                value = (this.and ? and : or).apply(value, operands.get(i).evaluate(category, not, and, or));
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            // Only an "or" inside an "and" needs parentheses
+            return operands.stream()
+                .map(operand -> and && operand instanceof Operation ? "(" + operand + ")" : operand.toString())
+                .collect(Collectors.joining(and ? " and " : " or "));
+        }
+    }
+
+    /**
+     * Recursive descent parser of the expressions, one method per precedence level.
+     */
+    private static final class Parser {
+
+        private final String expression;
+
+        private int position;
+
+        private Parser(String expression) {
+            this.expression = expression;
+        }
+
+        private Node or(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(and(depth));
+            while (accept("|", "or")) {
+                operands.add(and(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new Operation(false, operands);
+        }
+
+        private Node and(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(not(depth));
+            while (accept("&", "and")) {
+                operands.add(not(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new Operation(true, operands);
+        }
+
+        private Node not(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("The category expression is nested too deeply");
+            }
+            if (accept("!", "not")) {
+                Node operand = not(depth + 1);
+                // Double negations cancel out
+                return operand instanceof Not ? ((Not) operand).operand : new Not(operand);
+            }
+            if (accept("(", null)) {
+                Node operand = or(depth + 1);
+                if (!accept(")", null)) {
+                    throw new IllegalArgumentException("Missing ')' in the category expression");
+                }
+                return operand;
+            }
+            String token = peek();
+            if (token == null || !Character.isDigit(token.charAt(0))) {
+                throw new IllegalArgumentException(token == null ? "Incomplete category expression"
+                    : "Expected a category id instead of '" + token + "' in the category expression");
+            }
+            position = skipSpaces() + token.length();
+            try {
+                return new Category(Long.parseLong(token));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid category id " + token + " in the category expression", e);
+            }
+        }
+
+        private boolean accept(String symbol, String word) {
+            String token = peek();
+            if (token != null && (token.equals(symbol) || token.equalsIgnoreCase(word))) {
+                position = skipSpaces() + token.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return the next token, a symbol, a word or a number, or {@code null} at the end of the expression.
+         */
+        private String peek() {
+            int start = skipSpaces();
+            if (start == expression.length()) {
+                return null;
+            }
+            int end = start + 1;
+            if (Character.isLetterOrDigit(expression.charAt(start))) {
+                while (end < expression.length() && Character.isLetterOrDigit(expression.charAt(end))) {
+                    end++;
+                }
+            }
+            return expression.substring(start, end);
+        }
+
+        private int skipSpaces() {
+            int start = position;
+            while (start < expression.length() && Character.isWhitespace(expression.charAt(start))) {
+                start++;
+            }
+            return start;
+        }
+    }
+}
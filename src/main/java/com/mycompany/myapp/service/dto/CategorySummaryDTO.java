@@ -0,0 +1,126 @@
+package com.mycompany.myapp.service.dto;
+
+import java.time.LocalDate;
+import java.io.Serializable;
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * A summary of the {@link com.mycompany.myapp.domain.Category} entity: the fields of the {@link CategoryDTO}, with
+ * the number of products of the category instead of the products themselves.
+ */
+public class CategorySummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String description;
+
+    private Integer sortOrder;
+
+    private LocalDate dateAdded;
+
+    private LocalDate dateModified;
+
+    private CategoryStatus status;
+
+    private Long parentId;
+
+    private long productCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public LocalDate getDateAdded() {
+        return dateAdded;
+    }
+
+    public void setDateAdded(LocalDate dateAdded) {
+        this.dateAdded = dateAdded;
+    }
+
+    public LocalDate getDateModified() {
+        return dateModified;
+    }
+
+    public void setDateModified(LocalDate dateModified) {
+        this.dateModified = dateModified;
+    }
+
+    public CategoryStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CategoryStatus status) {
+        this.status = status;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long categoryId) {
+        this.parentId = categoryId;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CategorySummaryDTO)) {
+            return false;
+        }
+
+        return id != null && id.equals(((CategorySummaryDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategorySummaryDTO{" +
+            "id=" + getId() +
+            ", description='" + getDescription() + "'" +
+            ", sortOrder=" + getSortOrder() +
+            ", dateAdded='" + getDateAdded() + "'" +
+            ", dateModified='" + getDateModified() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", parentId=" + getParentId() +
+            ", productCount=" + getProductCount() +
+            "}";
+    }
+}
@@ -0,0 +1,107 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.domain.enumeration.CategoryStatus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A node of the tree of the {@link com.mycompany.myapp.domain.Category} entities, with its sub-categories,
+ * or without them ({@code null}) when the node is part of a list of ancestors or deeper than the requested depth.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CategoryTreeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String description;
+
+    private Integer sortOrder;
+
+    private CategoryStatus status;
+
+    private Long parentId;
+
+    private List<CategoryTreeDTO> children;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    public CategoryStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CategoryStatus status) {
+        this.status = status;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public List<CategoryTreeDTO> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<CategoryTreeDTO> children) {
+        this.children = children;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CategoryTreeDTO)) {
+            return false;
+        }
+        return id != null && id.equals(((CategoryTreeDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategoryTreeDTO{" +
+            "id=" + getId() +
+            ", description='" + getDescription() + "'" +
+            ", sortOrder=" + getSortOrder() +
+            ", status='" + getStatus() + "'" +
+            ", parentId=" + getParentId() +
+            ", children=" + (getChildren() != null ? getChildren().size() : "-") +
+            "}";
+    }
+}
@@ -0,0 +1,138 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of a client inside a keyset (seek) paginated listing.
+ * <p>
+ * A cursor carries the sort property and direction of the listing, together with the sort key
+ * and the id of the last row that was returned, so the next slice can be read with a
+ * {@code (sortKey, id) > (lastSortKey, lastId)} predicate instead of an {@code OFFSET}.
+ * Clients only ever see it in its opaque, URL-safe {@link #encode() encoded} form.
+ */
+public final class KeysetCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SEPARATOR = ",";
+
+    private static final char NULL_MARKER = 'n';
+
+    private static final char VALUE_MARKER = 'v';
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final String value;
+
+    private final Long id;
+
+    public KeysetCursor(String property, Sort.Direction direction, String value, Long id) {
+        this.property = Objects.requireNonNull(property, "property");
+        this.direction = Objects.requireNonNull(direction, "direction");
+        this.value = value;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded the opaque cursor sent by the client.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String encoded) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String[] parts = raw.split(SEPARATOR, 4);
+        if (parts.length != 4 || parts[0].isEmpty() || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+            Long id = Long.valueOf(parts[2]);
+            String value;
+            if (parts[3].charAt(0) == NULL_MARKER && parts[3].length() == 1) {
+                value = null;
+            } else if (parts[3].charAt(0) == VALUE_MARKER) {
+                value = parts[3].substring(1);
+            } else {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[0], direction, value, id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encode this cursor into an opaque, URL-safe token.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR +
+            (value == null ? String.valueOf(NULL_MARKER) : VALUE_MARKER + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the string form of the last sort key, or {@code null} if the last row had no value.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return property.equals(that.property) &&
+            direction == that.direction &&
+            Objects.equals(value, that.value) &&
+            id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", value='" + value + "'" +
+            ", id=" + id +
+            "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.myapp.service.dto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One slice of a keyset (seek) paginated listing: the rows, plus the cursor to read the next slice.
+ *
+ * @param <T> the type of the rows.
+ */
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final KeysetCursor nextCursor;
+
+    public KeysetSlice(List<T> content, int size, KeysetCursor nextCursor) {
+        this.content = Collections.unmodifiableList(content);
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the requested slice size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the cursor of the next slice, or {@code null} if this is the last one.
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Convert the rows of this slice, keeping its cursor.
+     *
+     * @param converter the function applied to every row.
+     * @param <U> the type of the converted rows.
+     * @return the converted slice.
+     */
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetSlice<>(content.stream().map(converter).collect(Collectors.toList()), size, nextCursor);
+    }
+}
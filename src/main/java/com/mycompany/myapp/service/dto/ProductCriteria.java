@@ -43,6 +43,10 @@ public class ProductCriteria implements Serializable, Criteria {
 
     private LongFilter categoryId;
 
+    private Boolean includeDescendants;
+
+    private CategoryExpression categoryExpression;
+
     public ProductCriteria() {
     }
 
@@ -56,6 +60,8 @@ public class ProductCriteria implements Serializable, Criteria {
         this.dateModified = other.dateModified == null ? null : other.dateModified.copy();
         this.wishListId = other.wishListId == null ? null : other.wishListId.copy();
         this.categoryId = other.categoryId == null ? null : other.categoryId.copy();
+        this.includeDescendants = other.includeDescendants;
+        this.categoryExpression = other.categoryExpression;
     }
 
     @Override
@@ -135,6 +141,29 @@ public class ProductCriteria implements Serializable, Criteria {
         this.categoryId = categoryId;
     }
 
+    /**
+     * @return whether {@code categoryId.equals} and {@code categoryId.in} also match the descendants of the categories.
+     */
+    public Boolean getIncludeDescendants() {
+        return includeDescendants;
+    }
+
+    public void setIncludeDescendants(Boolean includeDescendants) {
+        this.includeDescendants = includeDescendants;
+    }
+
+    /**
+     * @return the categories of the products, such as {@code 1 and (2 or 3) and not 4}, also matching the descendants
+     * of the categories when {@link #getIncludeDescendants()} is set.
+     */
+    public CategoryExpression getCategoryExpression() {
+        return categoryExpression;
+    }
+
+    public void setCategoryExpression(CategoryExpression categoryExpression) {
+        this.categoryExpression = categoryExpression;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -154,7 +183,9 @@ public class ProductCriteria implements Serializable, Criteria {
             Objects.equals(dateAdded, that.dateAdded) &&
             Objects.equals(dateModified, that.dateModified) &&
             Objects.equals(wishListId, that.wishListId) &&
-            Objects.equals(categoryId, that.categoryId);
+            Objects.equals(categoryId, that.categoryId) &&
+            Objects.equals(includeDescendants, that.includeDescendants) &&
+            Objects.equals(categoryExpression, that.categoryExpression);
     }
 
     @Override
@@ -168,7 +199,9 @@ public class ProductCriteria implements Serializable, Criteria {
         dateAdded,
         dateModified,
         wishListId,
-        categoryId
+        categoryId,
+        includeDescendants,
+        categoryExpression
         );
     }
 
@@ -185,6 +218,8 @@ public class ProductCriteria implements Serializable, Criteria {
                 (dateModified != null ? "dateModified=" + dateModified + ", " : "") +
                 (wishListId != null ? "wishListId=" + wishListId + ", " : "") +
                 (categoryId != null ? "categoryId=" + categoryId + ", " : "") +
+                (includeDescendants != null ? "includeDescendants=" + includeDescendants + ", " : "") +
+                (categoryExpression != null ? "categoryExpression=" + categoryExpression + ", " : "") +
             "}";
     }
 
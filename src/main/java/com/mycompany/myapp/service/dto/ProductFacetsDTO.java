@@ -0,0 +1,77 @@
+package com.mycompany.myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.SortedMap;
+
+/**
+ * Facet counts of the {@link com.mycompany.myapp.domain.Product} entities matching a {@link ProductCriteria}: the
+ * number of matching products per category, per rating bucket and per month of {@code dateAdded}, each {@code null}
+ * when it was not requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+
+    private SortedMap<Long, Long> categoryId;
+
+    private SortedMap<Integer, Long> rating;
+
+    private SortedMap<String, Long> dateAdded;
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * @return the number of matching products by category id, a product being counted in each of its categories.
+     */
+    public SortedMap<Long, Long> getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(SortedMap<Long, Long> categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * @return the number of matching products by lowest rating of their bucket.
+     */
+    public SortedMap<Integer, Long> getRating() {
+        return rating;
+    }
+
+    public void setRating(SortedMap<Integer, Long> rating) {
+        this.rating = rating;
+    }
+
+    /**
+     * @return the number of matching products by month they were added, as {@code yyyy-MM}.
+     */
+    public SortedMap<String, Long> getDateAdded() {
+        return dateAdded;
+    }
+
+    public void setDateAdded(SortedMap<String, Long> dateAdded) {
+        this.dateAdded = dateAdded;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductFacetsDTO{" +
+            "total=" + getTotal() +
+            ", categoryId=" + getCategoryId() +
+            ", rating=" + getRating() +
+            ", dateAdded=" + getDateAdded() +
+            "}";
+    }
+}
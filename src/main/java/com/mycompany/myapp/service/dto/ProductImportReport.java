@@ -0,0 +1,112 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import of products: the number of rows read, imported and rejected, and why rows were rejected.
+ */
+public class ProductImportReport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long rows;
+
+    private long imported;
+
+    private long failed;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    private final int maxReportedErrors;
+
+    public ProductImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return the errors of the rejected rows, only the first ones are kept if many rows were rejected.
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public void addRows(long count) {
+        rows += count;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    /**
+     * Record a rejected row.
+     *
+     * @param row the number of the row in the input, starting at 1.
+     * @param message why the row was rejected.
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductImportReport{" +
+            "rows=" + getRows() +
+            ", imported=" + getImported() +
+            ", failed=" + getFailed() +
+            "}";
+    }
+
+    /**
+     * The error of a rejected row.
+     */
+    public static class RowError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long row;
+
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RowError{" +
+                "row=" + getRow() +
+                ", message='" + getMessage() + "'" +
+                "}";
+        }
+    }
+}
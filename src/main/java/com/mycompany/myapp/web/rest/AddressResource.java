@@ -5,6 +5,9 @@ import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.service.dto.AddressDTO;
 import com.mycompany.myapp.service.dto.AddressCriteria;
 import com.mycompany.myapp.service.AddressQueryService;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -104,6 +108,59 @@ public class AddressResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /addresses?count=approximate} : get all the addresses, with an approximate total count.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body.
+     */
+    @GetMapping(value = "/addresses", params = { "count=approximate", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<AddressDTO>> getAllAddressesWithApproximateCount(AddressCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Addresses with approximate count by criteria: {}", criteria);
+        Page<AddressDTO> page = addressQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /addresses?count=none} : get a slice of the addresses, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body,
+     * with a {@code next} link only if there are more addresses.
+     */
+    @GetMapping(value = "/addresses", params = { "count=none", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<AddressDTO>> getAllAddressesWithoutCount(AddressCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get a slice of Addresses by criteria: {}", criteria);
+        Slice<AddressDTO> slice = addressQueryService.findSliceByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /addresses?after=} : get a slice of the addresses in keyset (seek) mode.
+     *
+     * @param after the cursor returned in the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size and, for the first slice, the sort order of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/addresses", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<AddressDTO>> getAllAddressesAfter(AddressCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get Addresses by criteria: {} after: {}", criteria, after);
+        KeysetSlice<AddressDTO> slice;
+        try {
+            slice = addressQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "keysetinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /addresses/count} : count all the addresses.
      *
@@ -4,7 +4,14 @@ import com.mycompany.myapp.service.CategoryService;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.service.dto.CategoryDTO;
 import com.mycompany.myapp.service.dto.CategoryCriteria;
+import com.mycompany.myapp.service.dto.CategoryTreeDTO;
 import com.mycompany.myapp.service.CategoryQueryService;
+import com.mycompany.myapp.service.ProductQueryService;
+import com.mycompany.myapp.service.dto.CategorySummaryDTO;
+import com.mycompany.myapp.service.dto.ProductDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,17 +21,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.Category}.
@@ -44,9 +55,13 @@ public class CategoryResource {
 
     private final CategoryQueryService categoryQueryService;
 
-    public CategoryResource(CategoryService categoryService, CategoryQueryService categoryQueryService) {
+    private final ProductQueryService productQueryService;
+
+    public CategoryResource(CategoryService categoryService, CategoryQueryService categoryQueryService,
+            ProductQueryService productQueryService) {
         this.categoryService = categoryService;
         this.categoryQueryService = categoryQueryService;
+        this.productQueryService = productQueryService;
     }
 
     /**
@@ -62,7 +77,7 @@ public class CategoryResource {
         if (categoryDTO.getId() != null) {
             throw new BadRequestAlertException("A new category cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        CategoryDTO result = categoryService.save(categoryDTO);
+        CategoryDTO result = save(categoryDTO);
         return ResponseEntity.created(new URI("/api/categories/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -73,7 +88,7 @@ public class CategoryResource {
      *
      * @param categoryDTO the categoryDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated categoryDTO,
-     * or with status {@code 400 (Bad Request)} if the categoryDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the categoryDTO is not valid or would be moved under itself,
      * or with status {@code 500 (Internal Server Error)} if the categoryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -83,12 +98,20 @@ public class CategoryResource {
         if (categoryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        CategoryDTO result = categoryService.save(categoryDTO);
+        CategoryDTO result = save(categoryDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, categoryDTO.getId().toString()))
             .body(result);
     }
 
+    private CategoryDTO save(CategoryDTO categoryDTO) {
+        try {
+            return categoryService.save(categoryDTO);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "parentcycle");
+        }
+    }
+
     /**
      * {@code GET  /categories} : get all the categories.
      *
@@ -104,6 +127,89 @@ public class CategoryResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /categories?eagerload=true} : get all the categories, with their products.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     */
+    @GetMapping(value = "/categories", params = "eagerload=true")
+    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithEagerRelationships(Pageable pageable) {
+        log.debug("REST request to get Categories with eager relationships");
+        Page<CategoryDTO> page = categoryService.findAllWithEagerRelationships(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /categories?count=approximate} : get all the categories, with an approximate total count.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     */
+    @GetMapping(value = "/categories", params = { "count=approximate", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithApproximateCount(CategoryCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Categories with approximate count by criteria: {}", criteria);
+        Page<CategoryDTO> page = categoryQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /categories?count=none} : get a slice of the categories, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body,
+     * with a {@code next} link only if there are more categories.
+     */
+    @GetMapping(value = "/categories", params = { "count=none", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithoutCount(CategoryCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get a slice of Categories by criteria: {}", criteria);
+        Slice<CategoryDTO> slice = categoryQueryService.findSliceByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /categories?after=} : get a slice of the categories in keyset (seek) mode.
+     *
+     * @param after the cursor returned in the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size and, for the first slice, the sort order of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/categories", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<CategoryDTO>> getAllCategoriesAfter(CategoryCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get Categories by criteria: {} after: {}", criteria, after);
+        KeysetSlice<CategoryDTO> slice;
+        try {
+            slice = categoryQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "keysetinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /categories/summaries} : get all the categories, with the number of their products instead of the
+     * products themselves.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of category summaries in body.
+     */
+    @GetMapping("/categories/summaries")
+    public ResponseEntity<List<CategorySummaryDTO>> getAllCategorySummaries(CategoryCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Category summaries by criteria: {}", criteria);
+        Page<CategorySummaryDTO> page = categoryQueryService.findSummariesByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /categories/count} : count all the categories.
      *
@@ -129,6 +235,129 @@ public class CategoryResource {
         return ResponseUtil.wrapOrNotFound(categoryDTO);
     }
 
+    /**
+     * {@code GET  /categories/:id/tree} : get the "id" category with its sub-categories.
+     *
+     * @param id the id of the category.
+     * @param depth the levels of sub-categories to include, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category tree,
+     * or with status {@code 400 (Bad Request)} if the depth is negative, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/categories/{id}/tree")
+    public ResponseEntity<CategoryTreeDTO> getCategoryTree(@PathVariable Long id, @RequestParam(required = false) Integer depth) {
+        log.debug("REST request to get the tree of Category : {}, depth : {}", id, depth);
+        Optional<CategoryTreeDTO> tree;
+        try {
+            tree = categoryService.findTree(id, depth);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "depthinvalid");
+        }
+        return ResponseUtil.wrapOrNotFound(tree);
+    }
+
+    /**
+     * {@code GET  /categories/:id/ancestors} : get the ancestors of the "id" category, for instance for a breadcrumb.
+     *
+     * @param id the id of the category.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the ancestors in body, from the root category
+     * down to the parent, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/categories/{id}/ancestors")
+    public ResponseEntity<List<CategoryTreeDTO>> getCategoryAncestors(@PathVariable Long id) {
+        log.debug("REST request to get the ancestors of Category : {}", id);
+        return ResponseUtil.wrapOrNotFound(categoryService.findAncestors(id));
+    }
+
+    /**
+     * {@code GET  /categories/:id/products} : get a page of the products of the "id" category.
+     *
+     * @param id the id of the category.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/categories/{id}/products")
+    public ResponseEntity<List<ProductDTO>> getCategoryProducts(@PathVariable Long id, Pageable pageable) {
+        log.debug("REST request to get the Products of Category : {}", id);
+        if (!categoryService.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        Page<ProductDTO> page = productQueryService.findByCategory(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code PUT  /categories/:id/products/:productId} : add a product to the "id" category.
+     *
+     * @param id the id of the category.
+     * @param productId the id of the product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)}
+     * if the product does not exist, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/categories/{id}/products/{productId}")
+    public ResponseEntity<Void> addCategoryProduct(@PathVariable Long id, @PathVariable Long productId) {
+        return addCategoryProducts(id, Collections.singleton(productId));
+    }
+
+    /**
+     * {@code PUT  /categories/:id/products} : add products to the "id" category, without loading its products.
+     *
+     * @param id the id of the category.
+     * @param productIds the ids of the products.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)}
+     * if a product does not exist, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/categories/{id}/products")
+    public ResponseEntity<Void> addCategoryProducts(@PathVariable Long id, @RequestBody Set<Long> productIds) {
+        log.debug("REST request to add Products {} to Category : {}", productIds, id);
+        Optional<Integer> added;
+        try {
+            added = categoryService.addProducts(id, productIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "productinvalid");
+        }
+        return productsUpdated(id, added);
+    }
+
+    /**
+     * {@code DELETE  /categories/:id/products/:productId} : remove a product from the "id" category.
+     *
+     * @param id the id of the category.
+     * @param productId the id of the product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/categories/{id}/products/{productId}")
+    public ResponseEntity<Void> removeCategoryProduct(@PathVariable Long id, @PathVariable Long productId) {
+        return removeCategoryProducts(id, Collections.singleton(productId));
+    }
+
+    /**
+     * {@code DELETE  /categories/:id/products} : remove products from the "id" category, without loading its products.
+     *
+     * @param id the id of the category.
+     * @param productIds the ids of the products.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/categories/{id}/products")
+    public ResponseEntity<Void> removeCategoryProducts(@PathVariable Long id, @RequestBody Set<Long> productIds) {
+        log.debug("REST request to remove Products {} from Category : {}", productIds, id);
+        Optional<Integer> removed;
+        try {
+            removed = categoryService.removeProducts(id, productIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "productinvalid");
+        }
+        return productsUpdated(id, removed);
+    }
+
+    private ResponseEntity<Void> productsUpdated(Long id, Optional<Integer> changed) {
+        if (!changed.isPresent()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.noContent().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
+    }
+
     /**
      * {@code DELETE  /categories/:id} : delete the "id" category.
      *
@@ -5,7 +5,17 @@ import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.service.dto.CustomerDTO;
 import com.mycompany.myapp.service.dto.CustomerCriteria;
 import com.mycompany.myapp.service.CustomerQueryService;
+import com.mycompany.myapp.service.AddressQueryService;
+import com.mycompany.myapp.service.WishListQueryService;
+import com.mycompany.myapp.service.dto.AddressDTO;
+import com.mycompany.myapp.service.dto.WishListDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.NdjsonUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -14,14 +24,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,9 +60,19 @@ public class CustomerResource {
 
     private final CustomerQueryService customerQueryService;
 
-    public CustomerResource(CustomerService customerService, CustomerQueryService customerQueryService) {
+    private final WishListQueryService wishListQueryService;
+
+    private final AddressQueryService addressQueryService;
+
+    private final ObjectWriter exportWriter;
+
+    public CustomerResource(CustomerService customerService, CustomerQueryService customerQueryService,
+            WishListQueryService wishListQueryService, AddressQueryService addressQueryService, ObjectMapper objectMapper) {
         this.customerService = customerService;
         this.customerQueryService = customerQueryService;
+        this.wishListQueryService = wishListQueryService;
+        this.addressQueryService = addressQueryService;
+        this.exportWriter = objectMapper.writerFor(CustomerDTO.class);
     }
 
     /**
@@ -103,6 +130,82 @@ public class CustomerResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /customers?count=approximate} : get all the customers, with an approximate total count.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
+     */
+    @GetMapping(value = "/customers", params = { "count=approximate", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<CustomerDTO>> getAllCustomersWithApproximateCount(CustomerCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Customers with approximate count by criteria: {}", criteria);
+        Page<CustomerDTO> page = customerQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /customers?count=none} : get a slice of the customers, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body,
+     * with a {@code next} link only if there are more customers.
+     */
+    @GetMapping(value = "/customers", params = { "count=none", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<CustomerDTO>> getAllCustomersWithoutCount(CustomerCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get a slice of Customers by criteria: {}", criteria);
+        Slice<CustomerDTO> slice = customerQueryService.findSliceByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /customers?after=} : get a slice of the customers in keyset (seek) mode.
+     *
+     * @param after the cursor returned in the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size and, for the first slice, the sort order of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/customers", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<CustomerDTO>> getAllCustomersAfter(CustomerCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get Customers by criteria: {} after: {}", criteria, after);
+        KeysetSlice<CustomerDTO> slice;
+        try {
+            slice = customerQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "keysetinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /customers/_export} : export all the customers as newline-delimited JSON.
+     * <p>
+     * The customers are streamed from the database to the response one at a time, so exports of any size use the same memory.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response the customers are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/customers/_export")
+    public void exportCustomers(CustomerCriteria criteria, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Customers by criteria: {}", criteria);
+        response.setContentType(NdjsonUtil.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        try {
+            customerQueryService.exportByCriteria(criteria, NdjsonUtil.lineWriter(exportWriter, out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
     /**
      * {@code GET  /customers/count} : count all the customers.
      *
@@ -128,6 +231,44 @@ public class CustomerResource {
         return ResponseUtil.wrapOrNotFound(customerDTO);
     }
 
+    /**
+     * {@code GET  /customers/:id/wish-lists} : get a page of the wish lists of the "id" customer.
+     *
+     * @param id the id of the customer.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wish lists in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/customers/{id}/wish-lists")
+    public ResponseEntity<List<WishListDTO>> getCustomerWishLists(@PathVariable Long id, Pageable pageable) {
+        log.debug("REST request to get the WishLists of Customer : {}", id);
+        if (!customerService.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        Page<WishListDTO> page = wishListQueryService.findByCustomer(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /customers/:id/addresses} : get a page of the addresses of the "id" customer.
+     *
+     * @param id the id of the customer.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/customers/{id}/addresses")
+    public ResponseEntity<List<AddressDTO>> getCustomerAddresses(@PathVariable Long id, Pageable pageable) {
+        log.debug("REST request to get the Addresses of Customer : {}", id);
+        if (!customerService.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        Page<AddressDTO> page = addressQueryService.findByCustomer(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code DELETE  /customers/:id} : delete the "id" customer.
      *
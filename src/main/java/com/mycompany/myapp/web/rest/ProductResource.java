@@ -1,11 +1,20 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.service.ProductImportService;
 import com.mycompany.myapp.service.ProductService;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.service.dto.ProductDTO;
 import com.mycompany.myapp.service.dto.ProductCriteria;
+import com.mycompany.myapp.service.dto.ProductFacetsDTO;
+import com.mycompany.myapp.service.dto.ProductImportReport;
 import com.mycompany.myapp.service.ProductQueryService;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.NdjsonUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -14,17 +23,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.Product}.
@@ -37,6 +54,8 @@ public class ProductResource {
 
     private static final String ENTITY_NAME = "sampleonlineshopProduct";
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -44,9 +63,16 @@ public class ProductResource {
 
     private final ProductQueryService productQueryService;
 
-    public ProductResource(ProductService productService, ProductQueryService productQueryService) {
+    private final ProductImportService productImportService;
+
+    private final ObjectWriter exportWriter;
+
+    public ProductResource(ProductService productService, ProductQueryService productQueryService,
+            ProductImportService productImportService, ObjectMapper objectMapper) {
         this.productService = productService;
         this.productQueryService = productQueryService;
+        this.productImportService = productImportService;
+        this.exportWriter = objectMapper.writerFor(ProductDTO.class);
     }
 
     /**
@@ -68,6 +94,32 @@ public class ProductResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /products/_bulk} : Create products from CSV, with a header row naming the product properties.
+     *
+     * @param body the CSV content.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report, listing the rejected rows.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/products/_bulk", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ProductImportReport> importProductsFromCsv(InputStream body) throws IOException {
+        log.debug("REST request to import Products from CSV");
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+
+    /**
+     * {@code POST  /products/_bulk} : Create products from newline-delimited JSON, one product per line.
+     *
+     * @param body the NDJSON content.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report, listing the rejected rows.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/products/_bulk", consumes = NdjsonUtil.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductImportReport> importProductsFromNdjson(InputStream body) throws IOException {
+        log.debug("REST request to import Products from NDJSON");
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
     /**
      * {@code PUT  /products} : Updates an existing product.
      *
@@ -104,6 +156,97 @@ public class ProductResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /products?count=approximate} : get all the products, with an approximate total count.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping(value = "/products", params = { "count=approximate", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<ProductDTO>> getAllProductsWithApproximateCount(ProductCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Products with approximate count by criteria: {}", criteria);
+        Page<ProductDTO> page = productQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products?count=none} : get a slice of the products, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * with a {@code next} link only if there are more products.
+     */
+    @GetMapping(value = "/products", params = { "count=none", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<ProductDTO>> getAllProductsWithoutCount(ProductCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get a slice of Products by criteria: {}", criteria);
+        Slice<ProductDTO> slice = productQueryService.findSliceByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /products?after=} : get a slice of the products in keyset (seek) mode.
+     *
+     * @param after the cursor returned in the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size and, for the first slice, the sort order of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/products", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<ProductDTO>> getAllProductsAfter(ProductCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get Products by criteria: {} after: {}", criteria, after);
+        KeysetSlice<ProductDTO> slice;
+        try {
+            slice = productQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "keysetinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /products/_search?q=} : search the products by title, keywords and description.
+     *
+     * @param q the free text query, all its terms must match.
+     * @param pageable the pagination information, results are always ranked by relevance.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping("/products/_search")
+    public ResponseEntity<List<ProductDTO>> searchProducts(@RequestParam String q, Pageable pageable) {
+        log.debug("REST request to search Products for query {}", q);
+        Page<ProductDTO> page = productService.search(q, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products/_export} : export all the products as newline-delimited JSON.
+     * <p>
+     * The products are streamed from the database to the response one at a time, so exports of any size use the same memory.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response the products are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/products/_export")
+    public void exportProducts(ProductCriteria criteria, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Products by criteria: {}", criteria);
+        response.setContentType(NdjsonUtil.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        try {
+            productQueryService.exportByCriteria(criteria, NdjsonUtil.lineWriter(exportWriter, out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
     /**
      * {@code GET  /products/count} : count all the products.
      *
@@ -116,6 +259,27 @@ public class ProductResource {
         return ResponseEntity.ok().body(productQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /products/_facets} : count the products per category, rating bucket and month they were added,
+     * in a single request instead of one {@code count} per facet value.
+     *
+     * @param criteria the criteria which the counted entities should match.
+     * @param facets the facets to count, {@code categoryId}, {@code rating} and {@code dateAdded}, all of them by default.
+     * @param ratingBucketSize the width of the rating buckets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facet counts in body,
+     * or with status {@code 400 (Bad Request)} if a facet is unknown or the bucket size is not positive.
+     */
+    @GetMapping("/products/_facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(ProductCriteria criteria, @RequestParam(required = false) Set<String> facets,
+            @RequestParam(defaultValue = "1") int ratingBucketSize) {
+        log.debug("REST request to get the facets {} of Products by criteria: {}", facets, criteria);
+        try {
+            return ResponseEntity.ok().body(productQueryService.findFacets(criteria, facets, ratingBucketSize));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "facetinvalid");
+        }
+    }
+
     /**
      * {@code GET  /products/:id} : get the "id" product.
      *
@@ -5,6 +5,9 @@ import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.service.dto.WishListDTO;
 import com.mycompany.myapp.service.dto.WishListCriteria;
 import com.mycompany.myapp.service.WishListQueryService;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,17 +17,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.WishList}.
@@ -104,6 +111,59 @@ public class WishListResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /wish-lists?count=approximate} : get all the wishLists, with an approximate total count.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
+     */
+    @GetMapping(value = "/wish-lists", params = { "count=approximate", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<WishListDTO>> getAllWishListsWithApproximateCount(WishListCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get WishLists with approximate count by criteria: {}", criteria);
+        Page<WishListDTO> page = wishListQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /wish-lists?count=none} : get a slice of the wishLists, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body,
+     * with a {@code next} link only if there are more wishLists.
+     */
+    @GetMapping(value = "/wish-lists", params = { "count=none", "!" + KeysetPaginationUtil.AFTER_PARAMETER })
+    public ResponseEntity<List<WishListDTO>> getAllWishListsWithoutCount(WishListCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get a slice of WishLists by criteria: {}", criteria);
+        Slice<WishListDTO> slice = wishListQueryService.findSliceByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /wish-lists?after=} : get a slice of the wishLists in keyset (seek) mode.
+     *
+     * @param after the cursor returned in the {@code next} link of the previous slice, empty for the first slice.
+     * @param pageable the size and, for the first slice, the sort order of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/wish-lists", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<WishListDTO>> getAllWishListsAfter(WishListCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get WishLists by criteria: {} after: {}", criteria, after);
+        KeysetSlice<WishListDTO> slice;
+        try {
+            slice = wishListQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "keysetinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /wish-lists/count} : count all the wishLists.
      *
@@ -129,6 +189,77 @@ public class WishListResource {
         return ResponseUtil.wrapOrNotFound(wishListDTO);
     }
 
+    /**
+     * {@code PUT  /wish-lists/:id/products/:productId} : add a product to the "id" wish list.
+     *
+     * @param id the id of the wish list.
+     * @param productId the id of the product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)}
+     * if the product does not exist, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/wish-lists/{id}/products/{productId}")
+    public ResponseEntity<Void> addWishListProduct(@PathVariable Long id, @PathVariable Long productId) {
+        return addWishListProducts(id, Collections.singleton(productId));
+    }
+
+    /**
+     * {@code PUT  /wish-lists/:id/products} : add products to the "id" wish list, without loading its products.
+     *
+     * @param id the id of the wish list.
+     * @param productIds the ids of the products.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)}
+     * if a product does not exist, or with status {@code 404 (Not Found)}.
+     */
+    @PutMapping("/wish-lists/{id}/products")
+    public ResponseEntity<Void> addWishListProducts(@PathVariable Long id, @RequestBody Set<Long> productIds) {
+        log.debug("REST request to add Products {} to WishList : {}", productIds, id);
+        Optional<Integer> added;
+        try {
+            added = wishListService.addProducts(id, productIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "productinvalid");
+        }
+        return productsUpdated(id, added);
+    }
+
+    /**
+     * {@code DELETE  /wish-lists/:id/products/:productId} : remove a product from the "id" wish list.
+     *
+     * @param id the id of the wish list.
+     * @param productId the id of the product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/wish-lists/{id}/products/{productId}")
+    public ResponseEntity<Void> removeWishListProduct(@PathVariable Long id, @PathVariable Long productId) {
+        return removeWishListProducts(id, Collections.singleton(productId));
+    }
+
+    /**
+     * {@code DELETE  /wish-lists/:id/products} : remove products from the "id" wish list, without loading its products.
+     *
+     * @param id the id of the wish list.
+     * @param productIds the ids of the products.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/wish-lists/{id}/products")
+    public ResponseEntity<Void> removeWishListProducts(@PathVariable Long id, @RequestBody Set<Long> productIds) {
+        log.debug("REST request to remove Products {} from WishList : {}", productIds, id);
+        Optional<Integer> removed;
+        try {
+            removed = wishListService.removeProducts(id, productIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "productinvalid");
+        }
+        return productsUpdated(id, removed);
+    }
+
+    private ResponseEntity<Void> productsUpdated(Long id, Optional<Integer> changed) {
+        if (!changed.isPresent()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.noContent().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
+    }
+
     /**
      * {@code DELETE  /wish-lists/:id} : delete the "id" wishList.
      *
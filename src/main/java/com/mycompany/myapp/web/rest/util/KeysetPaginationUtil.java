@@ -0,0 +1,57 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.mycompany.myapp.service.dto.KeysetSlice;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.text.MessageFormat;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * Pagination uses the same principles as the <a href="https://developer.github.com/v3/#pagination">GitHub API</a>,
+ * but the next slice is addressed by an opaque {@code after} cursor instead of a page number, and no total count is sent.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String SIZE_PARAMETER = "size";
+
+    private static final String PAGE_PARAMETER = "page";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Generate keyset pagination headers for a {@link KeysetSlice} object.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The slice.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, KeysetSlice<T> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, slice.getNextCursor().encode(), slice.getSize(), "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, "", slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String after, int size, String relType) {
+        String uri = uriBuilder.replaceQueryParam(PAGE_PARAMETER)
+            .replaceQueryParam(AFTER_PARAMETER, after)
+            .replaceQueryParam(SIZE_PARAMETER, size)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
@@ -0,0 +1,40 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for writing newline-delimited JSON (<a href="http://ndjson.org/">NDJSON</a>) responses, one object per line.
+ */
+public final class NdjsonUtil {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int NEWLINE = '\n';
+
+    private NdjsonUtil() {
+    }
+
+    /**
+     * Create a consumer writing every object it receives as one line of JSON.
+     *
+     * @param writer The writer serializing the objects.
+     * @param out The stream the lines are written to, it is not closed.
+     * @param <T> The type of object.
+     * @return the consumer, which throws an {@link UncheckedIOException} if a line cannot be written.
+     */
+    public static <T> Consumer<T> lineWriter(ObjectWriter writer, OutputStream out) {
+        return value -> {
+            try {
+                out.write(writer.writeValueAsBytes(value));
+                out.write(NEWLINE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
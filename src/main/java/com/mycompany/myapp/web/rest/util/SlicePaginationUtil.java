@@ -0,0 +1,55 @@
+package com.mycompany.myapp.web.rest.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.text.MessageFormat;
+
+/**
+ * Utility class for handling pagination without a total count.
+ * <p>
+ * Pagination uses the same principles as the <a href="https://developer.github.com/v3/#pagination">GitHub API</a>,
+ * but as the total is unknown no {@code X-Total-Count} header nor {@code last} link is sent, and the {@code next}
+ * link is only sent when there is a next slice.
+ */
+public final class SlicePaginationUtil {
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private SlicePaginationUtil() {
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The slice.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder.replaceQueryParam("page", pageNumber)
+            .replaceQueryParam("size", pageSize)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.myapp.aop.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.service.CategoryService;
+import com.mycompany.myapp.web.rest.CategoryResource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+/**
+ * Integration tests for the {@link MethodMetricsAspect}.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+@ExtendWith(OutputCaptureExtension.class)
+public class MethodMetricsAspectIT {
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryResource categoryResource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @AfterEach
+    public void resetLogLevel() {
+        loggingSystem.setLogLevel("com.mycompany.myapp.repository", null);
+    }
+
+    @Test
+    public void serviceAndRepositoryMethodsAreTimed() {
+        long services = count("CategoryService", "findOne", "none");
+        long repositories = count("CategoryRepository", "findOneWithEagerRelationships", "none");
+
+        categoryService.findOne(Long.MAX_VALUE);
+
+        assertThat(count("CategoryService", "findOne", "none")).isEqualTo(services + 1);
+        assertThat(count("CategoryRepository", "findOneWithEagerRelationships", "none")).isEqualTo(repositories + 1);
+    }
+
+    @Test
+    public void restEndpointsAreTimed() {
+        Throwable thrown = catchThrowable(() -> categoryResource.getCategory(Long.MAX_VALUE));
+        long endpoints = count("CategoryResource", "getCategory", thrown.getClass().getSimpleName());
+
+        catchThrowable(() -> categoryResource.getCategory(Long.MAX_VALUE));
+
+        assertThat(count("CategoryResource", "getCategory", thrown.getClass().getSimpleName())).isEqualTo(endpoints + 1);
+    }
+
+    @Test
+    public void exceptionsAreTimedApart() {
+        Throwable thrown = catchThrowable(() -> categoryRepository.findById(null));
+
+        assertThat(count("CategoryRepository", "findById", thrown.getClass().getSimpleName())).isPositive();
+    }
+
+    @Test
+    public void exceptionsAreLoggedWhateverTheLogLevel(CapturedOutput output) {
+        loggingSystem.setLogLevel("com.mycompany.myapp.repository", LogLevel.WARN);
+
+        catchThrowable(() -> categoryRepository.findById(null));
+
+        assertThat(output).contains("ERROR").contains("Exception in findById() with cause = ");
+    }
+
+    @Test
+    public void timingIsSwitchedOffWithTheLogLevel() {
+        long repositories = count("CategoryRepository", "count", "none");
+        loggingSystem.setLogLevel("com.mycompany.myapp.repository", LogLevel.WARN);
+
+        categoryRepository.count();
+
+        assertThat(count("CategoryRepository", "count", "none")).isEqualTo(repositories);
+        loggingSystem.setLogLevel("com.mycompany.myapp.repository", LogLevel.INFO);
+
+        categoryRepository.count();
+
+        assertThat(count("CategoryRepository", "count", "none")).isEqualTo(repositories + 1);
+    }
+
+    private long count(String className, String method, String exception) {
+        Timer timer = meterRegistry
+            .find(MethodMetricsAspect.METRIC_NAME)
+            .tag("class", className)
+            .tag("method", method)
+            .tag("exception", exception)
+            .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.cache.TwoTierCache;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the near cache of the Hazelcast maps backing the second-level cache regions,
+ * and for the two tiers of the Spring caches.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+public class CacheConfigurationIT {
+
+    private static final String REGION = "com.mycompany.myapp.domain.CacheConfigurationIT";
+
+    private static final String CACHE = "CacheConfigurationIT";
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    public void destroyRegion() {
+        hazelcastInstance.getMap(REGION).destroy();
+        cacheManager.getCache(CACHE).clear();
+    }
+
+    @Test
+    public void domainRegionsHaveAnInvalidatedNearCache() {
+        NearCacheConfig nearCacheConfig = hazelcastInstance.getConfig().findMapConfig(REGION).getNearCacheConfig();
+
+        assertThat(nearCacheConfig).isNotNull();
+        assertThat(nearCacheConfig.getInMemoryFormat()).isEqualTo(InMemoryFormat.OBJECT);
+        assertThat(nearCacheConfig.isInvalidateOnChange()).isTrue();
+        assertThat(nearCacheConfig.isCacheLocalEntries()).isTrue();
+        assertThat(nearCacheConfig.getEvictionConfig().getSize()).isEqualTo(10000);
+    }
+
+    @Test
+    public void nearCacheHitsAndMissesAreMetered() {
+        IMap<Long, String> region = hazelcastInstance.getMap(REGION);
+        HazelcastCacheMetrics.monitor(meterRegistry, region, "tier", "distributed");
+        region.put(1L, "cached");
+
+        assertThat(region.get(1L)).isEqualTo("cached");
+        assertThat(region.get(1L)).isEqualTo("cached");
+        assertThat(region.get(1L)).isEqualTo("cached");
+
+        assertThat(meterRegistry.get("cache.near.requests").tag("cache", REGION).tag("result", "miss").gauge().value())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.near.requests").tag("cache", REGION).tag("result", "hit").gauge().value())
+            .isEqualTo(2);
+
+        region.put(1L, "updated");
+
+        assertThat(region.get(1L)).isEqualTo("updated");
+    }
+
+    @Test
+    public void springCachesHaveMeteredLocalAndDistributedTiers() {
+        Cache cache = cacheManager.getCache(CACHE);
+        cache.put(1L, "cached");
+
+        assertThat(cache).isInstanceOf(TwoTierCache.class);
+        assertThat(cache.get(1L, String.class)).isEqualTo("cached");
+        assertThat(hazelcastInstance.getMap(CACHE).get(1L)).isEqualTo("cached");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CACHE).tag("tier", "local").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.puts").tag("cache", CACHE).tag("tier", "distributed").functionCounter().count())
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.hibernate.MeteredStatistics;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.service.ProductQueryService;
+import com.mycompany.myapp.service.dto.ProductCriteria;
+import com.mycompany.myapp.web.rest.ProductResourceIT;
+
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the Hibernate statistics published when {@code application.hibernate-statistics.enabled} is set.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class, properties = {
+    "application.hibernate-statistics.enabled=true",
+    "application.hibernate-statistics.slow-query-threshold-millis=0"
+})
+@Transactional
+public class HibernateStatisticsIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductQueryService productQueryService;
+
+    @Test
+    public void statisticsAreCollected() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        assertThat(sessionFactory.getStatistics().isStatisticsEnabled()).isTrue();
+        assertThat(sessionFactory.getStatistics()).isInstanceOf(MeteredStatistics.class);
+    }
+
+    @Test
+    public void entityLoadsAndFlushesAreMetered() {
+        Product product = productRepository.saveAndFlush(ProductResourceIT.createEntity(em));
+        em.clear();
+        double loads = meterRegistry.get("hibernate.entities.loads").functionCounter().count();
+        double flushes = meterRegistry.get("hibernate.flushes").functionCounter().count();
+
+        productRepository.findById(product.getId());
+        em.flush();
+
+        assertThat(meterRegistry.get("hibernate.entities.loads").functionCounter().count()).isEqualTo(loads + 1);
+        assertThat(meterRegistry.get("hibernate.flushes").functionCounter().count()).isGreaterThan(flushes);
+    }
+
+    @Test
+    public void queriesAreTimedPerNormalizedQuery() {
+        productRepository.saveAndFlush(ProductResourceIT.createEntity(em));
+        ProductCriteria criteria = new ProductCriteria();
+        IntegerFilter rating = new IntegerFilter();
+        rating.setGreaterThanOrEqual(1);
+        criteria.setRating(rating);
+
+        productQueryService.findByCriteria(criteria);
+        rating.setGreaterThanOrEqual(2);
+        productQueryService.findByCriteria(criteria);
+
+        Timer timer = meterRegistry.find("hibernate.query.execution").timers().stream()
+            .filter(t -> t.getId().getTag("query").contains("generatedAlias0.rating>=?"))
+            .findAny()
+            .orElseThrow(AssertionError::new);
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.query.executions").functionCounter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void secondLevelCacheRegionsAreNotMeteredWithoutSecondLevelCache() {
+        assertThat(meterRegistry.find("hibernate.second.level.cache.region.requests").meters()).isEmpty();
+    }
+}
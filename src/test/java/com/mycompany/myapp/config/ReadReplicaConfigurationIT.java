@@ -0,0 +1,119 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.datasource.ReadOnlyCacheModeTransactionManager;
+import com.mycompany.myapp.config.datasource.ReadReplicaRoutingDataSource;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.web.rest.ProductResourceIT;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the routing of the read-only transactions to a read replica, here the test database itself.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class, properties = {
+    "application.read-replicas.enabled=true",
+    "application.read-replicas.replicas[0].name=replica1",
+    "application.read-replicas.replicas[0].url=jdbc:h2:mem:sampleonlineshop;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "application.read-replicas.lag-query=select 0 as seconds_behind",
+    "application.read-replicas.lag-column=seconds_behind",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=sampleonlineshop"
+})
+public class ReadReplicaConfigurationIT {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void checkReplicas() {
+        readReplicaRoutingDataSource.checkReplicas();
+    }
+
+    private double routed(String pool, String transaction) {
+        return meterRegistry.get("datasource.connections.routed").tag("pool", pool).tag("transaction", transaction)
+            .counter().count();
+    }
+
+    @Test
+    public void connectionsAreTakenLazily() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
+    @Test
+    public void readOnlyTransactionsGoToTheReplica() {
+        double replica = routed("replica1", "read-only");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.execute(status -> productRepository.count());
+
+        assertThat(routed("replica1", "read-only")).isEqualTo(replica + 1);
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "replica1").gauge()).isNotNull();
+    }
+
+    @Test
+    public void readWriteTransactionsGoToThePrimary() {
+        double primary = routed("primary", "read-write");
+        double replica = routed("replica1", "read-only");
+
+        new TransactionTemplate(transactionManager).execute(status -> productRepository.count());
+
+        assertThat(routed("primary", "read-write")).isEqualTo(primary + 1);
+        assertThat(routed("replica1", "read-only")).isEqualTo(replica);
+    }
+
+    @Test
+    public void readOnlyTransactionsDoNotFillTheSecondLevelCache() {
+        assertThat(transactionManager).isInstanceOf(ReadOnlyCacheModeTransactionManager.class);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long id = readWrite.execute(status -> productRepository.save(ProductResourceIT.createEntity(null)).getId());
+        try {
+            entityManagerFactory.getCache().evict(Product.class, id);
+
+            readOnly.execute(status -> productRepository.findById(id));
+
+            assertThat(entityManagerFactory.getCache().contains(Product.class, id)).isFalse();
+
+            readWrite.execute(status -> productRepository.findById(id));
+
+            assertThat(entityManagerFactory.getCache().contains(Product.class, id)).isTrue();
+        } finally {
+            readWrite.execute(status -> {
+                productRepository.deleteById(id);
+                return null;
+            });
+        }
+    }
+}
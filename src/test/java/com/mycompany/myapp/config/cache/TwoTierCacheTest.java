@@ -0,0 +1,85 @@
+package com.mycompany.myapp.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link TwoTierCache}.
+ */
+public class TwoTierCacheTest {
+
+    private ConcurrentMapCache distributed;
+
+    private List<Object> invalidated;
+
+    private TwoTierCache cache;
+
+    @BeforeEach
+    public void init() {
+        distributed = new ConcurrentMapCache("test");
+        invalidated = new ArrayList<>();
+        cache = new TwoTierCache(distributed, 2, 0, (name, key) -> invalidated.add(key));
+    }
+
+    @Test
+    public void readsAreServedLocallyOnceLoaded() {
+        distributed.put("a", "distributed");
+
+        assertThat(cache.get("a", String.class)).isEqualTo("distributed");
+        // Changed behind the back of the local tier
+        distributed.put("a", "changed");
+
+        assertThat(cache.get("a", String.class)).isEqualTo("distributed");
+        assertThat(cache.getLocalStatistics().hitCount()).isEqualTo(1);
+        assertThat(cache.getLocalStatistics().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void writesGoThroughBothTiersAndAreAnnounced() {
+        cache.put("a", "value");
+        cache.evict("b");
+        cache.clear();
+
+        assertThat(invalidated).isEqualTo(Arrays.asList("a", "b", null));
+        assertThat(distributed.get("a")).isNull();
+    }
+
+    @Test
+    public void invalidationDropsTheLocalCopy() {
+        cache.put("a", "value");
+        distributed.put("a", "changed");
+
+        cache.invalidateLocal("a");
+
+        assertThat(cache.get("a", String.class)).isEqualTo("changed");
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertThat(cache.getLocalStatistics().size()).isEqualTo(2);
+        assertThat(cache.getLocalStatistics().evictionCount()).isEqualTo(1);
+        distributed.put("a", "changed");
+        distributed.put("b", "changed");
+        assertThat(cache.get("a", String.class)).isEqualTo("1");
+        assertThat(cache.get("b", String.class)).isEqualTo("changed");
+    }
+
+    @Test
+    public void loadedValuesAreCachedInBothTiers() {
+        assertThat(cache.get("a", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("a", () -> "reloaded")).isEqualTo("loaded");
+        assertThat(distributed.get("a", String.class)).isEqualTo("loaded");
+    }
+}
@@ -0,0 +1,159 @@
+package com.mycompany.myapp.config.datasource;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the routing of {@link ReadReplicaRoutingDataSource}.
+ */
+public class ReadReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replica1Connection = mock(Connection.class);
+
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private final DataSource replica1 = mock(DataSource.class);
+
+    private final DataSource replica2 = mock(DataSource.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        lag(replica1Connection, 0L);
+        lag(replica2Connection, 0L);
+        ApplicationProperties.ReadReplicas properties = new ApplicationProperties.ReadReplicas();
+        properties.setMaxLagSeconds(10);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", replica1);
+        replicas.put("replica2", replica2);
+        dataSource = new ReadReplicaRoutingDataSource(primary, replicas, properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static void lag(Connection connection, Long seconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getObject("Seconds_Behind_Master")).thenReturn(seconds);
+    }
+
+    private double routed(String pool, String transaction) {
+        return meterRegistry.get("datasource.connections.routed").tag("pool", pool).tag("transaction", transaction)
+            .counter().count();
+    }
+
+    @Test
+    public void readWriteTransactionsGoToThePrimary() throws SQLException {
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    public void readOnlyTransactionsGoToTheReplicasRoundRobin() throws SQLException {
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+        assertThat(routed("replica1", "read-only")).isEqualTo(2);
+        assertThat(routed("replica2", "read-only")).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.replica.usable").tag("pool", "replica1").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void replicasAreNotUsedBeforeTheirFirstCheck() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-only")).isEqualTo(1);
+    }
+
+    @Test
+    public void laggingReplicasAreSkippedUntilTheyCatchUp() throws SQLException {
+        lag(replica1Connection, 11L);
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica1").gauge().value()).isEqualTo(11);
+
+        lag(replica1Connection, 10L);
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    public void stoppedReplicationSkipsTheReplica() throws SQLException {
+        lag(replica1Connection, null);
+        lag(replica2Connection, null);
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica2").gauge().value()).isNaN();
+    }
+
+    @Test
+    public void unreachableReplicasFallBackOnThePrimary() throws SQLException {
+        dataSource.checkReplicas();
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replica2.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("datasource.replica.usable").tag("pool", "replica1").gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.get("datasource.replica.usable").tag("pool", "replica2").gauge().value()).isEqualTo(0);
+
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-only")).isEqualTo(2);
+    }
+
+    @Test
+    public void connectionsWithOtherCredentialsAreNotSupported() {
+        assertThatThrownBy(() -> dataSource.getConnection("user", "password"))
+            .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.config.hibernate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the query normalization and endpoint description of {@link MeteredStatistics}.
+ */
+public class MeteredStatisticsTest {
+
+    @AfterEach
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void criteriaQueriesAreNormalizedIndependentlyOfTheirValues() {
+        String query = "select generatedAlias0 from Product as generatedAlias0\n"
+            + "  where ( generatedAlias0.rating>=:param0 ) and ( generatedAlias0.title like 'abc%' )"
+            + " and ( generatedAlias0.id in (:param1, :param2, :param3) ) order by generatedAlias0.id asc";
+
+        assertThat(MeteredStatistics.normalize(query)).isEqualTo("select generatedAlias0 from Product as generatedAlias0"
+            + " where ( generatedAlias0.rating>=? ) and ( generatedAlias0.title like ? )"
+            + " and ( generatedAlias0.id in (?) ) order by generatedAlias0.id asc");
+    }
+
+    @Test
+    public void sqlQueriesAreNormalizedIndependentlyOfTheirValues() {
+        assertThat(MeteredStatistics.normalize("select * from product where rating > 3 and title = 'it''s' limit ?"))
+            .isEqualTo("select * from product where rating > ? and title = ? limit ?");
+        assertThat(MeteredStatistics.normalize("delete from product where id IN (?1, ?2)"))
+            .isEqualTo("delete from product where id in (?)");
+    }
+
+    @Test
+    public void endpointIsThePathPatternWithTheParameterNames() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products");
+        request.addParameter("title.contains", "shoe");
+        request.addParameter("categoryId.equals", "42");
+        request.addParameter("page", "3");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(MeteredStatistics.endpoint()).isEqualTo("GET /api/products?categoryId.equals&page&title.contains");
+    }
+
+    @Test
+    public void endpointFallsBackOnTheRequestUri() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("PUT", "/api/products")));
+
+        assertThat(MeteredStatistics.endpoint()).isEqualTo("PUT /api/products");
+    }
+
+    @Test
+    public void endpointIsNoneOutsideOfARequest() {
+        assertThat(MeteredStatistics.endpoint()).isEqualTo("none");
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.myapp.config.liquibase;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.liquibase.PerfDataset.IdRange;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the {@link PerfDatasetGenerator}.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+public class PerfDatasetGeneratorIT {
+
+    private static final int CATEGORIES = 300;
+
+    private static final int CATEGORY_DEPTH = 6;
+
+    private static final int PRODUCTS = 2000;
+
+    private static final int CUSTOMERS = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<PerfDataset> datasets = new ArrayList<>();
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        productIds.forEach(productRepository::deleteById);
+        new TransactionTemplate(transactionManager).execute(status -> {
+            datasets.forEach(this::delete);
+            return null;
+        });
+    }
+
+    @Test
+    public void generateDataset() throws SQLException {
+        PerfDataset dataset = generate(42);
+
+        assertThat(dataset.getCategories().getCount()).isEqualTo(CATEGORIES);
+        assertThat(count("category", "id", dataset.getCategories())).isEqualTo(CATEGORIES);
+        assertThat(count("product", "id", dataset.getProducts())).isEqualTo(PRODUCTS);
+        assertThat(count("customer", "id", dataset.getCustomers())).isEqualTo(CUSTOMERS);
+        assertThat(count("address", "id", dataset.getAddresses())).isEqualTo(dataset.getAddresses().getCount())
+            .isBetween((long) CUSTOMERS, 4L * CUSTOMERS);
+        assertThat(count("wish_list", "id", dataset.getWishLists())).isEqualTo(dataset.getWishLists().getCount());
+        assertThat(count("category_product", "product_id", dataset.getProducts())).isBetween((long) PRODUCTS, 3L * PRODUCTS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from address where id between ? and ? and customer_id not between ? and ?",
+            Long.class, dataset.getAddresses().getFirst(), dataset.getAddresses().get(dataset.getAddresses().getCount() - 1),
+            dataset.getCustomers().getFirst(), dataset.getCustomers().get(CUSTOMERS - 1))).isZero();
+    }
+
+    @Test
+    public void categoriesFormADeepTree() throws SQLException {
+        PerfDataset dataset = generate(42);
+
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("select id, parent_id from category where id between ? and ?", resultSet -> {
+            parents.put(resultSet.getLong(1), resultSet.getObject(2, Long.class));
+        }, dataset.getCategories().getFirst(), dataset.getCategories().get(CATEGORIES - 1));
+        int maxDepth = 0;
+        int roots = 0;
+        for (Long id : parents.keySet()) {
+            int depth = 1;
+            for (Long parent = parents.get(id); parent != null; parent = parents.get(parent)) {
+                assertThat(parents).containsKey(parent);
+                depth++;
+            }
+            maxDepth = Math.max(maxDepth, depth);
+            roots += depth == 1 ? 1 : 0;
+        }
+        assertThat(maxDepth).isEqualTo(CATEGORY_DEPTH);
+        assertThat(roots).isBetween(1, CATEGORIES / 10);
+    }
+
+    @Test
+    public void productsAreSkewedTowardsPopularCategories() throws SQLException {
+        PerfDataset dataset = generate(42);
+
+        List<Long> counts = jdbcTemplate.queryForList("select count(*) from category_product where product_id between ? and ?" +
+            " group by category_id order by count(*) desc", Long.class,
+            dataset.getProducts().getFirst(), dataset.getProducts().get(PRODUCTS - 1));
+        long total = counts.stream().mapToLong(Long::longValue).sum();
+        long top = counts.stream().limit(CATEGORIES / 10).mapToLong(Long::longValue).sum();
+        assertThat(top).isGreaterThan(total / 2);
+    }
+
+    @Test
+    public void sameSeedGeneratesTheSameRows() throws SQLException {
+        PerfDataset first = generate(7);
+        PerfDataset second = generate(7);
+
+        assertThat(titles(second)).isEqualTo(titles(first));
+        assertThat(second.getAddresses().getCount()).isEqualTo(first.getAddresses().getCount());
+        assertThat(second.getProducts().getFirst()).isGreaterThan(first.getProducts().get(PRODUCTS - 1));
+    }
+
+    @Test
+    public void idsAreAllocatedAfterTheDataset() throws SQLException {
+        PerfDataset dataset = generate(42);
+
+        Product product = new Product();
+        product.setTitle("AAAAAAAAAA");
+        product = productRepository.saveAndFlush(product);
+        productIds.add(product.getId());
+
+        assertThat(product.getId()).isGreaterThan(dataset.getProducts().get(PRODUCTS - 1));
+    }
+
+    @Test
+    public void invalidSizeIsRejected() {
+        assertThatThrownBy(() -> new PerfDatasetGenerator(42, 100).generate(null, 10, 0, 10, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PerfDataset generate(long seed) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PerfDataset dataset = new PerfDatasetGenerator(seed, 100).generate(connection, CATEGORIES, CATEGORY_DEPTH, PRODUCTS, CUSTOMERS);
+            datasets.add(dataset);
+            return dataset;
+        }
+    }
+
+    private List<String> titles(PerfDataset dataset) {
+        return jdbcTemplate.queryForList("select title from product where id between ? and ? order by id", String.class,
+            dataset.getProducts().getFirst(), dataset.getProducts().get(PRODUCTS - 1));
+    }
+
+    private long count(String table, String column, IdRange ids) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where " + column + " between ? and ?", Long.class,
+            ids.getFirst(), ids.getFirst() + ids.getCount() - 1);
+    }
+
+    private void delete(PerfDataset dataset) {
+        delete("category_product", "product_id", dataset.getProducts());
+        delete("product", "id", dataset.getProducts());
+        delete("address", "id", dataset.getAddresses());
+        delete("wish_list", "id", dataset.getWishLists());
+        delete("customer", "id", dataset.getCustomers());
+        jdbcTemplate.update("update category set parent_id = null where id between ? and ?",
+            dataset.getCategories().getFirst(), dataset.getCategories().get(CATEGORIES - 1));
+        delete("category", "id", dataset.getCategories());
+    }
+
+    private void delete(String table, String column, IdRange ids) {
+        jdbcTemplate.update("delete from " + table + " where " + column + " between ? and ?",
+            ids.getFirst(), ids.getFirst() + ids.getCount() - 1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.myapp.domain;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.web.rest.ProductResourceIT;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the ids allocated from the {@link IdGenerators#TABLE_NAME} table.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class, properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=25",
+    "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Transactional
+public class IdGeneratorsIT {
+
+    private static final int PRODUCTS = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void idsAreAllocatedInBlocksAfterTheExistingIds() {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from product", Long.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(ProductResourceIT.createEntity(em));
+        }
+
+        productRepository.saveAll(products);
+        em.flush();
+
+        long nextValue = jdbcTemplate.queryForObject(
+            "select next_val from " + IdGenerators.TABLE_NAME + " where sequence_name = 'product'", Long.class);
+        long firstId = products.get(0).getId();
+        long lastId = products.get(PRODUCTS - 1).getId();
+        assertThat(firstId).isGreaterThan(maxId);
+        for (int i = 0; i < PRODUCTS; i++) {
+            assertThat(products.get(i).getId()).isEqualTo(firstId + i);
+        }
+        assertThat(lastId).isLessThan(nextValue);
+        assertThat(lastId).isGreaterThanOrEqualTo(nextValue - Long.parseLong(IdGenerators.INCREMENT_SIZE));
+    }
+
+    @Test
+    public void insertsAreBatched() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(ProductResourceIT.createEntity(em));
+        }
+        productRepository.saveAll(products);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
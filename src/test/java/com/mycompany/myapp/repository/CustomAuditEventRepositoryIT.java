@@ -0,0 +1,173 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.IdGenerators;
+import com.mycompany.myapp.domain.PersistentAuditEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.mycompany.myapp.repository.CustomAuditEventRepository.EVENT_DATA_COLUMN_MAX_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Integration tests for {@link CustomAuditEventRepository} and its {@link AuditEventWriter}.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+public class CustomAuditEventRepositoryIT {
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private CustomAuditEventRepository customAuditEventRepository;
+
+    @Autowired
+    private AuditEventWriter auditEventWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanUp() {
+        auditEventWriter.flush();
+        persistenceAuditEventRepository.deleteAll();
+    }
+
+    @Test
+    public void addAuditEvent() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("test-key", "test-value");
+        Instant timestamp = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        AuditEvent event = new AuditEvent(timestamp, "test-user", "test-type", data);
+
+        customAuditEventRepository.add(event);
+        auditEventWriter.flush();
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
+            assertThat(persistentAuditEvents).hasSize(1);
+            PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
+            assertThat(persistentAuditEvent.getPrincipal()).isEqualTo(event.getPrincipal());
+            assertThat(persistentAuditEvent.getAuditEventType()).isEqualTo(event.getType());
+            assertThat(persistentAuditEvent.getAuditEventDate()).isEqualTo(timestamp);
+            assertThat(persistentAuditEvent.getData()).containsOnly(entry("test-key", "test-value"));
+            return null;
+        });
+        assertThat(customAuditEventRepository.find("test-user", timestamp.minusSeconds(1), "test-type")).hasSize(1);
+    }
+
+    @Test
+    public void addAuditEventTruncateLargeData() {
+        Map<String, Object> data = new HashMap<>();
+        StringBuilder largeData = new StringBuilder();
+        for (int i = 0; i < EVENT_DATA_COLUMN_MAX_LENGTH + 10; i++) {
+            largeData.append("a");
+        }
+        data.put("test-key", largeData);
+
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", data));
+        auditEventWriter.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select value from jhi_persistent_audit_evt_data", String.class))
+            .hasSize(EVENT_DATA_COLUMN_MAX_LENGTH);
+    }
+
+    @Test
+    public void anonymousAndAuthorizationFailureEventsAreIgnored() {
+        customAuditEventRepository.add(new AuditEvent(Constants.ANONYMOUS_USER, "test-type", new HashMap<>()));
+        customAuditEventRepository.add(new AuditEvent("test-user", "AUTHORIZATION_FAILURE", new HashMap<>()));
+        auditEventWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.count()).isZero();
+    }
+
+    @Test
+    public void eventsAreWrittenInBatches() {
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+        auditEventWriter.flush();
+        long maxId = jdbcTemplate.queryForObject("select max(event_id) from jhi_persistent_audit_event", Long.class);
+        long nextId = nextEventId();
+        double failed = writeFailed();
+        // The segment is past the existing events
+        assertThat(nextId).isGreaterThan(maxId);
+
+        // Three batches of at most application.audit-events.batch-size events
+        for (int i = 0; i < 450; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("index", i);
+            data.put("even", i % 2 == 0);
+            customAuditEventRepository.add(new AuditEvent("test-user", "test-type", data));
+        }
+        auditEventWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.count()).isEqualTo(451);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_persistent_audit_evt_data", Long.class)).isEqualTo(900);
+        // Every batch got its own ids, following each other from the segment
+        assertThat(jdbcTemplate.queryForObject("select min(event_id) from jhi_persistent_audit_event where event_id > ?",
+            Long.class, maxId)).isEqualTo(nextId);
+        assertThat(jdbcTemplate.queryForObject("select max(event_id) from jhi_persistent_audit_event", Long.class))
+            .isEqualTo(nextId + 449);
+        assertThat(nextEventId()).isEqualTo(nextId + 450);
+        assertThat(writeFailed()).isEqualTo(failed);
+    }
+
+    @Test
+    public void eventsAreDroppedWhenTheQueueIsFull() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditEvents().setQueueCapacity(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Not started, so the queue is only drained by flush
+        AuditEventWriter writer = new AuditEventWriter(jdbcTemplate, transactionManager, meterRegistry, applicationProperties);
+
+        assertThat(writer.enqueue(event("first"))).isTrue();
+        assertThat(writer.enqueue(event("second"))).isFalse();
+        assertThat(meterRegistry.get("audit.events.queued").gauge().value()).isEqualTo(1);
+        writer.flush();
+
+        assertThat(persistenceAuditEventRepository.findByPrincipal("first")).hasSize(1);
+        assertThat(meterRegistry.get("audit.events.queued").gauge().value()).isZero();
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.dropped").tag("reason", "queue-full").counter().count()).isEqualTo(1);
+    }
+
+    private long nextEventId() {
+        return jdbcTemplate.queryForObject("select next_val from " + IdGenerators.TABLE_NAME + " where sequence_name = ?",
+            Long.class, PersistentAuditEvent.ID_SEGMENT);
+    }
+
+    private double writeFailed() {
+        return meterRegistry.get("audit.events.dropped").tag("reason", "write-failed").counter().count();
+    }
+
+    private static PersistentAuditEvent event(String principal) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType("test-type");
+        event.setAuditEventDate(Instant.now());
+        return event;
+    }
+}
@@ -2,10 +2,9 @@ package com.mycompany.myapp.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,14 +25,13 @@ public class JWTFilterTest {
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        tokenProvider = new TokenProvider(jHipsterProperties);
-        ReflectionTestUtils.setField(
-            tokenProvider,
-            "key",
-            Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
-            )
-        );
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties());
+        tokenProvider.init();
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
         jwtFilter = new JWTFilter(tokenProvider);
@@ -2,6 +2,7 @@ package com.mycompany.myapp.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.Jwts;
@@ -20,20 +21,16 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 public class TokenProviderTest {
     private static final long ONE_MINUTE = 60000;
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
 
     private Key key;
     private TokenProvider tokenProvider;
 
     @BeforeEach
     public void setup() {
-        tokenProvider = new TokenProvider(new JHipsterProperties());
-        key =
-            Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
-            );
-
-        ReflectionTestUtils.setField(tokenProvider, "key", key);
-        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
+        tokenProvider = createTokenProvider(new ApplicationProperties());
     }
 
     @Test
@@ -81,6 +78,52 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testReturnCachedAuthenticationForVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(true);
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+        Authentication other = tokenProvider.getAuthentication(token);
+        assertThat(other).isNotSameAs(authentication);
+        assertThat(other.getPrincipal()).isSameAs(authentication.getPrincipal());
+        assertThat(other.getAuthorities()).isEqualTo(authentication.getAuthorities());
+    }
+
+    @Test
+    public void testReturnFalseWhenJWTisTamperedAfterBeingCached() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(true);
+
+        String tamperedToken = token.substring(0, token.lastIndexOf('.') + 1) + createTokenWithDifferentSignature().split("\\.")[2];
+
+        assertThat(tokenProvider.validateToken(tamperedToken)).isEqualTo(false);
+    }
+
+    @Test
+    public void testVerifyEveryTokenWhenCacheIsDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwtCache().setMaxSize(0);
+        tokenProvider = createTokenProvider(applicationProperties);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(true);
+        assertThat(tokenProvider.getAuthentication(token).getPrincipal())
+            .isNotSameAs(tokenProvider.getAuthentication(token).getPrincipal());
+    }
+
+    private TokenProvider createTokenProvider(ApplicationProperties applicationProperties) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties);
+        tokenProvider.init();
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        return tokenProvider;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
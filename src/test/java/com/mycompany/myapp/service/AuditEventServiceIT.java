@@ -0,0 +1,116 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.PersistentAuditEvent;
+import com.mycompany.myapp.repository.PersistenceAuditEventRepository;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the retention purge of the {@link AuditEventService}.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+public class AuditEventServiceIT {
+
+    @Autowired
+    private AuditEventService auditEventService;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private int chunkSize;
+
+    private long throttleMillis;
+
+    @BeforeEach
+    public void init() {
+        chunkSize = applicationProperties.getAuditEvents().getPurgeChunkSize();
+        throttleMillis = applicationProperties.getAuditEvents().getPurgeThrottleMillis();
+        applicationProperties.getAuditEvents().setPurgeChunkSize(3);
+        applicationProperties.getAuditEvents().setPurgeThrottleMillis(0);
+
+        Instant expired = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod() + 1, ChronoUnit.DAYS);
+        for (int i = 0; i < 10; i++) {
+            persistenceAuditEventRepository.save(event("old-" + i, expired.plusSeconds(i)));
+        }
+        persistenceAuditEventRepository.save(event("recent", Instant.now().minus(1, ChronoUnit.DAYS)));
+        persistenceAuditEventRepository.save(event("new", Instant.now()));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        applicationProperties.getAuditEvents().setPurgeChunkSize(chunkSize);
+        applicationProperties.getAuditEvents().setPurgeThrottleMillis(throttleMillis);
+        persistenceAuditEventRepository.deleteAll();
+    }
+
+    @Test
+    public void expiredEventsArePurgedInChunks() throws Exception {
+        double purged = purgedCount();
+
+        assertThat(auditEventService.removeOldAuditEvents()).isEqualTo(10);
+
+        assertThat(persistenceAuditEventRepository.findAll())
+            .extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactlyInAnyOrder("recent", "new");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_persistent_audit_evt_data", Long.class)).isEqualTo(2);
+        assertThat(purgedCount()).isEqualTo(purged + 10);
+        assertThat(auditEventService.removeOldAuditEvents()).isZero();
+    }
+
+    @Test
+    public void purgeIsSkippedWhileAnotherNodeHoldsTheLock() throws Exception {
+        IMap<String, Object> locks = hazelcastInstance.getMap(AuditEventService.LOCK_MAP);
+        CompletableFuture.runAsync(() -> locks.lock(AuditEventService.LOCK_KEY)).get();
+        try {
+            assertThat(auditEventService.removeOldAuditEvents()).isZero();
+            assertThat(persistenceAuditEventRepository.count()).isEqualTo(12);
+        } finally {
+            locks.forceUnlock(AuditEventService.LOCK_KEY);
+        }
+    }
+
+    private double purgedCount() {
+        return meterRegistry.get("audit.events.purged").tag("table", "jhi_persistent_audit_event").counter().count();
+    }
+
+    private static PersistentAuditEvent event(String principal, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType("test-type");
+        event.setAuditEventDate(date);
+        event.getData().put("key", "value");
+        return event;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.service.dto.CategoryExpression;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link CategoryProductIndex}.
+ */
+public class CategoryProductIndexTest {
+
+    private HazelcastInstance hazelcastInstance;
+
+    private ITopic<Object> topic;
+
+    private CategoryProductIndex categoryProductIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        hazelcastInstance = mock(HazelcastInstance.class);
+        topic = mock(ITopic.class);
+        when(hazelcastInstance.getTopic(anyString())).thenReturn(topic);
+        CategoryTree categoryTree = new CategoryTree(null, hazelcastInstance);
+        // 1 -> 2, 3 and 4 are roots
+        categoryTree.update(category(1L, null));
+        categoryTree.update(category(2L, 1L));
+        categoryTree.update(category(3L, null));
+        categoryTree.update(category(4L, null));
+        categoryProductIndex = new CategoryProductIndex(null, categoryTree, hazelcastInstance);
+        categoryProductIndex.update(category(1L, null, 1L, 2L, 3L));
+        categoryProductIndex.update(category(2L, 1L, 4L));
+        categoryProductIndex.update(category(3L, null, 2L, 3L, 4L, 5L));
+        categoryProductIndex.update(category(4L, null, 3L, 6L));
+        clearInvocations(topic);
+    }
+
+    private static Category category(Long id, Long parentId, Long... productIds) {
+        Category category = new Category();
+        category.setId(id);
+        if (parentId != null) {
+            Category parent = new Category();
+            parent.setId(parentId);
+            category.setParent(parent);
+        }
+        for (Long productId : productIds) {
+            Product product = new Product();
+            product.setId(productId);
+            category.addProduct(product);
+        }
+        return category;
+    }
+
+    private CategoryProductIndex.Selection select(String expression) {
+        return categoryProductIndex.select(CategoryExpression.of(expression), false);
+    }
+
+    @Test
+    public void selectCombinedCategories() {
+        assertThat(select("1").getProductIds()).containsExactly(1L, 2L, 3L);
+        assertThat(select("1 and 3").getProductIds()).containsExactly(2L, 3L);
+        assertThat(select("1 or 4").getProductIds()).containsExactly(1L, 2L, 3L, 6L);
+        assertThat(select("1 and (3 or 4) and not 4").getProductIds()).containsExactly(2L);
+        assertThat(select("3 and not (1 or 4)").getProductIds()).containsExactly(4L, 5L);
+        assertThat(select("1 and 3").isComplement()).isFalse();
+        assertThat(select("8").getProductIds()).isEmpty();
+        assertThat(select("8").getCount()).isZero();
+    }
+
+    @Test
+    public void selectComplements() {
+        CategoryProductIndex.Selection notInFirst = select("not 1");
+        assertThat(notInFirst.isComplement()).isTrue();
+        assertThat(notInFirst.getProductIds()).containsExactly(1L, 2L, 3L);
+
+        CategoryProductIndex.Selection inNeither = select("not 1 and not 4");
+        assertThat(inNeither.isComplement()).isTrue();
+        assertThat(inNeither.getProductIds()).containsExactly(1L, 2L, 3L, 6L);
+
+        // All the products except those of 1 which are not in 3
+        CategoryProductIndex.Selection inThirdOrNotInFirst = select("3 or not 1");
+        assertThat(inThirdOrNotInFirst.isComplement()).isTrue();
+        assertThat(inThirdOrNotInFirst.getProductIds()).containsExactly(1L);
+    }
+
+    @Test
+    public void selectWithDescendants() {
+        assertThat(categoryProductIndex.select(CategoryExpression.of("1 and 3"), true).getProductIds()).containsExactly(2L, 3L, 4L);
+        assertThat(categoryProductIndex.select(CategoryExpression.of("1 and 3"), false).getProductIds()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void membershipsAreUpdated() {
+        categoryProductIndex.add(4L, Arrays.asList(1L, 7L));
+        categoryProductIndex.remove(1L, Arrays.asList(2L, 3L));
+        categoryProductIndex.deleteProduct(2L);
+        categoryProductIndex.deleteCategory(3L);
+        categoryProductIndex.update(category(2L, 1L, 7L));
+
+        assertThat(select("1").getProductIds()).containsExactly(1L);
+        assertThat(select("2").getProductIds()).containsExactly(7L);
+        assertThat(select("3").getProductIds()).isEmpty();
+        assertThat(select("4").getProductIds()).containsExactly(1L, 3L, 6L, 7L);
+        verify(topic, times(5)).publish(any());
+    }
+
+    @Test
+    public void changesDuringRebuildAreKept() {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        categoryProductIndex = new CategoryProductIndex(categoryRepository, null, hazelcastInstance);
+        // The memberships are read before the changes made while reading
+        when(categoryRepository.findAllMemberships()).thenAnswer(invocation -> {
+            categoryProductIndex.add(1L, Arrays.asList(3L));
+            categoryProductIndex.remove(1L, Arrays.asList(2L));
+            categoryProductIndex.deleteCategory(2L);
+            return Arrays.asList(membership(1L, 1L), membership(1L, 2L), membership(2L, 4L));
+        });
+
+        categoryProductIndex.rebuild();
+
+        assertThat(select("1").getProductIds()).containsExactly(1L, 3L);
+        assertThat(select("2").getProductIds()).isEmpty();
+
+        // Changes after the rebuild are applied once
+        categoryProductIndex.remove(1L, Arrays.asList(3L));
+        assertThat(select("1").getProductIds()).containsExactly(1L);
+    }
+
+    private static CategoryRepository.Membership membership(Long categoryId, Long productId) {
+        CategoryRepository.Membership membership = mock(CategoryRepository.Membership.class);
+        when(membership.getCategoryId()).thenReturn(categoryId);
+        when(membership.getProductId()).thenReturn(productId);
+        return membership;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.service.dto.CategoryTreeDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link CategoryTree}.
+ */
+public class CategoryTreeTest {
+
+    private ITopic<Object> topic;
+
+    private CategoryTree categoryTree;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        topic = mock(ITopic.class);
+        when(hazelcastInstance.getTopic(anyString())).thenReturn(topic);
+        categoryTree = new CategoryTree(null, hazelcastInstance);
+        // 1 -> (2 -> (4, 5 -> 6), 3), 7
+        categoryTree.update(category(1L, null, 1));
+        categoryTree.update(category(2L, 1L, 1));
+        categoryTree.update(category(3L, 1L, 2));
+        categoryTree.update(category(5L, 2L, 1));
+        categoryTree.update(category(4L, 2L, null));
+        categoryTree.update(category(6L, 5L, 1));
+        categoryTree.update(category(7L, null, 2));
+    }
+
+    private static Category category(Long id, Long parentId, Integer sortOrder) {
+        Category category = new Category().description("category " + id).sortOrder(sortOrder);
+        category.setId(id);
+        if (parentId != null) {
+            Category parent = new Category();
+            parent.setId(parentId);
+            category.setParent(parent);
+        }
+        return category;
+    }
+
+    @Test
+    public void treeHasSortedChildren() {
+        CategoryTreeDTO tree = categoryTree.tree(1L, null).get();
+
+        assertThat(tree.getDescription()).isEqualTo("category 1");
+        assertThat(tree.getChildren()).extracting(CategoryTreeDTO::getId).containsExactly(2L, 3L);
+        // Without sort order last
+        assertThat(tree.getChildren().get(0).getChildren()).extracting(CategoryTreeDTO::getId).containsExactly(5L, 4L);
+        assertThat(tree.getChildren().get(0).getChildren().get(0).getChildren()).extracting(CategoryTreeDTO::getId).containsExactly(6L);
+        assertThat(tree.getChildren().get(1).getChildren()).isEmpty();
+    }
+
+    @Test
+    public void treeIsCutAtTheRequestedDepth() {
+        CategoryTreeDTO tree = categoryTree.tree(1L, 1).get();
+
+        assertThat(tree.getChildren()).extracting(CategoryTreeDTO::getId).containsExactly(2L, 3L);
+        assertThat(tree.getChildren().get(0).getChildren()).isNull();
+        assertThat(categoryTree.tree(1L, 0).get().getChildren()).isNull();
+        assertThat(categoryTree.tree(8L, null)).isEmpty();
+    }
+
+    @Test
+    public void ancestorsGoFromTheRoot() {
+        assertThat(categoryTree.ancestors(6L).get()).extracting(CategoryTreeDTO::getId).containsExactly(1L, 2L, 5L);
+        assertThat(categoryTree.ancestors(1L).get()).isEmpty();
+        assertThat(categoryTree.ancestors(8L)).isEmpty();
+    }
+
+    @Test
+    public void descendantsIncludeTheCategory() {
+        assertThat(categoryTree.withDescendants(1L)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(categoryTree.withDescendants(2L)).containsExactly(2L, 4L, 5L, 6L);
+        assertThat(categoryTree.withDescendants(7L)).containsExactly(7L);
+        assertThat(categoryTree.withDescendants(8L)).containsExactly(8L);
+        assertThat(categoryTree.isInSubtree(6L, 2L)).isTrue();
+        assertThat(categoryTree.isInSubtree(2L, 2L)).isTrue();
+        assertThat(categoryTree.isInSubtree(3L, 2L)).isFalse();
+        assertThat(categoryTree.isInSubtree(2L, 6L)).isFalse();
+    }
+
+    @Test
+    public void movedAndDeletedCategoriesAreUpdated() {
+        categoryTree.update(category(5L, 3L, 1));
+        categoryTree.delete(4L);
+
+        assertThat(categoryTree.withDescendants(2L)).containsExactly(2L);
+        assertThat(categoryTree.withDescendants(3L)).containsExactly(3L, 5L, 6L);
+        assertThat(categoryTree.ancestors(6L).get()).extracting(CategoryTreeDTO::getId).containsExactly(1L, 3L, 5L);
+        assertThat(categoryTree.tree(4L, null)).isEmpty();
+        verify(topic, times(9)).publish(any());
+    }
+
+    @Test
+    public void changesDuringRebuildAreKept() {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getTopic(anyString())).thenReturn(topic);
+        CategoryTree rebuilt = new CategoryTree(categoryRepository, hazelcastInstance);
+        // The categories are read before the changes made while reading
+        when(categoryRepository.findAllTreeNodes()).thenAnswer(invocation -> {
+            rebuilt.update(category(2L, 1L, 1));
+            rebuilt.update(category(3L, 2L, 1));
+            rebuilt.delete(4L);
+            return Arrays.asList(treeNode(1L, null), treeNode(2L, null), treeNode(4L, 1L));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.withDescendants(1L)).containsExactly(1L, 2L, 3L);
+        assertThat(rebuilt.tree(4L, null)).isEmpty();
+
+        // Changes after the rebuild are applied once
+        rebuilt.delete(3L);
+        assertThat(rebuilt.withDescendants(1L)).containsExactly(1L, 2L);
+    }
+
+    private static CategoryRepository.TreeNode treeNode(Long id, Long parentId) {
+        CategoryRepository.TreeNode node = mock(CategoryRepository.TreeNode.class);
+        when(node.getId()).thenReturn(id);
+        when(node.getParentId()).thenReturn(parentId);
+        return node;
+    }
+
+    @Test
+    public void cyclesDoNotLoop() {
+        categoryTree.update(category(2L, 6L, 1));
+
+        assertThat(categoryTree.withDescendants(1L)).containsExactly(1L, 3L);
+        assertThat(categoryTree.ancestors(6L).get()).hasSizeLessThanOrEqualTo(7);
+        assertThat(categoryTree.tree(2L, null).get().getChildren()).isNull();
+    }
+}
@@ -0,0 +1,270 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.SampleonlineshopApp;
+import com.mycompany.myapp.domain.*; // for static metamodels
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.repository.CustomerRepository;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.repository.WishListRepository;
+import com.mycompany.myapp.service.dto.CategoryCriteria;
+import com.mycompany.myapp.service.dto.CategoryExpression;
+import com.mycompany.myapp.service.dto.CategoryDTO;
+import com.mycompany.myapp.service.dto.CustomerCriteria;
+import com.mycompany.myapp.service.dto.CustomerDTO;
+import com.mycompany.myapp.service.dto.ProductCriteria;
+import com.mycompany.myapp.service.dto.ProductDTO;
+import com.mycompany.myapp.service.dto.WishListCriteria;
+import com.mycompany.myapp.service.dto.WishListDTO;
+import com.mycompany.myapp.web.rest.AddressResourceIT;
+import com.mycompany.myapp.web.rest.CategoryResourceIT;
+import com.mycompany.myapp.web.rest.CustomerResourceIT;
+import com.mycompany.myapp.web.rest.ProductResourceIT;
+import com.mycompany.myapp.web.rest.WishListResourceIT;
+
+import io.github.jhipster.service.QueryService;
+import io.github.jhipster.service.filter.LongFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests checking that the to-many filters of the {@code *QueryService}s, read through semi-joins,
+ * find the same entities as the {@code LEFT JOIN} filters they replace.
+ */
+@SpringBootTest(classes = SampleonlineshopApp.class)
+@Transactional
+public class CollectionFilterIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private WishListRepository wishListRepository;
+
+    @Autowired
+    private ProductQueryService productQueryService;
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private CategoryQueryService categoryQueryService;
+
+    @Autowired
+    private CustomerQueryService customerQueryService;
+
+    @Autowired
+    private WishListQueryService wishListQueryService;
+
+    private Product[] products;
+
+    private Category[] categories;
+
+    private Customer[] customers;
+
+    private WishList[] wishLists;
+
+    private Address[] addresses;
+
+    @BeforeEach
+    public void initTest() {
+        customers = new Customer[] { persist(CustomerResourceIT.createEntity(em)), persist(CustomerResourceIT.createEntity(em)),
+            persist(CustomerResourceIT.createEntity(em)) };
+        wishLists = new WishList[] { persist(WishListResourceIT.createEntity(em).customer(customers[0])),
+            persist(WishListResourceIT.createEntity(em).customer(customers[0])),
+            persist(WishListResourceIT.createEntity(em).customer(customers[1])) };
+        addresses = new Address[] { persist(AddressResourceIT.createEntity(em).customer(customers[0])),
+            persist(AddressResourceIT.createEntity(em).customer(customers[0])),
+            persist(AddressResourceIT.createEntity(em).customer(customers[1])) };
+        products = new Product[] { persist(ProductResourceIT.createEntity(em).wishList(wishLists[0])),
+            persist(ProductResourceIT.createEntity(em).wishList(wishLists[2])),
+            persist(ProductResourceIT.createEntity(em).wishList(wishLists[0])),
+            persist(ProductResourceIT.createEntity(em)) };
+        categories = new Category[] { persist(CategoryResourceIT.createEntity(em).addProduct(products[0]).addProduct(products[1])),
+            persist(CategoryResourceIT.createEntity(em).addProduct(products[1])),
+            persist(CategoryResourceIT.createEntity(em)),
+            persist(CategoryResourceIT.createEntity(em).addProduct(products[3])) };
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void productsByCategory() {
+        for (Supplier<LongFilter> filter : filters(categories[0].getId(), categories[1].getId())) {
+            ProductCriteria criteria = new ProductCriteria();
+            criteria.setCategoryId(filter.get());
+            assertSameEntities(productRepository, Product::getId,
+                new LeftJoins<Product>().filter(filter.get(), root -> root.join(Product_.categories, JoinType.LEFT).get(Category_.id)),
+                ids(productQueryService.findByCriteria(criteria), ProductDTO::getId),
+                productQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(ProductDTO::getId));
+        }
+    }
+
+    @Test
+    public void categoriesByProduct() {
+        for (Supplier<LongFilter> filter : filters(products[0].getId(), products[1].getId())) {
+            CategoryCriteria criteria = new CategoryCriteria();
+            criteria.setProductId(filter.get());
+            assertSameEntities(categoryRepository, Category::getId,
+                new LeftJoins<Category>().filter(filter.get(), root -> root.join(Category_.products, JoinType.LEFT).get(Product_.id)),
+                ids(categoryQueryService.findByCriteria(criteria), CategoryDTO::getId),
+                categoryQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(CategoryDTO::getId));
+        }
+    }
+
+    @Test
+    public void customersByWishList() {
+        for (Supplier<LongFilter> filter : filters(wishLists[0].getId(), wishLists[1].getId())) {
+            CustomerCriteria criteria = new CustomerCriteria();
+            criteria.setWishListId(filter.get());
+            assertSameEntities(customerRepository, Customer::getId,
+                new LeftJoins<Customer>().filter(filter.get(), root -> root.join(Customer_.wishLists, JoinType.LEFT).get(WishList_.id)),
+                ids(customerQueryService.findByCriteria(criteria), CustomerDTO::getId),
+                customerQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(CustomerDTO::getId));
+        }
+    }
+
+    @Test
+    public void customersByAddress() {
+        for (Supplier<LongFilter> filter : filters(addresses[0].getId(), addresses[1].getId())) {
+            CustomerCriteria criteria = new CustomerCriteria();
+            criteria.setAddressId(filter.get());
+            assertSameEntities(customerRepository, Customer::getId,
+                new LeftJoins<Customer>().filter(filter.get(), root -> root.join(Customer_.addresses, JoinType.LEFT).get(Address_.id)),
+                ids(customerQueryService.findByCriteria(criteria), CustomerDTO::getId),
+                customerQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(CustomerDTO::getId));
+        }
+    }
+
+    @Test
+    public void wishListsByProduct() {
+        for (Supplier<LongFilter> filter : filters(products[0].getId(), products[2].getId())) {
+            WishListCriteria criteria = new WishListCriteria();
+            criteria.setProductId(filter.get());
+            assertSameEntities(wishListRepository, WishList::getId,
+                new LeftJoins<WishList>().filter(filter.get(), root -> root.join(WishList_.products, JoinType.LEFT).get(Product_.id)),
+                ids(wishListQueryService.findByCriteria(criteria), WishListDTO::getId),
+                wishListQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(WishListDTO::getId));
+        }
+    }
+
+    @Test
+    public void productsByCategoryExpressionAboveTheIndexedIds() {
+        Category large = em.find(Category.class, categories[2].getId());
+        List<Long> largeIds = new ArrayList<>();
+        large.addProduct(em.find(Product.class, products[0].getId()));
+        largeIds.add(products[0].getId());
+        for (int i = 0; i < ProductQueryService.MAX_INDEXED_IDS; i++) {
+            Product product = persist(ProductResourceIT.createEntity(em));
+            large.addProduct(product);
+            largeIds.add(product.getId());
+        }
+        em.flush();
+        categoryProductIndex.rebuild();
+        List<Long> allIds = ids(productRepository.findAll(), Product::getId);
+        List<Long> notLargeIds = new ArrayList<>(allIds);
+        notLargeIds.removeAll(largeIds);
+        List<Long> largeOrFirstIds = new ArrayList<>(largeIds);
+        largeOrFirstIds.add(products[1].getId());
+        List<Long> largeAndNotFirstIds = new ArrayList<>(largeIds);
+        largeAndNotFirstIds.remove(products[0].getId());
+
+        assertSameProducts(large.getId() + "", largeIds);
+        assertSameProducts("not " + large.getId(), notLargeIds);
+        assertSameProducts(large.getId() + " or " + categories[0].getId(), largeOrFirstIds);
+        assertSameProducts(large.getId() + " and not " + categories[0].getId(), largeAndNotFirstIds);
+    }
+
+    private void assertSameProducts(String expression, List<Long> expected) {
+        ProductCriteria criteria = new ProductCriteria();
+        criteria.setCategoryExpression(CategoryExpression.of(expression));
+        assertThat(ids(productQueryService.findByCriteria(criteria), ProductDTO::getId))
+            .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void combinedCollectionFilters() {
+        CustomerCriteria criteria = new CustomerCriteria();
+        criteria.setWishListId(filters(wishLists[0].getId(), wishLists[2].getId()).get(2).get());
+        criteria.setAddressId(filters(addresses[0].getId(), addresses[1].getId()).get(4).get());
+        Specification<Customer> joined = new LeftJoins<Customer>()
+            .filter(criteria.getWishListId(), root -> root.join(Customer_.wishLists, JoinType.LEFT).get(WishList_.id))
+            .and(new LeftJoins<Customer>().filter(criteria.getAddressId(), root -> root.join(Customer_.addresses, JoinType.LEFT).get(Address_.id)));
+
+        assertSameEntities(customerRepository, Customer::getId, joined,
+            ids(customerQueryService.findByCriteria(criteria), CustomerDTO::getId),
+            customerQueryService.findByCriteria(criteria, PageRequest.of(0, 100)).map(CustomerDTO::getId));
+    }
+
+    private <E> void assertSameEntities(JpaSpecificationExecutor<E> repository, Function<E, Long> id, Specification<E> joined,
+            List<Long> found, Page<Long> page) {
+        List<Long> expected = repository.findAll(joined).stream().map(id).distinct().sorted().collect(Collectors.toList());
+        assertThat(found.stream().sorted().collect(Collectors.toList())).isEqualTo(expected);
+        assertThat(page.getContent().stream().sorted().collect(Collectors.toList())).isEqualTo(expected);
+        assertThat(page.getTotalElements()).isEqualTo(expected.size());
+    }
+
+    private static <T> List<Long> ids(List<T> dtos, Function<T, Long> id) {
+        return dtos.stream().map(id).collect(Collectors.toList());
+    }
+
+    /**
+     * Filters on the ids of the elements of a collection, covering every condition of a {@link LongFilter}.
+     */
+    private static List<Supplier<LongFilter>> filters(Long first, Long second) {
+        return Arrays.asList(
+            () -> (LongFilter) new LongFilter().setEquals(first),
+            () -> (LongFilter) new LongFilter().setNotEquals(first),
+            () -> (LongFilter) new LongFilter().setIn(Arrays.asList(first, second)),
+            () -> (LongFilter) new LongFilter().setNotIn(Arrays.asList(first, second)),
+            () -> (LongFilter) new LongFilter().setSpecified(true),
+            () -> (LongFilter) new LongFilter().setSpecified(false),
+            () -> (LongFilter) new LongFilter().setGreaterThan(first),
+            () -> (LongFilter) new LongFilter().setGreaterThanOrEqual(first).setLessThanOrEqual(second),
+            () -> (LongFilter) new LongFilter().setEquals(second).setSpecified(true)
+        );
+    }
+
+    private <E> E persist(E entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    /**
+     * The {@code LEFT JOIN} filters the query services used to build.
+     */
+    private static final class LeftJoins<E> extends QueryService<E> {
+
+        private Specification<E> filter(LongFilter filter, Function<Root<E>, Expression<Long>> path) {
+            return buildSpecification(filter, path);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.dto.CustomerCriteria;
+import com.mycompany.myapp.service.dto.ProductCriteria;
+
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link CountCache}.
+ */
+public class CountCacheTest {
+
+    @Test
+    public void sameCriteriaSharesCount() {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+        AtomicLong counter = new AtomicLong();
+
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.count(titleCriteria("b"), counter::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void staleCountIsServedWhileRefreshed() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCountCache().setRefreshAfterSeconds(0);
+        CountCache countCache = new CountCache(applicationProperties, Runnable::run);
+        AtomicLong counter = new AtomicLong();
+
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(1);
+        // The stale value is returned, the refreshed one is served next time
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void leastRecentlyUsedCountIsEvicted() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCountCache().setMaxEntries(1);
+        CountCache countCache = new CountCache(applicationProperties, Runnable::run);
+        AtomicLong counter = new AtomicLong();
+
+        countCache.count(titleCriteria("a"), counter::incrementAndGet);
+        countCache.count(titleCriteria("b"), counter::incrementAndGet);
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    public void cachedCriteriaIsNotChangedByCaller() {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+        AtomicLong counter = new AtomicLong();
+        ProductCriteria criteria = titleCriteria("a");
+
+        countCache.count(criteria, counter::incrementAndGet);
+        criteria.getTitle().setEquals("b");
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    public void countsAreCachedPerCriteriaAndQualifier() {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+        AtomicLong counter = new AtomicLong();
+
+        assertThat(countCache.counts(titleCriteria("a"), "rating", () -> "counts " + counter.incrementAndGet())).isEqualTo("counts 1");
+        assertThat(countCache.counts(titleCriteria("a"), "rating", () -> "counts " + counter.incrementAndGet())).isEqualTo("counts 1");
+        assertThat(countCache.counts(titleCriteria("a"), "dateAdded", () -> "counts " + counter.incrementAndGet())).isEqualTo("counts 2");
+        assertThat(countCache.count(titleCriteria("a"), counter::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    public void criteriaWrittenDifferentlyShareCount() {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+        AtomicLong counter = new AtomicLong();
+        CustomerCriteria criteria = new CustomerCriteria();
+        criteria.setId((LongFilter) new LongFilter().setIn(Arrays.asList(1L, 2L)));
+        CustomerCriteria reordered = new CustomerCriteria();
+        reordered.setId((LongFilter) new LongFilter().setIn(Arrays.asList(2L, 1L, 2L)));
+        reordered.setFirstName(new StringFilter());
+
+        assertThat(countCache.count(criteria, counter::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.count(reordered, counter::incrementAndGet)).isEqualTo(1);
+        assertThat(CountCache.normalize(reordered).getId().getIn()).containsExactly(1L, 2L);
+        assertThat(CountCache.normalize(reordered).getFirstName()).isNull();
+        // The criteria is copied
+        assertThat(reordered.getId().getIn()).containsExactly(2L, 1L, 2L);
+    }
+
+    @Test
+    public void concurrentMissesCountOnce() throws Exception {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+        AtomicLong counter = new AtomicLong();
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> countCache.count(titleCriteria("a"), () -> {
+            counting.countDown();
+            await(release);
+            return counter.incrementAndGet();
+        }));
+        assertThat(counting.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> countCache.count(titleCriteria("a"),
+            counter::incrementAndGet));
+        // The second request waits for the count of the first one instead of counting
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(counter.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void failedCountIsNotCached() {
+        CountCache countCache = new CountCache(new ApplicationProperties(), Runnable::run);
+
+        assertThatThrownBy(() -> countCache.count(titleCriteria("a"), () -> {
+            throw new IllegalStateException("Database down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(countCache.count(titleCriteria("a"), () -> 1L)).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ProductCriteria titleCriteria(String title) {
+        ProductCriteria criteria = new ProductCriteria();
+        StringFilter filter = new StringFilter();
+        filter.setEquals(title);
+        criteria.setTitle(filter);
+        return criteria;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.ProductCriteria;
+
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ProductQueryService}.
+ */
+public class ProductQueryServiceTest {
+
+    @Test
+    public void normalizedCriteriaAreEqualWhateverTheOrderOfTheValues() {
+        ProductCriteria criteria = new ProductCriteria();
+        LongFilter categoryId = new LongFilter();
+        categoryId.setIn(Arrays.asList(3L, 1L, 3L, 2L));
+        criteria.setCategoryId(categoryId);
+        StringFilter title = new StringFilter();
+        title.setNotIn(Arrays.asList("b", "a"));
+        criteria.setTitle(title);
+
+        ProductCriteria normalized = ProductQueryService.normalize(criteria);
+
+        assertThat(normalized.getCategoryId().getIn()).containsExactly(1L, 2L, 3L);
+        assertThat(normalized.getTitle().getNotIn()).containsExactly("a", "b");
+        // The criteria is copied
+        assertThat(criteria.getCategoryId().getIn()).containsExactly(3L, 1L, 3L, 2L);
+        assertThat(ProductQueryService.normalize(null)).isEqualTo(new ProductCriteria());
+    }
+}
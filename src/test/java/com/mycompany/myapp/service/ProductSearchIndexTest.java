@@ -0,0 +1,207 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link ProductSearchIndex}.
+ */
+public class ProductSearchIndexTest {
+
+    private HazelcastInstance hazelcastInstance;
+
+    private ITopic<Object> topic;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        hazelcastInstance = mock(HazelcastInstance.class);
+        topic = mock(ITopic.class);
+        when(hazelcastInstance.getTopic(anyString())).thenReturn(topic);
+        productSearchIndex = new ProductSearchIndex(null, hazelcastInstance);
+    }
+
+    @Test
+    public void tokenizeIgnoresCaseAndPunctuation() {
+        assertThat(ProductSearchIndex.tokenize("Red-shoes, red SHOES!"))
+            .containsEntry("red", 2)
+            .containsEntry("shoes", 2)
+            .hasSize(2);
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    public void searchMatchesAllTerms() {
+        productSearchIndex.index(product(1L, "Red shoes", null, null, 0));
+        productSearchIndex.index(product(2L, "Blue shoes", null, null, 0));
+
+        assertThat(productSearchIndex.search("shoes red", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+        assertThat(productSearchIndex.search("shoes green", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(productSearchIndex.search(" ", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    public void searchRanksByTermFrequencyAndRating() {
+        productSearchIndex.index(product(1L, "Hat", null, "a shoe rack", 0));
+        productSearchIndex.index(product(2L, "Shoe", null, null, 0));
+        productSearchIndex.index(product(3L, "Sandal", "shoe", "shoe", 0));
+        productSearchIndex.index(product(4L, "Boot", null, "shoe", 4));
+
+        assertThat(productSearchIndex.search("shoe", PageRequest.of(0, 10)).getContent()).containsExactly(4L, 2L, 3L, 1L);
+    }
+
+    @Test
+    public void searchKeepsProductsWithNegativeRatings() {
+        productSearchIndex.index(product(1L, "Red shoes", null, null, -20));
+        productSearchIndex.index(product(2L, "Red hat", null, null, -20));
+
+        Page<Long> page = productSearchIndex.search("red shoes", PageRequest.of(0, 10));
+        assertThat(page.getContent()).containsExactly(1L);
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    public void searchIsPaginated() {
+        for (long id = 1; id <= 5; id++) {
+            productSearchIndex.index(product(id, "Shoe", null, null, 0));
+        }
+
+        Page<Long> page = productSearchIndex.search("shoe", PageRequest.of(1, 2));
+        assertThat(page.getContent()).containsExactly(3L, 4L);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    public void reindexAndDeleteReplaceTerms() {
+        productSearchIndex.index(product(1L, "Red shoes", null, null, 0));
+        productSearchIndex.index(product(1L, "Blue shoes", null, null, 0));
+
+        assertThat(productSearchIndex.search("red", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(productSearchIndex.search("blue", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+
+        productSearchIndex.delete(1L);
+        assertThat(productSearchIndex.search("shoes", PageRequest.of(0, 10)).getContent()).isEmpty();
+        verify(topic, times(3)).publish(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void changesOfOtherNodesAreApplied() {
+        ArgumentCaptor<MessageListener<Object>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addMessageListener(listener.capture());
+        Member otherNode = mock(Member.class);
+        ProductSearchIndex.Change indexed = new ProductSearchIndex.Change(Collections.singletonList(
+            new ProductSearchIndex.Change.Indexed(1L, "Red shoes", null, null, 0)), null);
+
+        listener.getValue().onMessage(new Message<Object>(ProductSearchIndex.CHANGE_TOPIC, indexed, 0, otherNode));
+        assertThat(productSearchIndex.search("red", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+
+        listener.getValue().onMessage(new Message<Object>(ProductSearchIndex.CHANGE_TOPIC,
+            new ProductSearchIndex.Change(Collections.emptyList(), 1L), 0, otherNode));
+        assertThat(productSearchIndex.search("red", PageRequest.of(0, 10)).getContent()).isEmpty();
+        verify(topic, never()).publish(any());
+    }
+
+    @Test
+    public void rebuildReadsChunksAfterTheLastId() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        List<ProductRepository.SearchableProduct> firstChunk = LongStream.rangeClosed(1, ProductSearchIndex.REBUILD_CHUNK_SIZE)
+            .mapToObj(id -> searchable(id, "Shoe"))
+            .collect(Collectors.toList());
+        long lastId = ProductSearchIndex.REBUILD_CHUNK_SIZE;
+        when(productRepository.findSearchableAfter(eq(Long.MIN_VALUE), any())).thenReturn(firstChunk);
+        when(productRepository.findSearchableAfter(eq(lastId), any()))
+            .thenReturn(Collections.singletonList(searchable(lastId + 1, "Red shoe")));
+        productSearchIndex = new ProductSearchIndex(productRepository, hazelcastInstance);
+
+        productSearchIndex.rebuild();
+
+        assertThat(productSearchIndex.search("shoe", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(lastId + 1);
+        assertThat(productSearchIndex.search("red", PageRequest.of(0, 10)).getContent()).containsExactly(lastId + 1);
+        verify(productRepository, times(2)).findSearchableAfter(anyLong(), any());
+    }
+
+    @Test
+    public void changesDuringRebuildAreKept() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        productSearchIndex = new ProductSearchIndex(productRepository, hazelcastInstance);
+        // The products are read before the changes made while reading
+        when(productRepository.findSearchableAfter(eq(Long.MIN_VALUE), any())).thenAnswer(invocation -> {
+            productSearchIndex.index(product(1L, "Blue shoe", null, null, 0));
+            productSearchIndex.index(product(3L, "Green shoe", null, null, 0));
+            productSearchIndex.delete(2L);
+            return Arrays.asList(searchable(1L, "Red shoe"), searchable(2L, "Red shoe"));
+        });
+
+        productSearchIndex.rebuild();
+
+        assertThat(productSearchIndex.search("shoe", PageRequest.of(0, 10)).getContent()).containsExactly(1L, 3L);
+        assertThat(productSearchIndex.search("red", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(productSearchIndex.search("blue", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+
+        // Changes after the rebuild are applied once
+        productSearchIndex.delete(3L);
+        assertThat(productSearchIndex.search("shoe", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+    }
+
+    private static ProductRepository.SearchableProduct searchable(Long id, String title) {
+        return new ProductRepository.SearchableProduct() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getKeywords() {
+                return null;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+
+            @Override
+            public Integer getRating() {
+                return null;
+            }
+        };
+    }
+
+    private static Product product(Long id, String title, String keywords, String description, Integer rating) {
+        Product product = new Product().title(title).keywords(keywords).description(description).rating(rating);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,51 @@
+package com.mycompany.myapp.service.dto;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CategoryExpressionTest {
+
+    @Test
+    public void parseWithPrecedence() {
+        assertThat(CategoryExpression.of("1 and (2 or 3) and not 4")).hasToString("1 and (2 or 3) and not 4");
+        assertThat(CategoryExpression.of("1&2|3&!4")).hasToString("1 and 2 or 3 and not 4");
+        assertThat(CategoryExpression.of("(1 | 2) & (3 | 4)")).hasToString("(1 or 2) and (3 or 4)");
+        assertThat(CategoryExpression.of("NOT (1 or 2)")).hasToString("not (1 or 2)");
+        assertThat(CategoryExpression.of("!!5")).hasToString("5");
+    }
+
+    @Test
+    public void expressionsWrittenDifferentlyAreEqual() {
+        assertThat(CategoryExpression.of("1&(2|3)")).isEqualTo(CategoryExpression.of(" 1 AND ( 2 OR 3 ) "));
+        assertThat(CategoryExpression.of("1&(2|3)").hashCode()).isEqualTo(CategoryExpression.of("1 and (2 or 3)").hashCode());
+        assertThat(CategoryExpression.of("1&2")).isNotEqualTo(CategoryExpression.of("1|2"));
+    }
+
+    @Test
+    public void evaluate() {
+        CategoryExpression expression = CategoryExpression.of("1 and (2 or 3) and not 4");
+
+        assertThat(expression.getCategoryIds()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(expression.<String>evaluate(Long::toString, operand -> "-" + operand, (left, right) -> "(" + left + "*" + right + ")",
+            (left, right) -> "(" + left + "+" + right + ")")).isEqualTo("((1*(2+3))*-4)");
+        assertThat(expression.<Boolean>evaluate(id -> id != 3L && id != 4L, operand -> !operand, Boolean::logicalAnd,
+            Boolean::logicalOr)).isTrue();
+    }
+
+    @Test
+    public void rejectMalformedExpressions() {
+        assertThatThrownBy(() -> CategoryExpression.of("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of("1 and")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of("(1 or 2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of("1 2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of("1 xor 2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of("99999999999999999999")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of(StringUtils.repeat("(", 100) + "1" + StringUtils.repeat(")", 100)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CategoryExpression.of(StringUtils.repeat("1 or ", 300) + "1"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
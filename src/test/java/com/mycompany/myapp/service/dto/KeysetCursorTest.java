@@ -0,0 +1,38 @@
+package com.mycompany.myapp.service.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void encodeAndDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor("title", Sort.Direction.DESC, "a,b:c", 42L);
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    public void encodeAndDecodeNullValue() {
+        KeysetCursor cursor = new KeysetCursor("rating", Sort.Direction.ASC, null, 7L);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.getValue()).isNull();
+    }
+
+    @Test
+    public void encodeAndDecodeEmptyValue() {
+        KeysetCursor cursor = new KeysetCursor("keywords", Sort.Direction.ASC, "", 7L);
+        assertThat(KeysetCursor.decode(cursor.encode()).getValue()).isEmpty();
+    }
+
+    @Test
+    public void decodeRejectsMalformedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("dGl0bGU")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(new KeysetCursor("id", Sort.Direction.ASC, "1", 1L).encode().substring(2)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
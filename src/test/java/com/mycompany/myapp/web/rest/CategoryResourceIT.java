@@ -6,6 +6,7 @@ import com.mycompany.myapp.domain.Category;
 import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.repository.CategoryRepository;
 import com.mycompany.myapp.service.CategoryService;
+import com.mycompany.myapp.service.CategoryTree;
 import com.mycompany.myapp.service.dto.CategoryDTO;
 import com.mycompany.myapp.service.mapper.CategoryMapper;
 import com.mycompany.myapp.service.dto.CategoryCriteria;
@@ -24,16 +25,29 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import javax.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -68,6 +82,9 @@ public class CategoryResourceIT {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private CategoryRepository categoryRepositoryMock;
 
@@ -83,6 +100,9 @@ public class CategoryResourceIT {
     @Autowired
     private CategoryQueryService categoryQueryService;
 
+    @Autowired
+    private CategoryTree categoryTree;
+
     @Autowired
     private EntityManager em;
 
@@ -208,6 +228,57 @@ public class CategoryResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
     
+    @Test
+    @Transactional
+    public void getAllCategoriesWithParentAndProducts() throws Exception {
+        // Initialize the database
+        Category parent = createEntity(em);
+        em.persist(parent);
+        Product first = ProductResourceIT.createEntity(em);
+        Product second = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        categoryRepository.saveAndFlush(category.parent(parent).addProduct(first).addProduct(second));
+        em.clear();
+
+        // Get the category with its parent id and products, whatever the pagination mode
+        for (String mode : new String[] { "", "&count=approximate", "&count=none", "&after=" }) {
+            restCategoryMockMvc.perform(get("/api/categories?id.equals=" + category.getId() + mode))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(category.getId().intValue())))
+                .andExpect(jsonPath("$.[0].parentId").value(parent.getId().intValue()))
+                .andExpect(jsonPath("$.[0].products.[*].id").value(containsInAnyOrder(first.getId().intValue(), second.getId().intValue())))
+                .andExpect(jsonPath("$.[0].products.[*].title").value(hasItem(first.getTitle())));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void getAllCategoriesWithEagerRelationships() throws Exception {
+        // Initialize the database
+        Product first = ProductResourceIT.createEntity(em);
+        Product second = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        category.addProduct(first).addProduct(second);
+        categoryRepository.saveAndFlush(category);
+        Category other = createEntity(em).addProduct(first);
+        categoryRepository.saveAndFlush(other);
+        em.clear();
+
+        // Get one page of categories with their products
+        restCategoryMockMvc.perform(get("/api/categories?eagerload=true&sort=id,desc&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", String.valueOf(categoryRepository.count())))
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue())))
+            .andExpect(jsonPath("$.[0].products.[*].id").value(contains(first.getId().intValue())));
+
+        restCategoryMockMvc.perform(get("/api/categories?eagerload=true&sort=id,desc&size=1&page=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(category.getId().intValue())))
+            .andExpect(jsonPath("$.[0].products.[*].id").value(containsInAnyOrder(first.getId().intValue(), second.getId().intValue())));
+    }
+
     @SuppressWarnings({"unchecked"})
     public void getAllCategoriesWithEagerRelationshipsIsEnabled() throws Exception {
         when(categoryServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -796,6 +867,91 @@ public class CategoryResourceIT {
             .andExpect(status().isNotFound());
     }
 
+    /**
+     * Saves the default category with a child and a grandchild, and rebuilds the category tree.
+     *
+     * @return the child and the grandchild.
+     */
+    private Category[] createSubCategories() {
+        categoryRepository.saveAndFlush(category);
+        Category child = createEntity(em).description("child").parent(category);
+        categoryRepository.saveAndFlush(child);
+        Category grandchild = createEntity(em).description("grandchild").parent(child);
+        categoryRepository.saveAndFlush(grandchild);
+        categoryTree.rebuild();
+        return new Category[] { child, grandchild };
+    }
+
+    @Test
+    @Transactional
+    public void getCategoryTree() throws Exception {
+        Category[] subCategories = createSubCategories();
+
+        restCategoryMockMvc.perform(get("/api/categories/{id}/tree", category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(category.getId().intValue()))
+            .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION))
+            .andExpect(jsonPath("$.children.[*].id").value(contains(subCategories[0].getId().intValue())))
+            .andExpect(jsonPath("$.children[0].children.[*].id").value(contains(subCategories[1].getId().intValue())))
+            .andExpect(jsonPath("$.children[0].children[0].children").isEmpty());
+
+        restCategoryMockMvc.perform(get("/api/categories/{id}/tree?depth=1", category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.children.[*].id").value(contains(subCategories[0].getId().intValue())))
+            .andExpect(jsonPath("$.children[0].children").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getCategoryTreeWithNegativeDepth() throws Exception {
+        createSubCategories();
+
+        restCategoryMockMvc.perform(get("/api/categories/{id}/tree?depth=-1", category.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getCategoryAncestors() throws Exception {
+        Category[] subCategories = createSubCategories();
+
+        restCategoryMockMvc.perform(get("/api/categories/{id}/ancestors", subCategories[1].getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(category.getId().intValue(), subCategories[0].getId().intValue())))
+            .andExpect(jsonPath("$.[*].description").value(contains(DEFAULT_DESCRIPTION, "child")))
+            .andExpect(jsonPath("$[0].children").doesNotExist());
+
+        restCategoryMockMvc.perform(get("/api/categories/{id}/ancestors", category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void getTreeAndAncestorsOfNonExistingCategory() throws Exception {
+        restCategoryMockMvc.perform(get("/api/categories/{id}/tree", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+        restCategoryMockMvc.perform(get("/api/categories/{id}/ancestors", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void updateCategoryUnderItsDescendant() throws Exception {
+        Category[] subCategories = createSubCategories();
+        CategoryDTO categoryDTO = categoryMapper.toDto(category);
+        categoryDTO.setParentId(subCategories[1].getId());
+
+        restCategoryMockMvc.perform(put("/api/categories")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(categoryDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(categoryRepository.findById(category.getId()).get().getParent()).isNull();
+    }
+
     @Test
     @Transactional
     public void updateCategory() throws Exception {
@@ -851,6 +1007,188 @@ public class CategoryResourceIT {
         assertThat(categoryList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void getAllCategoriesInKeysetModeSortedByEnum() throws Exception {
+        // Initialize the database
+        categoryRepository.saveAndFlush(category);
+        Category restricted = categoryRepository.saveAndFlush(createEntity(em).status(CategoryStatus.RESTRICTED));
+        Category disabled = categoryRepository.saveAndFlush(createEntity(em).status(CategoryStatus.DISABLED));
+
+        // Get the first slice, the statuses being sorted by name
+        MvcResult result = restCategoryMockMvc.perform(get("/api/categories?after=&size=2&sort=status,asc&description.equals=" + DEFAULT_DESCRIPTION))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(category.getId().intValue(), disabled.getId().intValue())))
+            .andReturn();
+
+        // Follow the next link, whose cursor holds the status of the last category
+        restCategoryMockMvc.perform(get(ProductResourceIT.nextLink(result)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(restricted.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getCategoryProducts() throws Exception {
+        // Initialize the database
+        Product first = ProductResourceIT.createEntity(em);
+        Product second = ProductResourceIT.createEntity(em);
+        Product other = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        em.persist(other);
+        categoryRepository.saveAndFlush(category.addProduct(first).addProduct(second));
+        categoryRepository.saveAndFlush(createEntity(em).addProduct(other));
+        em.clear();
+
+        // Get the products of the category, one per page
+        restCategoryMockMvc.perform(get("/api/categories/{id}/products?sort=id,asc&size=1", category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue())))
+            .andExpect(jsonPath("$.[0].title").value(first.getTitle()));
+        restCategoryMockMvc.perform(get("/api/categories/{id}/products?sort=id,asc&size=1&page=1", category.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue())));
+        restCategoryMockMvc.perform(get("/api/categories/{id}/products", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getAllCategorySummaries() throws Exception {
+        // Initialize the database
+        Product first = ProductResourceIT.createEntity(em);
+        Product second = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        categoryRepository.saveAndFlush(category.addProduct(first).addProduct(second));
+        Category empty = categoryRepository.saveAndFlush(createEntity(em).parent(category));
+        em.clear();
+
+        // Get the categories with their product count only
+        restCategoryMockMvc.perform(get("/api/categories/summaries?id.in={first},{second}&sort=id,asc", category.getId(), empty.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(contains(category.getId().intValue(), empty.getId().intValue())))
+            .andExpect(jsonPath("$.[*].productCount").value(contains(2, 0)))
+            .andExpect(jsonPath("$.[1].parentId").value(category.getId().intValue()))
+            .andExpect(jsonPath("$.[0].description").value(DEFAULT_DESCRIPTION))
+            .andExpect(jsonPath("$.[0].products").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void addAndRemoveCategoryProducts() throws Exception {
+        // Initialize the database
+        Product first = ProductResourceIT.createEntity(em);
+        Product second = ProductResourceIT.createEntity(em);
+        Product third = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        em.persist(third);
+        categoryRepository.saveAndFlush(category.addProduct(first));
+        em.clear();
+
+        // Add one product, then several, the first one again
+        restCategoryMockMvc.perform(put("/api/categories/{id}/products/{productId}", category.getId(), second.getId()))
+            .andExpect(status().isNoContent());
+        restCategoryMockMvc.perform(put("/api/categories/{id}/products", category.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(first.getId(), third.getId()))))
+            .andExpect(status().isNoContent());
+        assertThat(productIdsOf(category)).containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+
+        // Remove one product, then several, one of which is no longer in the category
+        restCategoryMockMvc.perform(delete("/api/categories/{id}/products/{productId}", category.getId(), first.getId()))
+            .andExpect(status().isNoContent());
+        restCategoryMockMvc.perform(delete("/api/categories/{id}/products", category.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(first.getId(), third.getId()))))
+            .andExpect(status().isNoContent());
+        assertThat(productIdsOf(category)).containsExactly(second.getId());
+    }
+
+    @Test
+    public void addSameCategoryProductConcurrently() throws Exception {
+        // Initialize the database, the requests being committed
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Product product = transactionTemplate.execute(status -> {
+            Product saved = ProductResourceIT.createEntity(em);
+            em.persist(saved);
+            return saved;
+        });
+        categoryRepository.saveAndFlush(category);
+        CountDownLatch firstAdded = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first request adds the product and waits before committing, the second one adds it meanwhile
+            Future<?> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                addCategoryProduct(product);
+                firstAdded.countDown();
+                try {
+                    return commitFirst.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertThat(firstAdded.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> addCategoryProduct(product));
+            Thread.sleep(200);
+            commitFirst.countDown();
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+            assertThat(productIdsOf(category)).containsExactly(product.getId());
+        } finally {
+            executor.shutdown();
+            categoryRepository.deleteById(category.getId());
+            transactionTemplate.execute(status -> {
+                em.remove(em.find(Product.class, product.getId()));
+                return null;
+            });
+        }
+    }
+
+    private Void addCategoryProduct(Product product) {
+        try {
+            // The mock user of the test is only set in its own thread
+            restCategoryMockMvc.perform(put("/api/categories/{id}/products/{productId}", category.getId(), product.getId())
+                .with(user("user")))
+                .andExpect(status().isNoContent());
+            return null;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void addUnknownCategoryProducts() throws Exception {
+        // Initialize the database
+        Product product = ProductResourceIT.createEntity(em);
+        em.persist(product);
+        categoryRepository.saveAndFlush(category);
+
+        restCategoryMockMvc.perform(put("/api/categories/{id}/products", category.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(product.getId(), Long.MAX_VALUE))))
+            .andExpect(status().isBadRequest());
+        restCategoryMockMvc.perform(put("/api/categories/{id}/products/{productId}", Long.MAX_VALUE, product.getId()))
+            .andExpect(status().isNotFound());
+        restCategoryMockMvc.perform(delete("/api/categories/{id}/products/{productId}", Long.MAX_VALUE, product.getId()))
+            .andExpect(status().isNotFound());
+        assertThat(productIdsOf(category)).isEmpty();
+    }
+
+    private List<Long> productIdsOf(Category category) {
+        em.clear();
+        return categoryRepository.findOneWithEagerRelationships(category.getId()).get().getProducts().stream()
+            .map(Product::getId)
+            .collect(Collectors.toList());
+    }
+
     @Test
     @Transactional
     public void deleteCategory() throws Exception {
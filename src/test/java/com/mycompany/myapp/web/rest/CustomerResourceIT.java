@@ -23,7 +23,11 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import java.util.List;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.web.rest.util.NdjsonUtil;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -161,6 +165,25 @@ public class CustomerResourceIT {
             .andExpect(jsonPath("$.[*].telephone").value(hasItem(DEFAULT_TELEPHONE)));
     }
     
+    @Test
+    @Transactional
+    public void exportCustomers() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+
+        // Export the customers matching the criteria
+        String export = restCustomerMockMvc.perform(get("/api/customers/_export?id.equals=" + customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(NdjsonUtil.APPLICATION_NDJSON_VALUE))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = export.split("\n");
+        assertThat(lines).hasSize(1);
+        CustomerDTO exported = new ObjectMapper().readValue(lines[0], CustomerDTO.class);
+        assertThat(exported).isEqualTo(customerMapper.toDto(customer));
+        assertThat(exported.getEmail()).isEqualTo(DEFAULT_EMAIL);
+    }
+
     @Test
     @Transactional
     public void getCustomer() throws Exception {
@@ -586,6 +609,55 @@ public class CustomerResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    public void getCustomerWishLists() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+        Customer other = createEntity(em);
+        em.persist(other);
+        WishList first = WishListResourceIT.createEntity(em).customer(customer);
+        WishList second = WishListResourceIT.createEntity(em).customer(customer);
+        em.persist(first);
+        em.persist(second);
+        em.persist(WishListResourceIT.createEntity(em).customer(other));
+        em.flush();
+
+        // Get the wish lists of the customer, one per page
+        restCustomerMockMvc.perform(get("/api/customers/{id}/wish-lists?sort=id,asc&size=1", customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue())))
+            .andExpect(jsonPath("$.[0].customerId").value(customer.getId().intValue()));
+        restCustomerMockMvc.perform(get("/api/customers/{id}/wish-lists?sort=id,asc&size=1&page=1", customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue())));
+        restCustomerMockMvc.perform(get("/api/customers/{id}/wish-lists", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getCustomerAddresses() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+        Customer other = createEntity(em);
+        em.persist(other);
+        Address address = AddressResourceIT.createEntity(em).customer(customer);
+        em.persist(address);
+        em.persist(AddressResourceIT.createEntity(em).customer(other));
+        em.flush();
+
+        // Get the addresses of the customer
+        restCustomerMockMvc.perform(get("/api/customers/{id}/addresses", customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(contains(address.getId().intValue())))
+            .andExpect(jsonPath("$.[0].city").value(address.getCity()));
+        restCustomerMockMvc.perform(get("/api/customers/{id}/addresses", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void getNonExistingCustomer() throws Exception {
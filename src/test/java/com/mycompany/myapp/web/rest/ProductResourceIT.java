@@ -6,6 +6,9 @@ import com.mycompany.myapp.domain.WishList;
 import com.mycompany.myapp.domain.Category;
 import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.service.ProductService;
+import com.mycompany.myapp.service.CategoryProductIndex;
+import com.mycompany.myapp.service.CategoryTree;
+import com.mycompany.myapp.service.ProductSearchIndex;
 import com.mycompany.myapp.service.dto.ProductDTO;
 import com.mycompany.myapp.service.mapper.ProductMapper;
 import com.mycompany.myapp.service.dto.ProductCriteria;
@@ -16,17 +19,31 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mycompany.myapp.web.rest.util.NdjsonUtil;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -71,6 +88,15 @@ public class ProductResourceIT {
     @Autowired
     private ProductQueryService productQueryService;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryTree categoryTree;
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
     @Autowired
     private EntityManager em;
 
@@ -140,6 +166,57 @@ public class ProductResourceIT {
         assertThat(testProduct.getDateModified()).isEqualTo(DEFAULT_DATE_MODIFIED);
     }
 
+    @Test
+    @Transactional
+    public void importProductsFromCsv() throws Exception {
+        int databaseSizeBeforeImport = productRepository.findAll().size();
+        String csv = "title,keywords,rating,dateAdded\n" +
+            DEFAULT_TITLE + "," + DEFAULT_KEYWORDS + "," + DEFAULT_RATING + "," + DEFAULT_DATE_ADDED + "\n" +
+            "," + DEFAULT_KEYWORDS + ",,\n" +
+            UPDATED_TITLE + ",,not a rating,\n" +
+            "\"" + UPDATED_TITLE + ", quoted\",,,\n";
+
+        restProductMockMvc.perform(post("/api/products/_bulk")
+            .contentType("text/csv")
+            .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(4))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.errors.[*].row").value(contains(2, 3)))
+            .andExpect(jsonPath("$.errors.[0].message").value("title: must not be null"))
+            .andExpect(jsonPath("$.errors.[1].message").value("Invalid value for rating"));
+
+        List<Product> productList = productRepository.findAll();
+        assertThat(productList).hasSize(databaseSizeBeforeImport + 2);
+        assertThat(productList).extracting(Product::getTitle).contains(DEFAULT_TITLE, UPDATED_TITLE + ", quoted");
+        Product imported = productList.stream().filter(p -> DEFAULT_TITLE.equals(p.getTitle())).findFirst().get();
+        assertThat(imported.getKeywords()).isEqualTo(DEFAULT_KEYWORDS);
+        assertThat(imported.getRating()).isEqualTo(DEFAULT_RATING);
+        assertThat(imported.getDateAdded()).isEqualTo(DEFAULT_DATE_ADDED);
+    }
+
+    @Test
+    @Transactional
+    public void importProductsFromNdjson() throws Exception {
+        int databaseSizeBeforeImport = productRepository.findAll().size();
+        String ndjson = "{\"title\":\"" + DEFAULT_TITLE + "\",\"rating\":" + DEFAULT_RATING + "}\n" +
+            "\n" +
+            "{\"id\":1,\"title\":\"" + UPDATED_TITLE + "\"}\n" +
+            "{\"title\":\n";
+
+        restProductMockMvc.perform(post("/api/products/_bulk")
+            .contentType(NdjsonUtil.APPLICATION_NDJSON_VALUE)
+            .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(3))
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.errors.[*].row").value(contains(2, 3)))
+            .andExpect(jsonPath("$.errors.[0].message").value("A new product cannot already have an ID"));
+
+        assertThat(productRepository.findAll()).hasSize(databaseSizeBeforeImport + 1);
+    }
+
     @Test
     @Transactional
     public void createProductWithExistingId() throws Exception {
@@ -788,6 +865,23 @@ public class ProductResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getAllProductsWithAndWithoutWishList() throws Exception {
+        // Initialize the database
+        WishList wishList = WishListResourceIT.createEntity(em);
+        em.persist(wishList);
+        productRepository.saveAndFlush(product.wishList(wishList));
+        Product other = productRepository.saveAndFlush(createEntity(em));
+
+        // Products without a wish list are listed too
+        restProductMockMvc.perform(get("/api/products?sort=id,asc&id.in=" + product.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(product.getId().intValue(), other.getId().intValue())))
+            .andExpect(jsonPath("$.[0].wishListId").value(wishList.getId().intValue()))
+            .andExpect(jsonPath("$.[1].wishListId").isEmpty());
+    }
+
     @Test
     @Transactional
     public void getAllProductsByWishListIsEqualToSomething() throws Exception {
@@ -827,6 +921,239 @@ public class ProductResourceIT {
         defaultProductShouldNotBeFound("categoryId.equals=" + (categoryId + 1));
     }
 
+    @Test
+    @Transactional
+    public void getAllProductsByCategoryIncludingDescendants() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Category root = CategoryResourceIT.createEntity(em);
+        em.persist(root);
+        Category child = CategoryResourceIT.createEntity(em).parent(root);
+        em.persist(child);
+        Category sibling = CategoryResourceIT.createEntity(em);
+        em.persist(sibling);
+        em.flush();
+        product.addCategory(child);
+        productRepository.saveAndFlush(product);
+        categoryTree.rebuild();
+
+        // Get all the productList where category is root or one of its descendants
+        defaultProductShouldBeFound("categoryId.equals=" + root.getId() + "&includeDescendants=true");
+        defaultProductShouldBeFound("categoryId.in=" + sibling.getId() + "," + root.getId() + "&includeDescendants=true");
+        defaultProductShouldNotBeFound("categoryId.equals=" + root.getId());
+        defaultProductShouldNotBeFound("categoryId.equals=" + sibling.getId() + "&includeDescendants=true");
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsByCategoryExpression() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Category first = CategoryResourceIT.createEntity(em);
+        em.persist(first);
+        Category second = CategoryResourceIT.createEntity(em);
+        em.persist(second);
+        Category third = CategoryResourceIT.createEntity(em);
+        em.persist(third);
+        em.flush();
+        product.addCategory(first);
+        product.addCategory(second);
+        productRepository.saveAndFlush(product);
+        categoryProductIndex.rebuild();
+
+        // Get all the productList where the categories match the expression
+        defaultProductShouldBeFound("categoryExpression=" + first.getId() + " and " + second.getId());
+        defaultProductShouldBeFound("categoryExpression=" + first.getId() + " and (" + third.getId() + " or " + second.getId()
+            + ") and not " + third.getId());
+        defaultProductShouldBeFound("categoryExpression=not " + third.getId() + "&id.equals=" + product.getId());
+        defaultProductShouldNotBeFound("categoryExpression=" + first.getId() + " and " + third.getId());
+        defaultProductShouldNotBeFound("categoryExpression=not (" + first.getId() + " or " + third.getId() + ")&id.equals=" + product.getId());
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsByInvalidCategoryExpression() throws Exception {
+        restProductMockMvc.perform(get("/api/products?categoryExpression=1 and"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void searchProducts() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Product other = productRepository.saveAndFlush(createUpdatedEntity(em));
+        productSearchIndex.index(product);
+        productSearchIndex.index(other);
+
+        restProductMockMvc.perform(get("/api/products/_search?q=" + DEFAULT_TITLE.toLowerCase()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(contains(product.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(contains(DEFAULT_TITLE)));
+
+        restProductMockMvc.perform(get("/api/products/_search?q=" + UPDATED_DESCRIPTION))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void exportProducts() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Product other = productRepository.saveAndFlush(createEntity(em));
+        productRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Export the products matching the criteria
+        String export = restProductMockMvc.perform(get("/api/products/_export?title.equals=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(NdjsonUtil.APPLICATION_NDJSON_VALUE))
+            .andReturn().getResponse().getContentAsString();
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        List<ProductDTO> exported = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            exported.add(objectMapper.readValue(line, ProductDTO.class));
+        }
+        assertThat(exported).containsExactly(productMapper.toDto(product), productMapper.toDto(other));
+        assertThat(exported.get(0).getDateAdded()).isEqualTo(DEFAULT_DATE_ADDED);
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsWithoutCount() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        productRepository.saveAndFlush(createEntity(em));
+
+        restProductMockMvc.perform(get("/api/products?count=none&size=1&sort=id,desc&title.equals=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
+
+        restProductMockMvc.perform(get("/api/products?count=none&page=1&size=1&sort=id,desc&title.equals=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(product.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsWithApproximateCount() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        productRepository.saveAndFlush(createEntity(em));
+
+        restProductMockMvc.perform(get("/api/products?count=approximate&size=1&sort=id,desc&title.equals=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(header().string("X-Total-Count", "2"));
+    }
+
+    @Test
+    @Transactional
+    public void getProductFacets() throws Exception {
+        // Initialize the database
+        Category first = CategoryResourceIT.createEntity(em);
+        em.persist(first);
+        Category second = CategoryResourceIT.createEntity(em);
+        em.persist(second);
+        em.flush();
+        product.addCategory(first);
+        productRepository.saveAndFlush(product);
+        Product other = createUpdatedEntity(em).addCategory(first).addCategory(second);
+        productRepository.saveAndFlush(other);
+        String ids = "id.in=" + product.getId() + "," + other.getId();
+
+        // Get all the facets of the products
+        restProductMockMvc.perform(get("/api/products/_facets?" + ids))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.categoryId.['" + first.getId() + "']").value(2))
+            .andExpect(jsonPath("$.categoryId.['" + second.getId() + "']").value(1))
+            .andExpect(jsonPath("$.rating.['" + DEFAULT_RATING + "']").value(1))
+            .andExpect(jsonPath("$.rating.['" + UPDATED_RATING + "']").value(1))
+            .andExpect(jsonPath("$.dateAdded.['1970-01']").value(1))
+            .andExpect(jsonPath("$.dateAdded.['" + UPDATED_DATE_ADDED.toString().substring(0, 7) + "']").value(1));
+
+        // Get the rating facet only, with wider buckets
+        restProductMockMvc.perform(get("/api/products/_facets?facets=rating&ratingBucketSize=2&" + ids + "&categoryId.equals=" + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(jsonPath("$.rating.['2']").value(1))
+            .andExpect(jsonPath("$.categoryId").doesNotExist())
+            .andExpect(jsonPath("$.dateAdded").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getProductFacetsWithNegativeRatings() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product.rating(-3));
+        Product bound = productRepository.saveAndFlush(createUpdatedEntity(em).rating(-5));
+        Product positive = productRepository.saveAndFlush(createUpdatedEntity(em).rating(3));
+        String ids = "id.in=" + product.getId() + "," + bound.getId() + "," + positive.getId();
+
+        // Get the rating facet, the buckets being rounded down
+        restProductMockMvc.perform(get("/api/products/_facets?facets=rating&ratingBucketSize=5&" + ids))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.rating.['-5']").value(2))
+            .andExpect(jsonPath("$.rating.['0']").value(1))
+            .andExpect(jsonPath("$.rating.['-10']").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getProductFacetsWithInvalidParameters() throws Exception {
+        restProductMockMvc.perform(get("/api/products/_facets?facets=rating,price"))
+            .andExpect(status().isBadRequest());
+        restProductMockMvc.perform(get("/api/products/_facets?ratingBucketSize=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsInKeysetMode() throws Exception {
+        // Initialize the database
+        productRepository.saveAndFlush(product);
+        Product higherRated = productRepository.saveAndFlush(createEntity(em).rating(UPDATED_RATING));
+        Product unrated = productRepository.saveAndFlush(createEntity(em).rating(null));
+
+        // Get the first slice, sorted by rating with the unrated product last
+        MvcResult result = restProductMockMvc.perform(get("/api/products?after=&size=2&sort=rating,desc&title.equals=" + DEFAULT_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(higherRated.getId().intValue(), product.getId().intValue())))
+            .andReturn();
+
+        // Follow the next link, the criteria and the sort order are kept
+        restProductMockMvc.perform(get(nextLink(result)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(unrated.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllProductsInKeysetModeWithInvalidCursor() throws Exception {
+        restProductMockMvc.perform(get("/api/products?after=invalid!&size=2"))
+            .andExpect(status().isBadRequest());
+
+        restProductMockMvc.perform(get("/api/products?after=&sort=categories,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    static URI nextLink(MvcResult result) {
+        Matcher matcher = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(result.getResponse().getHeader(HttpHeaders.LINK));
+        assertThat(matcher.find()).isTrue();
+        return URI.create(matcher.group(1));
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
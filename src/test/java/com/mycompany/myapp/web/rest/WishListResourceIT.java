@@ -21,6 +21,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -463,6 +464,70 @@ public class WishListResourceIT {
         assertThat(wishListList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void addAndRemoveWishListProducts() throws Exception {
+        // Initialize the database
+        WishList other = createEntity(em);
+        em.persist(other);
+        wishListRepository.saveAndFlush(wishList);
+        Product first = ProductResourceIT.createEntity(em).wishList(other);
+        Product second = ProductResourceIT.createEntity(em);
+        Product third = ProductResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        em.persist(third);
+        em.flush();
+
+        // Add one product, then several, the first one being moved from the other wish list
+        restWishListMockMvc.perform(put("/api/wish-lists/{id}/products/{productId}", wishList.getId(), second.getId()))
+            .andExpect(status().isNoContent());
+        restWishListMockMvc.perform(put("/api/wish-lists/{id}/products", wishList.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(first.getId(), third.getId()))))
+            .andExpect(status().isNoContent());
+        assertThat(wishListIdOf(first)).isEqualTo(wishList.getId());
+        assertThat(wishListIdOf(second)).isEqualTo(wishList.getId());
+        assertThat(wishListIdOf(third)).isEqualTo(wishList.getId());
+
+        // Remove one product, then several, one of which is in no wish list anymore
+        restWishListMockMvc.perform(delete("/api/wish-lists/{id}/products/{productId}", wishList.getId(), first.getId()))
+            .andExpect(status().isNoContent());
+        restWishListMockMvc.perform(delete("/api/wish-lists/{id}/products", wishList.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(first.getId(), third.getId()))))
+            .andExpect(status().isNoContent());
+        assertThat(wishListIdOf(first)).isNull();
+        assertThat(wishListIdOf(second)).isEqualTo(wishList.getId());
+        assertThat(wishListIdOf(third)).isNull();
+    }
+
+    @Test
+    @Transactional
+    public void addUnknownWishListProducts() throws Exception {
+        // Initialize the database
+        wishListRepository.saveAndFlush(wishList);
+        Product product = ProductResourceIT.createEntity(em);
+        em.persist(product);
+        em.flush();
+
+        restWishListMockMvc.perform(put("/api/wish-lists/{id}/products", wishList.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(product.getId(), Long.MAX_VALUE))))
+            .andExpect(status().isBadRequest());
+        restWishListMockMvc.perform(put("/api/wish-lists/{id}/products/{productId}", Long.MAX_VALUE, product.getId()))
+            .andExpect(status().isNotFound());
+        restWishListMockMvc.perform(delete("/api/wish-lists/{id}/products/{productId}", Long.MAX_VALUE, product.getId()))
+            .andExpect(status().isNotFound());
+        assertThat(wishListIdOf(product)).isNull();
+    }
+
+    private Long wishListIdOf(Product product) {
+        em.clear();
+        WishList productWishList = em.find(Product.class, product.getId()).getWishList();
+        return productWishList == null ? null : productWishList.getId();
+    }
+
     @Test
     @Transactional
     public void deleteWishList() throws Exception {